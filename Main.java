@@ -1,6 +1,7 @@
 import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.GFLAC2WindFarmAlgorithm3;
 import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.PaquetAlgorithm;
 import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.WindFarmApproximationAlgorithm;
+import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.WindFarmBatchSolver;
 import graphTheory.generators.steinLib.STPGenerator;
 import graphTheory.generators.windfarm.STPWindFarmGenerator;
 import graphTheory.graph.Arc;
@@ -28,6 +29,7 @@ public class Main {
 
 
 //        testWindFarmGenerator();
+//        testWindFarmBatch();
 //        testWindFarmNewFormat();
         testWindFarmPaquet();
 
@@ -123,6 +125,22 @@ public class Main {
 
     }
 
+    public static void testWindFarmBatch(){
+
+        WindFarmBatchSolver solver = new WindFarmBatchSolver(GFLAC2WindFarmAlgorithm3::new);
+
+        ArrayList<String> dirs = new ArrayList<String>();
+        for(int deg = 1; deg <= 10; deg++)
+            dirs.add("SteinLibWindFarm/small/deg" + StringUtils.leftPad(String.valueOf(deg), 2, '0'));
+
+        System.out.println("NAME n m k TIME COST");
+        try {
+            solver.solve(dirs, System.out::println);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
     public static void testWindFarmNewFormat(){
 
         try {
@@ -148,17 +166,18 @@ public class Main {
 //            fm1.closeWrite();
 
 
+            eol.applyStyle();
             for(Integer node : eol.getGraph().getVertices())
-                eol.getGraph().setDrawn(node, false);
+                eol.getGraph().getStyle().setDrawn(node, false);
 
             for(Arc a : eol.getGraph().getEdges()) {
                 if(gf.getArborescence().containsKey(a)) {
-                    eol.getGraph().setColor(a, Color.red);
-                    eol.getGraph().setDrawn(a.getInput(),true);
-                    eol.getGraph().setDrawn(a.getOutput(),true);
+                    eol.getGraph().getStyle().setColor(a, Color.red);
+                    eol.getGraph().getStyle().setDrawn(a.getInput(),true);
+                    eol.getGraph().getStyle().setDrawn(a.getOutput(),true);
                 }
                 else {
-                    eol.getGraph().setDrawn(a, false);
+                    eol.getGraph().getStyle().setDrawn(a, false);
                 }
             }
 
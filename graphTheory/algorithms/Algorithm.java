@@ -2,6 +2,8 @@ package graphTheory.algorithms;
 
 import graphTheory.instances.Instance;
 
+import java.util.LinkedHashMap;
+
 /**
  * An algorithm is an object we build with inputs, then we run it, and then we
  * check the outputs.
@@ -11,7 +13,7 @@ import graphTheory.instances.Instance;
 public abstract class Algorithm<T extends Instance> {
 
 	/**
-	 * Time in ms when the algorithm starts to run over an instance
+	 * Time in ns when the algorithm starts to run over an instance
 	 */
 	private long begginingTime;
 
@@ -20,6 +22,31 @@ public abstract class Algorithm<T extends Instance> {
 	 */
 	private Long time;
 
+	/**
+	 * Statistics of the last run of this algorithm
+	 */
+	private AlgorithmStatistics statistics;
+
+	/**
+	 * Total time in ns of each phase of the current run
+	 */
+	private LinkedHashMap<String, Long> phaseTimes = new LinkedHashMap<String, Long>();
+
+	/**
+	 * Counters of the current run
+	 */
+	private LinkedHashMap<String, Long> counters = new LinkedHashMap<String, Long>();
+
+	/**
+	 * Current phase, null if no phase is opened
+	 */
+	private String currentPhase;
+
+	/**
+	 * Time in ns when the current phase was opened
+	 */
+	private long phaseBeginningTime;
+
 	protected T instance;
 
 	/**
@@ -58,11 +85,59 @@ public abstract class Algorithm<T extends Instance> {
 			return;
 		}
 		time = null;
+		statistics = null;
 		setTimeBegin(); // Save the current timestamp
 		computeWithoutTime();
 		setTime(); // Check the current timestamp to compute the running time of the algorithm
 	}
 
+	/**
+	 * Close the current phase, if any, and open a new phase of the current
+	 * run. If a phase with the same name was already opened during this run,
+	 * the time of the new phase is added to it.
+	 *
+	 * @param name
+	 */
+	protected void startPhase(String name) {
+		long now = System.nanoTime();
+		closePhase(now);
+		currentPhase = name;
+		phaseBeginningTime = now;
+	}
+
+	/**
+	 * Close the current phase, if any.
+	 */
+	protected void endPhase() {
+		closePhase(System.nanoTime());
+	}
+
+	private void closePhase(long now) {
+		if (currentPhase == null)
+			return;
+		phaseTimes.merge(currentPhase, now - phaseBeginningTime, Long::sum);
+		currentPhase = null;
+	}
+
+	/**
+	 * Add value to a counter of the current run. This method should not be
+	 * called in a hot loop: the algorithm should rather count with its own
+	 * fields, and add them in {@link #recordCounters()}.
+	 *
+	 * @param counter
+	 * @param value
+	 */
+	protected void addToCounter(String counter, long value) {
+		counters.merge(counter, value, Long::sum);
+	}
+
+	/**
+	 * Called at the end of each run of the algorithm, even if no solution was
+	 * found, to add its counters with {@link #addToCounter(String, long)}.
+	 */
+	protected void recordCounters() {
+	}
+
 	/**
 	 * Run the algorithm over the instance (without checking the instance has a
 	 * solution, and without checking the running time)
@@ -94,20 +169,27 @@ public abstract class Algorithm<T extends Instance> {
 	 * Save the current timestamp
 	 */
 	private void setTimeBegin() {
-		begginingTime = System.currentTimeMillis();
+		phaseTimes.clear();
+		counters.clear();
+		currentPhase = null;
+		begginingTime = System.nanoTime();
 	}
 
 	/**
 	 * Check the current timestamp to compute the running time of the algorithm
 	 * 
-	 * @return the time from the last call of {@link #setTimeBegin()}..
+	 * @return the time in ns from the last call of {@link #setTimeBegin()}..
 	 */
 	private long getCurrentTime() {
-		return System.currentTimeMillis() - begginingTime;
+		return System.nanoTime() - begginingTime;
 	}
 
 	private void setTime() {
-		time = getCurrentTime();
+		long nanoTime = getCurrentTime();
+		endPhase();
+		recordCounters();
+		time = nanoTime / 1000000L;
+		statistics = new AlgorithmStatistics(nanoTime, phaseTimes, counters);
 	}
 
 	/**
@@ -116,4 +198,13 @@ public abstract class Algorithm<T extends Instance> {
 	public Long getTime() {
 		return time;
 	}
+
+	/**
+	 * @return the running time of each phase and the counters of the last run
+	 *         of this algorithm, with a nanosecond resolution. null if it was
+	 *         never run.
+	 */
+	public AlgorithmStatistics getStatistics() {
+		return statistics;
+	}
 }
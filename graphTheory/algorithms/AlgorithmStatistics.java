@@ -0,0 +1,82 @@
+package graphTheory.algorithms;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics of the last run of an {@link Algorithm}: its running time, the
+ * running time of each of its phases, and its counters, such as a number of
+ * heap operations. The times are in nanoseconds, measured with
+ * {@link System#nanoTime()}.
+ * <p>
+ * The phases and the counters are given in the order they were first opened
+ * or incremented. A phase opened several times, for instance once per
+ * iteration of a loop, is reported once, with its total time.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public final class AlgorithmStatistics {
+
+	private final long time;
+	private final Map<String, Long> phaseTimes;
+	private final Map<String, Long> counters;
+
+	AlgorithmStatistics(long time, LinkedHashMap<String, Long> phaseTimes,
+			LinkedHashMap<String, Long> counters) {
+		this.time = time;
+		this.phaseTimes = Collections.unmodifiableMap(new LinkedHashMap<String, Long>(phaseTimes));
+		this.counters = Collections.unmodifiableMap(new LinkedHashMap<String, Long>(counters));
+	}
+
+	/**
+	 * @return the running time of the algorithm in nanoseconds.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * @return the total time of each phase in nanoseconds.
+	 */
+	public Map<String, Long> getPhaseTimes() {
+		return phaseTimes;
+	}
+
+	/**
+	 * @param phase
+	 * @return the total time of that phase in nanoseconds, 0 if it was never
+	 *         opened.
+	 */
+	public long getPhaseTime(String phase) {
+		Long t = phaseTimes.get(phase);
+		return (t == null) ? 0L : t;
+	}
+
+	/**
+	 * @return the value of each counter.
+	 */
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+
+	/**
+	 * @param counter
+	 * @return the value of that counter, 0 if it was never incremented.
+	 */
+	public long getCounter(String counter) {
+		Long c = counters.get(counter);
+		return (c == null) ? 0L : c;
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("time=").append(time / 1000).append("us");
+		for (Map.Entry<String, Long> entry : phaseTimes.entrySet())
+			sb.append(' ').append(entry.getKey()).append('=').append(entry.getValue() / 1000).append("us");
+		for (Map.Entry<String, Long> entry : counters.entrySet())
+			sb.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+		return sb.toString();
+	}
+}
@@ -0,0 +1,957 @@
+package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
+
+import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
+import graphTheory.instances.steiner.windfarm.CableCostTable;
+import graphTheory.instances.steiner.windfarm.FrozenWindFarmInstance;
+import graphTheory.utils.IndexedDoubleBooleanFibonacciHeap;
+import graphTheory.utils.WeightedQuickUnionPathCompressionUF;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of the G_F algorithm over primitive arrays.
+ * <p>
+ * This algorithm returns exactly the same arborescences as
+ * {@link GFLAC2WindFarmAlgorithm3} (see that class for a description of G_F
+ * and FLAC), but works over the {@link CompactDirectedGraph} snapshot of the
+ * graph of the instance. Every vertex and every arc is identified by its dense
+ * id, and the state of FLAC (flow rates, left capacities, node states, output
+ * degrees, saturated and waiting arcs, saturation times, ...) is stored in
+ * arrays indexed by those ids instead of hash maps and heap nodes. The
+ * {@link IndexedDoubleBooleanFibonacciHeap} sorting the saturating nodes
+ * removes the nodes saturated at the same time in the same order as the
+ * {@link graphTheory.utils.CustomFibonacciHeap} of
+ * {@link GFLAC2WindFarmAlgorithm3}.
+ * <p>
+ * The arrays and the scratch buffers used by FLAC are allocated once and
+ * reused by every call to {@link #applyFLAC()}, and by every call to
+ * {@link #compute()} as long as the size of the instance does not change.
+ * The costs, the terminals and the output degrees are read from the
+ * {@link FrozenWindFarmInstance} snapshot of the instance, which is not
+ * copied: many algorithms can run over the same instance in parallel.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class CompactGFLAC2WindFarmAlgorithm extends WindFarmApproximationAlgorithm {
+
+	private static final byte UNEXPLORED = 0;
+	private static final byte EXPLORED = 1;
+	private static final byte JONCTIONNED = 2;
+
+	/**
+	 * Snapshot of the instance.
+	 */
+	private FrozenWindFarmInstance frozen;
+
+	/**
+	 * Compact snapshot of the graph of the instance.
+	 */
+	private CompactDirectedGraph graph;
+
+	/**
+	 * Cable cost table of the instance, giving the costs of the arcs and
+	 * their order.
+	 */
+	private CableCostTable costTable;
+
+	/**
+	 * Number of vertices of the graph. The fictive node associated with the
+	 * vertex v is n + v.
+	 */
+	private int n;
+
+	/**
+	 * Dense id of the root of the instance.
+	 */
+	private int root;
+
+	/**
+	 * For each arc, its perturbed cost, null if the costs are not perturbed.
+	 * The cost of an arc of the current solution is 0, see {@link #cost(int)}.
+	 */
+	private double[] perturbedCosts;
+
+	/**
+	 * For each vertex, true if it is a terminal not reached yet.
+	 */
+	private boolean[] required;
+	private int nbRequired;
+
+	/**
+	 * For each arc, how many terminals can be linked to the root with a path
+	 * containing this arc.
+	 */
+	private int[] leftCapacities;
+
+	/**
+	 * For each vertex, how many output arcs of that node can be used to the
+	 * solution, if its output degree is bounded.
+	 */
+	private int[] leftOutputDegree;
+	private int[] currentLeftOutDegree;
+
+	/**
+	 * For each arc, true if it is in the current solution.
+	 */
+	private boolean[] currentSol;
+
+	/**
+	 * Arcs of the current solution, built in the same order as in
+	 * {@link GFLAC2WindFarmAlgorithm3} so that the output maps are identical.
+	 */
+	private HashSet<Arc> currentSolArcs;
+
+	/**
+	 * The input arcs of the vertex v sorted by cost are sortedInputArcs[b] to
+	 * sortedInputArcs[e-1] where b and e are the input offsets of v in the
+	 * compact graph. They are sorted the first time they are needed.
+	 */
+	private int[] sortedInputArcs;
+	private boolean[] inputArcsSorted;
+
+	/**
+	 * Amplitude and seed of the perturbation of the costs, see
+	 * {@link #setCostPerturbation(double, long)}.
+	 */
+	private double perturbationAmplitude;
+	private long perturbationSeed;
+
+	/**
+	 * Input arcs of each vertex sorted by perturbed cost, as in
+	 * {@link CableCostTable#getSortedInputArc(int)}, null if the costs are not
+	 * perturbed.
+	 */
+	private int[] perturbedSortedInputArcs;
+
+	// ----------- FLAC state, reset by reinit() -----------
+
+	private boolean[] saturated;
+	private boolean[] waiting;
+
+	/**
+	 * Flow rate of each vertex (indexes 0 to n-1) and of each fictive node
+	 * (indexes n to 2n-1).
+	 */
+	private int[] flowRates;
+
+	/**
+	 * For each vertex, position in sortedInputArcs of the next saturated
+	 * entering arc, or -1 if the vertex was not reached yet.
+	 */
+	private int[] nextSaturatedPositions;
+
+	/**
+	 * For each vertex, its next saturated entering arc, or -1 if none.
+	 */
+	private int[] nextSaturatedEnteringArcs;
+
+	/**
+	 * Vertices (ids 0 to n-1) and fictive nodes (ids n to 2n-1) sorted by
+	 * saturation time.
+	 */
+	private IndexedDoubleBooleanFibonacciHeap sortedSaturating;
+
+	private byte[] nodeStates;
+
+	private WeightedQuickUnionPathCompressionUF unionFind;
+
+	/**
+	 * For each waiting arc, the list of the flow rates it received, as a linked
+	 * list in a pool of arrays: waitingFlowRatesLast[a] is the last element of
+	 * the list of a (or -1), and for each element e, waitingFlowRatesPrevious[e]
+	 * is the previous element (or -1).
+	 */
+	private int[] waitingFlowRatesLast;
+	private double[] waitingFlowRatesTimes;
+	private int[] waitingFlowRatesValues;
+	private int[] waitingFlowRatesPrevious;
+	private int waitingFlowRatesSize;
+
+	private double time;
+
+	// ----------- Scratch buffers -----------
+
+	private int[] waitingBuffer;
+	private int[] conflictedBuffer;
+	private int[] checkQueue;
+	private int[] updateQueue;
+	private int[] treeQueue;
+
+	/**
+	 * treeArcs[i] is the saturated arc through which treeQueue[i] was reached
+	 * by {@link #buildTree(int)}.
+	 */
+	private int[] treeArcs;
+	private int[] treeOutDegrees;
+	private int[] sortBuffer;
+
+	/**
+	 * Counters of the current run, see {@link #getStatistics()}.
+	 */
+	private long heapOperations, saturations, conflicts, flacRuns;
+
+	@Override
+	protected void computeWithoutTime() {
+		startPhase(INIT_PHASE);
+		heapOperations = saturations = conflicts = flacRuns = 0;
+		frozen = this.getInstance().freeze();
+		costTable = frozen.getCableCostTable();
+		graph = frozen.getGraph();
+		n = graph.getNumberOfVertices();
+		int m = graph.getNumberOfArcs();
+		root = frozen.getRoot();
+
+		allocate(n, m);
+
+		// The required vertices, except the root
+		Arrays.fill(required, false);
+		nbRequired = 0;
+		for (int i = 0; i < frozen.getNumberOfRequiredVertices(); i++) {
+			int v = frozen.getRequiredVertex(i);
+			if (v != root) {
+				required[v] = true;
+				nbRequired++;
+			}
+		}
+
+		int maxCapacity = frozen.getMaximumCapacity();
+
+		Arrays.fill(leftCapacities, maxCapacity);
+		perturbedCosts = null;
+		perturbedSortedInputArcs = null;
+		if (perturbationAmplitude != 0D) {
+			double[] factors = perturbationFactors(m, perturbationAmplitude, perturbationSeed);
+			perturbedCosts = new double[m];
+			for (int a = 0; a < m; a++)
+				perturbedCosts[a] = frozen.getCost(a) * factors[a];
+			perturbedSortedInputArcs = CableCostTable.sortInputArcs(graph, perturbedCosts);
+		}
+		Arrays.fill(currentSol, false);
+		currentSolArcs = new HashSet<Arc>();
+		Arrays.fill(inputArcsSorted, false);
+
+		for (int v = 0; v < n; v++)
+			leftOutputDegree[v] = frozen.getMaximumOutputDegree(v);
+
+		Arrays.fill(nodeStates, UNEXPLORED);
+
+		// Until all the terminals are reached
+		startPhase(FLAC_ITERATION_PHASE);
+		while (nbRequired > 0) {
+			try {
+				if (!applyFLAC()) {
+					setNoSolution();
+					return;
+				}
+			}
+			catch (NullPointerException e) {
+				setNoSolution();
+				return;
+			}
+		}
+
+		// Set the output of this algorithm : the returned tree and its cost
+
+		Double c = 0D;
+		HashMap<Arc, Integer> arborescenceFlow = new HashMap<Arc, Integer>();
+
+		for (Arc a : currentSolArcs)
+			arborescenceFlow.put(a, maxCapacity - leftCapacities[graph.getArcIndex(a)]);
+
+		startPhase(TREE_REPAIR_PHASE);
+		arborescenceFlow = this.getInstance().unviolateTreeConstraint(arborescenceFlow);
+		startPhase(NBSEC_DP_PHASE);
+		arborescenceFlow = this.getInstance().unviolateMaxNbSecConstraint(arborescenceFlow);
+
+		startPhase(COST_EVAL_PHASE);
+		// The branching nodes are the nodes with at least 2 output arcs in the
+		// arborescence
+		Arrays.fill(treeOutDegrees, 0);
+		for (Arc a : arborescenceFlow.keySet())
+			if (++treeOutDegrees[graph.getIndex(a.getInput())] == 2)
+				c += this.getInstance().getStaticStaticBranchingNodeCost();
+
+		for (Map.Entry<Arc, Integer> entry : arborescenceFlow.entrySet())
+			c += this.getInstance().getRealCableCost(entry.getKey(), entry.getValue());
+
+		arborescence = arborescenceFlow;
+		cost = c;
+	}
+
+	/**
+	 * Perturb the costs FLAC uses, as
+	 * {@link GFLAC2WindFarmAlgorithm3#setCostPerturbation(double, long)} does:
+	 * both algorithms return the same arborescence for the same amplitude and
+	 * seed. The default amplitude is 0: no perturbation.
+	 *
+	 * @param amplitude
+	 * @param seed
+	 */
+	public void setCostPerturbation(double amplitude, long seed) {
+		if (amplitude < 0 || amplitude >= 1)
+			throw new IllegalArgumentException("amplitude must be in [0, 1[");
+		this.perturbationAmplitude = amplitude;
+		this.perturbationSeed = seed;
+	}
+
+	@Override
+	protected void recordCounters() {
+		addToCounter(HEAP_OPERATIONS_COUNTER, heapOperations);
+		addToCounter(SATURATIONS_COUNTER, saturations);
+		addToCounter(CONFLICTS_COUNTER, conflicts);
+		addToCounter(FLAC_RUNS_COUNTER, flacRuns);
+	}
+
+	/**
+	 * Allocate the arrays used by this algorithm, unless the arrays allocated
+	 * by the previous run have the right size.
+	 */
+	private void allocate(int n, int m) {
+		if (required == null || required.length != n) {
+			required = new boolean[n];
+			leftOutputDegree = new int[n];
+			currentLeftOutDegree = new int[n];
+			inputArcsSorted = new boolean[n];
+			nextSaturatedPositions = new int[n];
+			nextSaturatedEnteringArcs = new int[n];
+			nodeStates = new byte[n];
+			flowRates = new int[2 * n];
+			sortedSaturating = new IndexedDoubleBooleanFibonacciHeap(2 * n);
+			unionFind = new WeightedQuickUnionPathCompressionUF(n);
+			checkQueue = new int[n];
+			updateQueue = new int[n];
+			treeQueue = new int[n];
+			treeArcs = new int[n];
+			treeOutDegrees = new int[n];
+		}
+		if (currentSol == null || currentSol.length != m) {
+			leftCapacities = new int[m];
+			currentSol = new boolean[m];
+			saturated = new boolean[m];
+			waiting = new boolean[m];
+			sortedInputArcs = new int[m];
+			waitingFlowRatesLast = new int[m];
+			waitingFlowRatesTimes = new double[m];
+			waitingFlowRatesValues = new int[m];
+			waitingFlowRatesPrevious = new int[m];
+			waitingBuffer = new int[m];
+			conflictedBuffer = new int[m];
+			sortBuffer = new int[m];
+		}
+	}
+
+	/**
+	 * @param a
+	 * @return the cost of the arc a used by FLAC: 0 if a is in the current
+	 *         solution, its perturbed cost if the costs are perturbed, and its
+	 *         cost otherwise.
+	 */
+	private double cost(int a) {
+		if (currentSol[a])
+			return 0D;
+		return (perturbedCosts == null) ? frozen.getCost(a) : perturbedCosts[a];
+	}
+
+	/**
+	 * Compare two arcs by cost, then by input node, then by output node.
+	 */
+	private int compareArcs(int a1, int a2) {
+		if (a1 == a2)
+			return 0;
+		int comp = Double.compare(cost(a1), cost(a2));
+		if (comp != 0)
+			return comp;
+		comp = Integer.compare(graph.getVertex(graph.getInput(a1)), graph.getVertex(graph.getInput(a2)));
+		if (comp != 0)
+			return comp;
+		return Integer.compare(graph.getVertex(graph.getOutput(a1)), graph.getVertex(graph.getOutput(a2)));
+	}
+
+	/**
+	 * Sort the input arcs of v by cost, if it was not already done. The input
+	 * arcs sorted by their cost in the instance (or by their perturbed cost)
+	 * are given by the cable cost table: only the arcs of the current
+	 * solution, whose cost is now 0, are moved.
+	 *
+	 * @param v
+	 */
+	private int getSortedInputArc(int i) {
+		return (perturbedSortedInputArcs == null) ? costTable.getSortedInputArc(i) : perturbedSortedInputArcs[i];
+	}
+
+	private void sortInputArcs(int v) {
+		if (inputArcsSorted[v])
+			return;
+		int begin = graph.getInputBegin(v);
+		int end = graph.getInputEnd(v);
+
+		// Arcs of the current solution, sorted by insertion in sortBuffer
+		int nbZeroed = 0;
+		for (int i = begin; i < end; i++) {
+			int a = getSortedInputArc(i);
+			if (currentSol[a]) {
+				int j = begin + nbZeroed++;
+				while (j > begin && compareArcs(a, sortBuffer[j - 1]) < 0) {
+					sortBuffer[j] = sortBuffer[j - 1];
+					j--;
+				}
+				sortBuffer[j] = a;
+			}
+		}
+
+		// Merge them with the other arcs
+		int z = begin, zEnd = begin + nbZeroed, k = begin;
+		for (int i = begin; i < end; i++) {
+			int a = getSortedInputArc(i);
+			if (currentSol[a])
+				continue;
+			while (z < zEnd && compareArcs(sortBuffer[z], a) < 0)
+				sortedInputArcs[k++] = sortBuffer[z++];
+			sortedInputArcs[k++] = a;
+		}
+		while (z < zEnd)
+			sortedInputArcs[k++] = sortBuffer[z++];
+		inputArcsSorted[v] = true;
+	}
+
+	// ---------- density Directed Steiner Tree part ---------
+
+	/**
+	 * Search a tree rooted in the root of the instance spanning a part of the
+	 * terminals, add it to the current solution and remove those terminals.
+	 *
+	 * @return false if no such tree exists.
+	 */
+	private boolean applyFLAC() {
+
+		// Reinitialize the parameters to let FLAC restart normally
+		reinit();
+		flacRuns++;
+
+		while (true) {
+
+			if (sortedSaturating.isEmpty())
+				return false;
+			int v = nextSaturatedNode();
+
+			if (isFictive(v)) {
+
+				int w = getReal(v);
+				int nbWaiting = getWaitingOutgoingArcs(w, waitingBuffer);
+				int nbConflicted = getConflictedArcs(waitingBuffer, nbWaiting, conflictedBuffer);
+
+				if (nbConflicted != 0)
+					updateConflictedFictiveNode(v, conflictedBuffer, nbConflicted);
+				else {
+					if (frozen.hasMaximumOutputDegree(w) && currentLeftOutDegree[w] < nbWaiting) {
+						conflictedBuffer[0] = getMinFlowRateArc(waitingBuffer, nbWaiting);
+						updateConflictedFictiveNode(v, conflictedBuffer, 1);
+					}
+					else {
+						int missingCapacity = checkMaxCapacities(w, getFlowRate(v));
+						if (missingCapacity != 0) {
+							nbConflicted = getCapacityConflictedArcs(missingCapacity, waitingBuffer, nbWaiting,
+									conflictedBuffer);
+							updateConflictedFictiveNode(v, conflictedBuffer, nbConflicted);
+						} else
+							saturateArcsAndUpdate(w, waitingBuffer, nbWaiting);
+					}
+				}
+			}
+			else {
+
+				int a = nextSaturatedEnteringArcs[v];
+
+				if (a == -1)
+					return false;
+
+				int u = graph.getInput(a);
+
+				// If the root is reached by the terminals, we can return a tree
+				if (u == root && (!frozen.hasMaximumOutputDegree(u) || currentLeftOutDegree[u] != 0 || currentSol[a])) {
+					saturated[a] = true;
+					return buildTree(u);
+				}
+
+				// We now check if a node is linked to the root with two paths of saturated arcs
+				boolean conflict = findConflict(a);
+
+				// Whatever the case, we have to check which arc of v will be its next saturated entering arc
+				updateNextSaturatedArc(v);
+
+				// If there is a conflict, we just ignore the arc saturation
+				if (conflict)
+					conflicts++;
+				else
+					saturateArcAndUpdate(a);
+			}
+		}
+	}
+
+	/**
+	 * Clear the state used by FLAC, and initialize it from the current
+	 * solution and the terminals not reached yet.
+	 */
+	private void reinit() {
+		Arrays.fill(saturated, false);
+		Arrays.fill(waiting, false);
+		Arrays.fill(flowRates, 0);
+		Arrays.fill(nextSaturatedPositions, -1);
+		Arrays.fill(nextSaturatedEnteringArcs, -1);
+		Arrays.fill(waitingFlowRatesLast, -1);
+		waitingFlowRatesSize = 0;
+		sortedSaturating.clear();
+		unionFind.reinit();
+
+		System.arraycopy(leftOutputDegree, 0, currentLeftOutDegree, 0, n);
+
+		// The saturation begin at 0 seconds
+		time = 0D;
+
+		// Init parameters for each terminal
+		for (int v = 0; v < n; v++) {
+			if (required[v]) {
+				// define the sources feeding that terminal as the terminal itself
+				flowRates[v] = 1;
+
+				// define the next saturated arc entering v, and compute the time
+				// in seconds needed to saturate it.
+				updateNextSaturatedArc(v);
+			}
+
+			int numberOfChoosenOutputArcs = 0;
+			for (int i = graph.getOutputBegin(v); i < graph.getOutputEnd(v); i++) {
+				if (currentSol[graph.getOutputArc(i)])
+					numberOfChoosenOutputArcs++;
+				if (numberOfChoosenOutputArcs == 2)
+					break;
+			}
+			if (numberOfChoosenOutputArcs == 1)
+				nodeStates[v] = EXPLORED;
+			else if (numberOfChoosenOutputArcs == 2)
+				nodeStates[v] = JONCTIONNED;
+		}
+	}
+
+	/**
+	 * Fill buffer with the waiting arcs outgoing from v.
+	 *
+	 * @return the number of such arcs.
+	 */
+	private int getWaitingOutgoingArcs(int v, int[] buffer) {
+		int size = 0;
+		for (int i = graph.getOutputBegin(v); i < graph.getOutputEnd(v); i++) {
+			int a = graph.getOutputArc(i);
+			if (waiting[a])
+				buffer[size++] = a;
+		}
+		return size;
+	}
+
+	/**
+	 * Assuming an entering arc of v is saturated, the next one is the next in
+	 * the list of entering arcs of v sorted by weigths. <br/>
+	 * This method find this arc and compute when it will be saturated
+	 *
+	 * @param v
+	 */
+	private void updateNextSaturatedArc(int v) {
+
+		int position = nextSaturatedPositions[v];
+		if (position == -1) {
+			sortInputArcs(v);
+			position = graph.getInputBegin(v);
+		}
+
+		// Last saturated arc entering v
+		int b = nextSaturatedEnteringArcs[v];
+
+		if (position == graph.getInputEnd(v)) {
+			// All arcs entering v are already saturated
+			nextSaturatedPositions[v] = position;
+			nextSaturatedEnteringArcs[v] = -1;
+			return;
+		}
+
+		// Next saturated arc entering v
+		int a = sortedInputArcs[position];
+		nextSaturatedPositions[v] = position + 1;
+		nextSaturatedEnteringArcs[v] = a;
+
+		// Saturated time of a
+		double satTime;
+
+		if (b == -1)
+			satTime = cost(a) / ((double) flowRates[v]);
+		else
+			satTime = (cost(a) - cost(b)) / ((double) flowRates[v]);
+
+		// Reinsert v in the heap with the saturated time of a
+		heapOperations++;
+		sortedSaturating.insert(v, time + satTime, graph.getInput(a) != root);
+	}
+
+	/**
+	 * @return the first node of the heap, and set the current time to its
+	 *         saturation time.
+	 */
+	private int nextSaturatedNode() {
+		heapOperations++;
+		int v = sortedSaturating.removeMin();
+		time = sortedSaturating.getDoubleValue(v);
+		return v;
+	}
+
+	/**
+	 * @param a
+	 * @return true if the saturation of arc a = (u,v) implies a conflict
+	 */
+	private boolean findConflict(int a) {
+		int u = graph.getInput(a);
+		int v = graph.getOutput(a);
+
+		return (frozen.hasMaximumOutputDegree(u) && currentLeftOutDegree[u] == 0 && !currentSol[a])
+				|| unionFind.connected(u, v)
+				|| waitingConflict(u, v)
+				|| checkMaxCapacities(u, getFlowRate(v)) != 0;
+	}
+
+	private boolean waitingConflict(int u, int v) {
+		int rootV = unionFind.find(v);
+		for (int i = graph.getOutputBegin(u); i < graph.getOutputEnd(u); i++) {
+			int a = graph.getOutputArc(i);
+			if (!waiting[a])
+				continue;
+			int w = graph.getOutput(a);
+			if (w == v)
+				continue;
+			if (unionFind.find(w) == rootV)
+				return true;
+		}
+		return false;
+	}
+
+	private int checkMaxCapacities(int u, int k) {
+		int head = 0, tail = 0;
+		checkQueue[tail++] = u;
+
+		while (head != tail) {
+			int w = checkQueue[head++];
+			for (int i = graph.getInputBegin(w); i < graph.getInputEnd(w); i++) {
+				int b = graph.getInputArc(i);
+				int capacity = leftCapacities[b];
+				if (capacity < getFlowRate(w) + k)
+					return getFlowRate(w) + k - capacity;
+				if (saturated[b]) {
+					if (tail == checkQueue.length)
+						checkQueue = Arrays.copyOf(checkQueue, 2 * tail);
+					checkQueue[tail++] = graph.getInput(b);
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Fill conflicted with the arcs of arcs[0..size-1] implying a conflict,
+	 * in the same order.
+	 *
+	 * @return the number of such arcs.
+	 */
+	private int getConflictedArcs(int[] arcs, int size, int[] conflicted) {
+		int nb = 0;
+		for (int i = 0; i < size; i++)
+			if (findConflict(arcs[i]))
+				conflicted[nb++] = arcs[i];
+		return nb;
+	}
+
+	/**
+	 * @return the first arc of arcs[0..size-1] with minimum output flow rate.
+	 */
+	private int getMinFlowRateArc(int[] arcs, int size) {
+		int min = arcs[0];
+		for (int i = 1; i < size; i++)
+			if (getFlowRate(graph.getOutput(arcs[i])) < getFlowRate(graph.getOutput(min)))
+				min = arcs[i];
+		return min;
+	}
+
+	/**
+	 * Sort arcs[0..size-1] by output flow rate (stable) and fill conflicted
+	 * with the first ones until their flow rates exceeds missingCapacity.
+	 *
+	 * @return the number of conflicted arcs.
+	 */
+	private int getCapacityConflictedArcs(int missingCapacity, int[] arcs, int size, int[] conflicted) {
+		for (int i = 1; i < size; i++) {
+			int a = arcs[i];
+			int fa = getFlowRate(graph.getOutput(a));
+			int j = i - 1;
+			while (j >= 0 && getFlowRate(graph.getOutput(arcs[j])) > fa) {
+				arcs[j + 1] = arcs[j];
+				j--;
+			}
+			arcs[j + 1] = a;
+		}
+
+		int nb = 0;
+		while (missingCapacity > 0) {
+			if (nb == size)
+				throw new NoSuchElementException();
+			int a = arcs[nb];
+			conflicted[nb++] = a;
+			missingCapacity -= getFlowRate(graph.getOutput(a));
+		}
+		return nb;
+	}
+
+	/**
+	 * Add the arc a to the set of saturated arcs, and update the flow rate of
+	 * all the arcs affected by this saturation
+	 *
+	 * @param a
+	 */
+	private void saturateArcAndUpdate(int a) {
+		saturations++;
+		int head = 0, tail = 0;
+		updateQueue[tail++] = a;
+
+		int v = graph.getOutput(a);
+		int vFlowRate = getFlowRate(v);
+
+		int u = graph.getInput(a);
+		byte state = nodeStates[u];
+		if (state == EXPLORED && !currentSol[a])
+			waiting[a] = true;
+		else {
+			if (state == UNEXPLORED)
+				nodeStates[u] = EXPLORED;
+			saturated[a] = true;
+			unionFind.union(u, v);
+			if (!currentSol[a] && frozen.hasMaximumOutputDegree(u))
+				currentLeftOutDegree[u]--;
+		}
+
+		while (head != tail) {
+			int b = updateQueue[head++];
+			int w = graph.getInput(b);
+
+			if (waiting[b])
+				updateExplored(b, vFlowRate);
+			else {
+				updateUnexploredOrJonctionned(w, vFlowRate);
+
+				int saturatingInputArc = nextSaturatedEnteringArcs[w];
+
+				// For each node linked to w with a saturated arc, we insert it in the list
+				// of nodes we have to update
+				sortInputArcs(w);
+				for (int i = graph.getInputBegin(w); i < graph.getInputEnd(w); i++) {
+					int inputArc = sortedInputArcs[i];
+					if (inputArc == saturatingInputArc)
+						break;
+					if (saturated[inputArc] || waiting[inputArc]) {
+						if (tail == updateQueue.length)
+							updateQueue = Arrays.copyOf(updateQueue, 2 * tail);
+						updateQueue[tail++] = inputArc;
+					}
+				}
+			}
+		}
+	}
+
+	private void updateExplored(int a, int vFlowRate) {
+		int w = graph.getInput(a);
+		int fw = getFictive(w);
+
+		int prevFlowRate = flowRates[fw];
+		int newFlowRate = prevFlowRate + vFlowRate;
+		flowRates[fw] = newFlowRate; // sources disjoint union, because there is no conflict
+
+		if (prevFlowRate != 0) {
+			double prevFlowRateD = prevFlowRate;
+
+			// if w already received flow before a became saturated
+			// the time the next entering arc of w is saturated is accelerated like this:
+			double prevNextSaturatedEnteringArcTime = sortedSaturating.getDoubleValue(fw);
+			double newVolFlowRateD = newFlowRate;
+
+			double newNextSaturatedEnteringArcTime = time
+					+ (prevNextSaturatedEnteringArcTime - time)
+					* (prevFlowRateD / newVolFlowRateD);
+			heapOperations++;
+			sortedSaturating.decreaseKey(fw, newNextSaturatedEnteringArcTime, true);
+
+			int last = waitingFlowRatesLast[a];
+			int prevFlowRateOfArc = (last == -1) ? 0 : waitingFlowRatesValues[last];
+			addWaitingFlowRate(a, time, prevFlowRateOfArc + vFlowRate);
+		}
+		else {
+			// a is the first entering waiting arc of the explored node
+			double satTime = (this.getInstance().getStaticStaticBranchingNodeCost()) / newFlowRate;
+
+			heapOperations++;
+			sortedSaturating.insert(fw, time + satTime, true);
+
+			addWaitingFlowRate(a, time, vFlowRate);
+		}
+	}
+
+	private void addWaitingFlowRate(int a, double t, int flowRate) {
+		int e = waitingFlowRatesSize++;
+		if (e == waitingFlowRatesTimes.length) {
+			waitingFlowRatesTimes = Arrays.copyOf(waitingFlowRatesTimes, 2 * e);
+			waitingFlowRatesValues = Arrays.copyOf(waitingFlowRatesValues, 2 * e);
+			waitingFlowRatesPrevious = Arrays.copyOf(waitingFlowRatesPrevious, 2 * e);
+		}
+		waitingFlowRatesTimes[e] = t;
+		waitingFlowRatesValues[e] = flowRate;
+		waitingFlowRatesPrevious[e] = waitingFlowRatesLast[a];
+		waitingFlowRatesLast[a] = e;
+	}
+
+	private void updateUnexploredOrJonctionned(int w, int vFlowRate) {
+
+		// The current flow rate inside each entering arc of w, before a is saturated
+		int prevFlowRate = flowRates[w];
+		int newFlowRate = prevFlowRate + vFlowRate;
+		flowRates[w] = newFlowRate; // sources disjoint union, because there is no conflict
+
+		if (prevFlowRate != 0) {
+			double prevFlowRateD = prevFlowRate;
+
+			// if w already received flow before a became saturated
+			// the time the next entering arc of w is saturated is accelerated like this:
+			// if there is no entering arc of w which is not fully saturated, we do nothing
+			if (sortedSaturating.contains(w)) {
+				double prevNextSaturatedEnteringArcTime = sortedSaturating.getDoubleValue(w);
+				double newVolFlowRateD = newFlowRate;
+
+				double newNextSaturatedEnteringArcTime = time
+						+ (prevNextSaturatedEnteringArcTime - time)
+						* (prevFlowRateD / newVolFlowRateD);
+				heapOperations++;
+				sortedSaturating.decreaseKey(w, newNextSaturatedEnteringArcTime,
+						sortedSaturating.getBooleanValue(w));
+			}
+		} else
+			// if w did not receive any flow from the source, we initialize its saturation like this
+			updateNextSaturatedArc(w);
+	}
+
+	private void saturateArcsAndUpdate(int v, int[] waitingEnteringArcs, int size) {
+		nodeStates[v] = JONCTIONNED;
+		for (int i = 0; i < size; i++) {
+			int a = waitingEnteringArcs[i];
+			waiting[a] = false;
+			saturateArcAndUpdate(a);
+		}
+	}
+
+	private void updateConflictedFictiveNode(int fv, int[] conflictedWaitingEnteringArcs, int size) {
+		conflicts++;
+		double flowLeft = 0D;
+		int newFlowRate = flowRates[fv];
+		for (int i = 0; i < size; i++) {
+			int a = conflictedWaitingEnteringArcs[i];
+			waiting[a] = false;
+			double t = time;
+			for (int e = waitingFlowRatesLast[a]; e != -1; e = waitingFlowRatesPrevious[e]) {
+				double flow = (t - waitingFlowRatesTimes[e]) * waitingFlowRatesValues[e];
+				flowLeft += flow;
+			}
+			newFlowRate -= getFlowRate(graph.getOutput(a));
+		}
+
+		flowRates[fv] = newFlowRate;
+
+		if (newFlowRate == 0)
+			return;
+
+		double satTime = flowLeft / newFlowRate;
+
+		heapOperations++;
+		sortedSaturating.insert(fv, time + satTime, true);
+	}
+
+	/**
+	 * Add the saturated arcs linked to the root to the current solution, and
+	 * remove the terminals they reach from the required vertices.
+	 *
+	 * @return true
+	 */
+	private boolean buildTree(int u) {
+		int head = 0, tail = 0;
+		treeQueue[tail++] = u;
+
+		while (head != tail) {
+			int v = treeQueue[head++];
+			if (required[v]) {
+				required[v] = false;
+				nbRequired--;
+			}
+
+			for (int i = graph.getOutputBegin(v); i < graph.getOutputEnd(v); i++) {
+				int a = graph.getOutputArc(i);
+				if (!saturated[a])
+					continue;
+
+				leftCapacities[a] -= getFlowRate(graph.getOutput(a));
+
+				if (!currentSol[a] && frozen.hasMaximumOutputDegree(v))
+					leftOutputDegree[v]--;
+
+				if (tail == treeQueue.length) {
+					treeQueue = Arrays.copyOf(treeQueue, 2 * tail);
+					treeArcs = Arrays.copyOf(treeArcs, 2 * tail);
+				}
+				treeArcs[tail] = a;
+				treeQueue[tail++] = graph.getOutput(a);
+			}
+		}
+
+		/*
+		 * Add each arc of the tree to the current partial solution, which
+		 * sets its cost to 0 (see cost(int)). As a consequence, the next tree
+		 * returned by FLAC is preferentially merged by the current partial
+		 * solution.
+		 */
+		for (int i = 1; i < tail; i++) {
+			int a = treeArcs[i];
+			if (!currentSol[a]) {
+				currentSol[a] = true;
+				currentSolArcs.add(graph.getArc(a));
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param v
+	 * @return the current flow rate entering v: the sources it can reach with
+	 *         saturated arcs
+	 */
+	private int getFlowRate(int v) {
+		return flowRates[v];
+	}
+
+	private int getFictive(int v) {
+		return n + v;
+	}
+
+	private int getReal(int fictiveV) {
+		return fictiveV - n;
+	}
+
+	private boolean isFictive(int v) {
+		return v >= n;
+	}
+}
@@ -1,8 +1,11 @@
 package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
 
 import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
 import graphTheory.graph.DirectedGraph;
 import graphTheory.graph.Graph;
+import graphTheory.instances.steiner.windfarm.CableCostTable;
+import graphTheory.instances.steiner.windfarm.FrozenWindFarmInstance;
 import graphTheory.utils.*;
 
 import java.util.*;
@@ -49,8 +52,10 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	// --------------------   Directed Steiner Tree Part --------------------//
 
 	/**
-	 * Copy of the costs of the instance. It let the algorithm modify the costs
-	 * withouth modifying the instance it self.
+	 * Costs modified by the algorithm: the arcs of the current solution, whose
+	 * cost is 0, and every arc if the costs are perturbed. The other costs are
+	 * read from the instance, which is not copied nor modified (see
+	 * {@link #getCost(Arc)}).
 	 */
 	private HashMap<Arc, Double> costs;
 
@@ -74,7 +79,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	/**
 	 * For each node, this map sorts its input arcs by cost.
 	 */
-	private HashMap<Integer, TreeSet<Arc>> sortedInputArcs;
+	private HashMap<Integer, ArrayList<Arc>> sortedInputArcs;
 
 	/**
 	 * A comparator used to sort arcs by costs.
@@ -86,8 +91,47 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
      */
 	private HashSet<Arc> currentSol;
 
+	/**
+	 * The required vertices not reached yet, in the iteration order of the
+	 * vertices of the graph.
+	 */
+	private LinkedHashSet<Integer> orderedRequiredVertices;
+
+	/**
+	 * For each node, the number of its output arcs in the current solution, if
+	 * it is not 0.
+	 */
+	private HashMap<Integer, Integer> numberOfChoosenOutputArcs;
+
+	/**
+	 * If true, FLAC restarts incrementally: only the parameters modified by the
+	 * last run of FLAC are reinitialized. The default value is true.
+	 */
+	private boolean incrementalRestarts = true;
+
+	/**
+	 * Amplitude and seed of the perturbation of the costs, see
+	 * {@link #setCostPerturbation(double, long)}.
+	 */
+	private double perturbationAmplitude;
+	private long perturbationSeed;
+
+	/**
+	 * Input arcs of each node sorted by perturbed cost, as in
+	 * {@link CableCostTable#getSortedInputArc(int)}, null if the costs are not
+	 * perturbed.
+	 */
+	private int[] perturbedSortedInputArcs;
+
+	/**
+	 * Counters of the current run, see {@link #getStatistics()}.
+	 */
+	private long heapOperations, saturations, conflicts, flacRuns;
+
 	@Override
 	protected void computeWithoutTime() {
+		startPhase(INIT_PHASE);
+		heapOperations = saturations = conflicts = flacRuns = 0;
 
 		// Copy the required vertices
 		requiredVertices = new HashSet<Integer>(this.getInstance().getRequiredVertices());
@@ -95,23 +139,36 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 		// a infinite loop
 		requiredVertices.remove(this.getInstance().getRoot());
 
+		// Sort them in the order FLAC initializes them
+		orderedRequiredVertices = new LinkedHashSet<Integer>();
+		Iterator<Integer> itv = this.getInstance().getGraph().getVerticesIterator();
+		while (itv.hasNext()) {
+			Integer v = itv.next();
+			if (requiredVertices.contains(v))
+				orderedRequiredVertices.add(v);
+		}
+
 
 		// This set will merge the trees returned by FLAC
 		currentSol = new HashSet<Arc>();
+		numberOfChoosenOutputArcs = new HashMap<Integer, Integer>();
 
-        // Copy the costs
-		this.costs = this.getInstance().getDoubleCosts();
+        // Only the modified costs are stored
+		this.costs = new HashMap<Arc, Double>();
+		perturbedSortedInputArcs = null;
+		if (perturbationAmplitude != 0D)
+			perturbCosts();
 
         // Cost comparator
 		comp = getArcsComparator();
 
         // Init maps
-		sortedInputArcs = new HashMap<Integer, TreeSet<Arc>>();
+		sortedInputArcs = new HashMap<Integer, ArrayList<Arc>>();
 
 		Integer maxCapacity = Collections.max(this.getInstance().getStaticCapacities());
 
 		leftCapacities = new HashMap<Arc, Integer>();
-        for(Arc a : this.getInstance().getGraph().getEdges())
+        for(Arc a : this.getInstance().getGraph().getEdgesView())
             leftCapacities.put(a, maxCapacity);
 
         leftOutputDegree = this.getInstance().getMaximumOutputDegree();
@@ -121,7 +178,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 		// Until all the terminals are reached
 
-
+		startPhase(FLAC_ITERATION_PHASE);
 		while (requiredVertices.size() > 0) {
 			try {
 				boolean result = applyFLAC(); // Search a low Density Directed Steiner Tree with the FLAC algorithm
@@ -148,11 +205,14 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
             arborescenceFlow.put(a, maxCapacity - leftCapacities.get(a));
         }
 
+        startPhase(TREE_REPAIR_PHASE);
         arborescenceFlow = this.getInstance().unviolateTreeConstraint(arborescenceFlow);
+        startPhase(NBSEC_DP_PHASE);
         arborescenceFlow = this.getInstance().unviolateMaxNbSecConstraint(arborescenceFlow);
 
+        startPhase(COST_EVAL_PHASE);
         DirectedGraph arbGraph = this.getInstance().getGraph().getInducedGraphFromArc(arborescenceFlow.keySet());
-        for(Integer node : arbGraph.getVertices()){
+        for(Integer node : arbGraph.getVerticesView()){
             if(arbGraph.getOutputSize(node) >= 2) {
                 c += this.getInstance().getStaticStaticBranchingNodeCost();
             }
@@ -168,6 +228,14 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 	}
 
+	@Override
+	protected void recordCounters() {
+		addToCounter(HEAP_OPERATIONS_COUNTER, heapOperations);
+		addToCounter(SATURATIONS_COUNTER, saturations);
+		addToCounter(CONFLICTS_COUNTER, conflicts);
+		addToCounter(FLAC_RUNS_COUNTER, flacRuns);
+	}
+
 	private Comparator<Arc> getArcsComparator() {
 		return (o1, o2) -> {
             if (o1 == null)
@@ -177,9 +245,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
             else if (o1.equals(o2))
                 return 0;
             else {
-                Double i1 = costs.get(o1);
-                Double i2 = costs.get(o2);
-                int comp1 = i1.compareTo(i2);
+                int comp1 = Double.compare(getCost(o1), getCost(o2));
                 if (comp1 != 0)
                     return comp1;
                 comp1 = o1.getInput().compareTo(o2.getInput());
@@ -190,28 +256,96 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
         };
 	}
 
-	private TreeSet<Arc> getSortedInputArcs(Integer v){
-		TreeSet<Arc> tree = sortedInputArcs.get(v);
-		if(tree == null)
-			tree = sortInputArcs(v);
-		return tree;
+	/**
+	 * Multiply the cost of each arc by a random factor in [1 - amplitude, 1 +
+	 * amplitude[, and sort the input arcs by perturbed cost.
+	 */
+	private void perturbCosts() {
+		FrozenWindFarmInstance frozen = instance.freeze();
+		CompactDirectedGraph graph = frozen.getGraph();
+		int m = graph.getNumberOfArcs();
+		double[] factors = perturbationFactors(m, perturbationAmplitude, perturbationSeed);
+		double[] perturbedCosts = new double[m];
+		for (int a = 0; a < m; a++) {
+			perturbedCosts[a] = frozen.getCost(a) * factors[a];
+			costs.put(graph.getArc(a), perturbedCosts[a]);
+		}
+		perturbedSortedInputArcs = CableCostTable.sortInputArcs(graph, perturbedCosts);
 	}
 
 	/**
-	 * Sort the input arcs of v by cost
+	 * Perturb the costs FLAC uses: the cost of each arc is multiplied by a
+	 * random factor in [1 - amplitude, 1 + amplitude[, drawn with a
+	 * {@link HighQualityRandom} built with the seed. Two runs with the same
+	 * seed return the same arborescence, and two runs with different seeds
+	 * usually break the ties and choose between close arcs differently. The
+	 * cost of the returned arborescence is computed with the costs of the
+	 * instance. The default amplitude is 0: no perturbation.
+	 *
+	 * @param amplitude
+	 * @param seed
+	 */
+	public void setCostPerturbation(double amplitude, long seed) {
+		if (amplitude < 0 || amplitude >= 1)
+			throw new IllegalArgumentException("amplitude must be in [0, 1[");
+		this.perturbationAmplitude = amplitude;
+		this.perturbationSeed = seed;
+	}
+
+	private ArrayList<Arc> getSortedInputArcs(Integer v){
+		ArrayList<Arc> list = sortedInputArcs.get(v);
+		if(list == null)
+			list = sortInputArcs(v);
+		return list;
+	}
+
+	/**
+	 * Sort the input arcs of v by cost. The input arcs sorted by their cost in
+	 * the instance (or by their perturbed cost) are given by the cable cost
+	 * table of the instance: only the arcs of the current solution, whose cost
+	 * is now 0, are moved.
 	 *
 	 * @param v
 	 */
-	private TreeSet<Arc> sortInputArcs(Integer v) {
-		Iterator<Arc> it = instance.getGraph().getInputArcsIterator(v);
+	private int getSortedInputArc(CableCostTable table, int i) {
+		return (perturbedSortedInputArcs == null) ? table.getSortedInputArc(i) : perturbedSortedInputArcs[i];
+	}
 
-		TreeSet<Arc> ts = new TreeSet<Arc>(comp);
-		while (it.hasNext()) {
-			ts.add(it.next());
+	private ArrayList<Arc> sortInputArcs(Integer v) {
+		CableCostTable table = instance.getCableCostTable();
+		CompactDirectedGraph graph = table.getGraph();
+		int w = graph.getIndex(v);
+		int begin = graph.getInputBegin(w);
+		int end = graph.getInputEnd(w);
+
+		ArrayList<Arc> zeroed = new ArrayList<Arc>();
+		for (int i = begin; i < end; i++) {
+			Arc a = graph.getArc(getSortedInputArc(table, i));
+			if (currentSol.contains(a))
+				zeroed.add(a);
+		}
+		zeroed.sort(comp);
+
+		ArrayList<Arc> list = new ArrayList<Arc>(end - begin);
+		Iterator<Arc> it = zeroed.iterator();
+		Arc z = it.hasNext() ? it.next() : null;
+		for (int i = begin; i < end; i++) {
+			Arc a = graph.getArc(getSortedInputArc(table, i));
+			if (!zeroed.isEmpty() && currentSol.contains(a))
+				continue;
+			while (z != null && comp.compare(z, a) < 0) {
+				list.add(z);
+				z = it.hasNext() ? it.next() : null;
+			}
+			list.add(a);
+		}
+		while (z != null) {
+			list.add(z);
+			z = it.hasNext() ? it.next() : null;
 		}
 
-		sortedInputArcs.put(v, ts);
-		return ts;
+		sortedInputArcs.put(v, list);
+		return list;
 	}
 
 	// ---------- density Directed Steiner Tree part ---------
@@ -224,6 +358,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 		// Reinitialize the parameters to let FLAC restart normally
 		reinit();
+		flacRuns++;
 
 //		System.out.println(">>>>>>>>>>>>>");
 
@@ -286,7 +421,9 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 				updateNextSaturatedArc(v);
 
 				// If there is a conflict, we just ignore the arc saturation, as if it was never added to the arc
-				if (!conflict)
+				if (conflict)
+					conflicts++;
+				else
 					// If there is no conflict, we have to update the flow rate of other arcs as a new arc is
 					// saturated.
 					saturateArcAndUpdate(a);
@@ -338,12 +475,46 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	 */
 	private HashMap<Integer, CustomFibonacciHeapNode<Integer, DoubleBoolean>> n2fbn;
 
+	/**
+	 * If true, {@link #indexedSaturating} is used instead of
+	 * {@link #sortedSaturating} and {@link #n2fbn}. The default value is false.
+	 */
+	private boolean useIndexedHeap;
+
+	/**
+	 * Same as {@link #sortedSaturating}, over flat arrays. The node v is stored
+	 * with the id v - 1 and the fictive node -v with the id maxNode + v - 1.
+	 */
+	private IndexedDoubleBooleanHeap indexedSaturating;
+
+	/**
+	 * Greatest node of the graph of the instance.
+	 */
+	private int maxNode;
+
 	private WeightedQuickUnionPathCompressionUF unionFind;
 
 	private HashMap<Integer, NodeState3> nodeStates;
 
     private HashMap<Integer, Integer> currentLeftOutDegree;
 
+	/**
+	 * Nodes whose state was modified by the last run of FLAC, or whose number
+	 * of output arcs in the current solution changed.
+	 */
+	private HashSet<Integer> modifiedNodeStates;
+
+	/**
+	 * Nodes whose current left output degree or left output degree was
+	 * modified by the last run of FLAC.
+	 */
+	private HashSet<Integer> modifiedOutputDegrees;
+
+	/**
+	 * True until the first run of FLAC.
+	 */
+	private boolean firstRestart;
+
 	/**
 	 * Initialize the maps, sets and lists used by the algorithm FLAC
 	 */
@@ -356,13 +527,20 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 		n2fbn = new HashMap<Integer, CustomFibonacciHeapNode<Integer, DoubleBoolean>>();
 
 		Iterator<Integer> it = instance.getGraph().getVerticesIterator();
-		unionFind = new WeightedQuickUnionPathCompressionUF(Collections2.max(it));
+		maxNode = Collections2.max(it);
+		unionFind = new WeightedQuickUnionPathCompressionUF(maxNode);
+		if (useIndexedHeap)
+			indexedSaturating = createIndexedHeap(2 * maxNode);
 
 		nodeStates = new HashMap<Integer, NodeState3>();
 		waiting = new HashSet<Arc>();
         waitingFlowRates = new HashMap<Arc, LinkedList<Couple<Double,Integer>>>();
 
         currentLeftOutDegree = new HashMap<Integer, Integer>();
+
+		modifiedNodeStates = new HashSet<Integer>();
+		modifiedOutputDegrees = new HashSet<Integer>();
+		firstRestart = true;
 	}
 
 	/**
@@ -370,12 +548,22 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	 * the parameters used by FLAC.
 	 */
 	private void reinit() {
+		if (incrementalRestarts && !firstRestart) {
+			reinitIncrementally();
+			return;
+		}
+		firstRestart = false;
+		modifiedNodeStates.clear();
+		modifiedOutputDegrees.clear();
+
 		saturated.clear();
 		flowRates.clear();
 		sortedSaturating.clear();
 		nextSaturatedEnteringArcIterators.clear();
 		nextSaturatedEnteringArcs.clear();
 		n2fbn.clear();
+		if (useIndexedHeap)
+			indexedSaturating.clear();
 		unionFind.reinit();
 		waiting.clear();
         waitingFlowRates.clear();
@@ -423,6 +611,56 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 	}
 
+	/**
+	 * Same as {@link #reinit()}, but the maps are replaced instead of cleared,
+	 * and only the node states and output degrees modified since the last run
+	 * of FLAC are computed again. The terminals are initialized in the same
+	 * order, so that FLAC returns the same trees.
+	 */
+	private void reinitIncrementally() {
+		saturated = new HashSet<Arc>();
+		flowRates = new HashMap<Integer, Integer>();
+		sortedSaturating.clear();
+		nextSaturatedEnteringArcIterators = new HashMap<Integer, Iterator<Arc>>();
+		nextSaturatedEnteringArcs = new HashMap<Integer, Arc>();
+		n2fbn = new HashMap<Integer, CustomFibonacciHeapNode<Integer, DoubleBoolean>>();
+		if (useIndexedHeap)
+			indexedSaturating.clear();
+		unionFind.reinit();
+		waiting = new HashSet<Arc>();
+		waitingFlowRates = new HashMap<Arc, LinkedList<Couple<Double,Integer>>>();
+
+		for (Integer v : modifiedOutputDegrees)
+			currentLeftOutDegree.put(v, leftOutputDegree.get(v));
+		modifiedOutputDegrees.clear();
+
+		// The saturation begin at 0 seconds
+		time = 0D;
+
+		for (Integer v : orderedRequiredVertices) {
+			setFlowRate(v, 1);
+			updateNextSaturatedArc(v);
+		}
+
+		for (Integer v : modifiedNodeStates) {
+			Integer number = numberOfChoosenOutputArcs.get(v);
+			if (number == null)
+				continue;
+			nodeStates.put(v, (number == 1) ? NodeState3.EXPLORED : NodeState3.JONCTIONNED);
+		}
+		modifiedNodeStates.clear();
+	}
+
+	/**
+	 * If true, FLAC restarts incrementally after each tree: only the
+	 * parameters modified by the previous run are reinitialized. Otherwise,
+	 * every parameter is reinitialized. Both modes return the same
+	 * arborescence. The default value is true.
+	 */
+	public void setIncrementalRestarts(boolean incrementalRestarts) {
+		this.incrementalRestarts = incrementalRestarts;
+	}
+
 	public LinkedList<Arc> getWaitingOutgoingArcs(Integer v){
 		LinkedList<Arc> waitingOutgoingArcs = new LinkedList<Arc>();
 		Iterator<Arc> it = this.getInstance().getGraph().getOutputArcsIterator(v);
@@ -464,7 +702,8 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 		} else {
 			// Else, all arcs entering v are already saturated
 			nextSaturatedEnteringArcs.remove(v);
-			n2fbn.remove(v);
+			if (!useIndexedHeap)
+				n2fbn.remove(v);
 			return;
 		}
 
@@ -479,10 +718,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 			satTime = (getVolume(a) - getVolume(b)) / ((double)getFlowRate(v));
 
 		// Reinsert v in the list with the saturated time of a
-		CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = sortedSaturating
-				.insert(v, new DoubleBoolean(time + satTime, !a.getInput()
-						.equals(instance.getRoot())));
-		n2fbn.put(v, fbn);
+		insertSaturating(v, time + satTime, !a.getInput().equals(instance.getRoot()));
 
 	}
 
@@ -500,6 +736,14 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	 *         heap
 	 */
 	private Integer nextSaturatedNode() {
+		heapOperations++;
+		if (useIndexedHeap) {
+			int id = indexedSaturating.removeMin();
+			if (id == -1)
+				return null;
+			time = indexedSaturating.getDoubleValue(id);
+			return getHeapNode(id);
+		}
 		CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = sortedSaturating
 				.removeMin();
 		if(fbn == null)
@@ -592,6 +836,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	 * @param a
 	 */
 	private void saturateArcAndUpdate(Arc a) {
+		saturations++;
 		// This list will contain the set of node for which the flow rate will change
 		// after the saturation of a...
 		LinkedList<Arc> toUpdate = new LinkedList<Arc>();
@@ -608,14 +853,18 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 		if(state == NodeState3.EXPLORED && !currentSol.contains(a))
 			waiting.add(a);
 		else {
-			if(state == NodeState3.UNEXPLORED)
+			if(state == NodeState3.UNEXPLORED) {
 				nodeStates.put(u, NodeState3.EXPLORED);
+				modifiedNodeStates.add(u);
+			}
 			saturated.add(a);
 			unionFind.union(u-1,v-1);
             if(!currentSol.contains(a)){
                 Integer clod = currentLeftOutDegree.get(u);
-                if(clod != null)
-                    currentLeftOutDegree.put(u, clod-1);
+                if(clod != null) {
+                    currentLeftOutDegree.put(u, clod - 1);
+                    modifiedOutputDegrees.add(u);
+                }
             }
 		}
 
@@ -658,19 +907,13 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 			// if w already received flow before a became saturated
 			// the time the next entering arc of w is saturated is accelerated like this:
-			CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = n2fbn
-					.get(fw);
-			// by the following test, we test if there is an entering arc of w which is not fully saturated
-			// in the other case we do nothing
-			double prevNextSaturatedEnteringArcTime = fbn.getKey()
-						.getDoubleValue();
+			double prevNextSaturatedEnteringArcTime = getNextSaturationTime(fw);
             double newVolFlowRateD = newFlowRate;
 
             double newNextSaturatedEnteringArcTime = time
                     + (prevNextSaturatedEnteringArcTime - time)
                     * (prevFlowRateD / newVolFlowRateD);
-            sortedSaturating.decreaseKey(fbn, new DoubleBoolean(
-                    newNextSaturatedEnteringArcTime, true));
+            decreaseSaturating(fw, newNextSaturatedEnteringArcTime, true);
 
 
             LinkedList<Couple<Double,Integer>> wFR = getWaitingFlowRates(a);
@@ -688,9 +931,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 			Double satTime = (this.getInstance().getStaticStaticBranchingNodeCost())/newFlowRate;
 
-			CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = sortedSaturating
-					.insert(fw, new DoubleBoolean(time + satTime, true));
-			n2fbn.put(fw, fbn);
+			insertSaturating(fw, time + satTime, true);
 
             LinkedList<Couple<Double,Integer>> wFR = getWaitingFlowRates(a);
             wFR.add(new Couple<Double,Integer>(time, vFlowRate));
@@ -712,21 +953,16 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 			// if w already received flow before a became saturated
 			// the time the next entering arc of w is saturated is accelerated like this:
-			CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = n2fbn
-					.get(w);
+			Double prevNextSaturatedEnteringArcTime = getNextSaturationTime(w);
 			// by the following test, we test if there is an entering arc of w which is not fully saturated
 			// in the other case we do nothing
-			if (fbn != null) {
-				double prevNextSaturatedEnteringArcTime = fbn.getKey()
-						.getDoubleValue();
+			if (prevNextSaturatedEnteringArcTime != null) {
 				double newVolFlowRateD = newFlowRate;
 
 				double newNextSaturatedEnteringArcTime = time
 						+ (prevNextSaturatedEnteringArcTime - time)
 						* (prevFlowRateD / newVolFlowRateD);
-				sortedSaturating.decreaseKey(fbn, new DoubleBoolean(
-						newNextSaturatedEnteringArcTime, fbn.getKey()
-						.getBooleanValue()));
+				decreaseSaturating(w, newNextSaturatedEnteringArcTime, null);
 			}
 		} else
 			// if w did not receive any flow from the source, we initialize its saturation like this
@@ -735,6 +971,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 	private void saturateArcsAndUpdate(Integer v, LinkedList<Arc> waitingEnteringArcs){
 		nodeStates.put(v, NodeState3.JONCTIONNED);
+		modifiedNodeStates.add(v);
 		for(Arc a : waitingEnteringArcs){
 			waiting.remove(a);
 			saturateArcAndUpdate(a);
@@ -743,6 +980,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
 
     private void updateConflictedFictiveNode(Integer fv, LinkedList<Arc> conflictedWaitingEnteringArcs) {
+        conflicts++;
         double flowLeft = 0D;
         Integer newFlowRate = getFlowRate(fv);
         for(Arc a : conflictedWaitingEnteringArcs) {
@@ -765,9 +1003,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
         Double satTime = flowLeft/newFlowRate;
 
-        CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = sortedSaturating
-                .insert(fv, new DoubleBoolean(time + satTime, true));
-        n2fbn.put(fv, fbn);
+        insertSaturating(fv, time + satTime, true);
 
     }
 
@@ -801,17 +1037,24 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
                 if(!currentSol.contains(a)) {
                     Integer lod = leftOutputDegree.get(a.getInput());
-                    if(lod != null)
+                    if(lod != null) {
                         leftOutputDegree.put(a.getInput(), lod - 1);
-
+                        modifiedOutputDegrees.add(a.getInput());
+                    }
                 }
                 toList.add(a.getOutput());
 
 			}
 		}
 
-        for(Arc a : tree)
+        for(Arc a : tree) {
             costs.put(a, 0D);
+            if (!currentSol.contains(a)) {
+                Integer number = numberOfChoosenOutputArcs.get(a.getInput());
+                numberOfChoosenOutputArcs.put(a.getInput(), (number == null) ? 1 : number + 1);
+                modifiedNodeStates.add(a.getInput());
+            }
+        }
 
 			/*
 			 * For each arc in the tree set the cost of that arc to 0 As a
@@ -822,6 +1065,7 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 
         currentSol.addAll(tree);
         requiredVertices.removeAll(leaves); // Remove the reached terminals from the required vertices of the instance
+        orderedRequiredVertices.removeAll(leaves);
 
 		return true;
 	}
@@ -832,7 +1076,20 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 	 * @return the maximum value of flow an arc a can contain: its cost
 	 */
 	private double getVolume(Arc a) {
-		return (double) costs.get(a);
+		return getCost(a);
+	}
+
+	/**
+	 * @param a
+	 * @return the cost of the arc a used by FLAC: 0 if a is in the current
+	 *         solution, its perturbed cost if the costs are perturbed, and the
+	 *         cost of a in the instance otherwise.
+	 */
+	private double getCost(Arc a) {
+		Double cost = costs.get(a);
+		if (cost != null)
+			return cost;
+		return instance.getDoubleCost(a);
 	}
 
 	/**
@@ -866,6 +1123,80 @@ public class GFLAC2WindFarmAlgorithm3 extends WindFarmApproximationAlgorithm {
 		return waiting.contains(a);
 	}
 
+	/**
+	 * Insert v in the heap of saturating nodes with the key (t, notRoot)
+	 */
+	private void insertSaturating(Integer v, double t, boolean notRoot) {
+		heapOperations++;
+		if (useIndexedHeap) {
+			indexedSaturating.insert(getHeapId(v), t, notRoot);
+			return;
+		}
+		CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = sortedSaturating
+				.insert(v, new DoubleBoolean(t, notRoot));
+		n2fbn.put(v, fbn);
+	}
+
+	/**
+	 * Decrease the saturation time of v in the heap of saturating nodes to t.
+	 * If notRoot is null, the boolean of the key of v is not modified.
+	 */
+	private void decreaseSaturating(Integer v, double t, Boolean notRoot) {
+		heapOperations++;
+		if (useIndexedHeap) {
+			int id = getHeapId(v);
+			indexedSaturating.decreaseKey(id, t,
+					(notRoot == null) ? indexedSaturating.getBooleanValue(id) : notRoot);
+			return;
+		}
+		CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = n2fbn.get(v);
+		sortedSaturating.decreaseKey(fbn, new DoubleBoolean(t,
+				(notRoot == null) ? fbn.getKey().getBooleanValue() : notRoot));
+	}
+
+	/**
+	 * @param v
+	 * @return the time the next entering arc of v is saturated, or null if v
+	 *         is not in the heap of saturating nodes.
+	 */
+	private Double getNextSaturationTime(Integer v) {
+		if (useIndexedHeap) {
+			int id = getHeapId(v);
+			return indexedSaturating.contains(id) ? indexedSaturating.getDoubleValue(id) : null;
+		}
+		CustomFibonacciHeapNode<Integer, DoubleBoolean> fbn = n2fbn.get(v);
+		return (fbn == null) ? null : fbn.getKey().getDoubleValue();
+	}
+
+	private int getHeapId(Integer v) {
+		return (v > 0) ? v - 1 : maxNode - v - 1;
+	}
+
+	private Integer getHeapNode(int id) {
+		return (id < maxNode) ? id + 1 : -(id - maxNode + 1);
+	}
+
+	/**
+	 * If true, FLAC uses an {@link IndexedDoubleBooleanHeap} instead of a
+	 * {@link CustomFibonacciHeap} to sort the nodes by saturation time. The
+	 * default value is false.
+	 * <p>
+	 * Nodes saturated at the same time may be handled in a different order,
+	 * and the returned arborescence may then differ.
+	 */
+	public void setUseIndexedHeap(boolean useIndexedHeap) {
+		this.useIndexedHeap = useIndexedHeap;
+	}
+
+	/**
+	 * @param capacity
+	 * @return a new heap used by FLAC when {@link #setUseIndexedHeap(boolean)}
+	 *         was set to true.
+	 */
+	protected IndexedDoubleBooleanHeap createIndexedHeap(int capacity) {
+		return new IndexedDoubleBooleanHeap(capacity);
+	}
+
 	private Integer getFictive(Integer v){return -v;}
 
 	private Integer getReal(Integer fictiveV){return -fictiveV;}
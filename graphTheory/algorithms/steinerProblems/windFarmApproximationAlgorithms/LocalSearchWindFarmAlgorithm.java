@@ -0,0 +1,447 @@
+package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
+
+import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
+import graphTheory.graph.DirectedGraph;
+import graphTheory.instances.steiner.windfarm.CableCostTable;
+import graphTheory.instances.steiner.windfarm.FrozenWindFarmInstance;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Improve the arborescence returned by another algorithm, for instance
+ * {@link GFLAC2WindFarmAlgorithm3}, with a local search.
+ * <p>
+ * The local search repeatedly scans the nodes of the arborescence and applies
+ * the first move decreasing its cost:
+ * <ul>
+ * <li>reattach the subtree rooted at a node v to another node q of the
+ * arborescence, through an arc (q, v) of the graph. When v is a turbine with
+ * no child, this re-parents that turbine. The branching node costs are part of
+ * the cost of a move: a move removing the second output arc of a node
+ * eliminates that branching node.</li>
+ * <li>remove a leaf which is not a terminal.</li>
+ * </ul>
+ * The cost of a move is computed from the arcs whose flow changes only, that
+ * is the paths from the old and the new parents of v to their lowest common
+ * ancestor, with the costs of {@link CableCostTable}, which are those of
+ * {@link WindFarmInstance#getRealCableCost(Arc, Integer)}. The flows, the
+ * output degrees and the capacities are maintained by the moves, so that the
+ * constraints are checked without calling
+ * {@link WindFarmInstance#testSolution(HashMap)}: a move is rejected if the
+ * new parent would exceed its maximum output degree, or if a flow would exceed
+ * every capacity. Each arc whose flow changes gets the cheapest cable able to
+ * carry its flow among the types of cable of the initial solution: the
+ * number of types never increases, and the maxNbSec constraint is kept.
+ * <p>
+ * The local search stops at a local optimum or when its time budget is spent.
+ * If the initial solution does not satisfy every constraint, it is returned
+ * unchanged.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class LocalSearchWindFarmAlgorithm extends WindFarmApproximationAlgorithm {
+
+	/**
+	 * Run of the algorithm building the initial solution.
+	 */
+	public static final String INITIAL_SOLUTION_PHASE = "initial-solution";
+
+	/**
+	 * Moves applied to the initial solution.
+	 */
+	public static final String LOCAL_SEARCH_PHASE = "local-search";
+
+	/**
+	 * Number of applied moves.
+	 */
+	public static final String MOVES_COUNTER = "moves";
+
+	/**
+	 * Number of scans of the nodes of the arborescence.
+	 */
+	public static final String PASSES_COUNTER = "passes";
+
+	/**
+	 * A move is applied if it decreases the cost by more than this value.
+	 */
+	private static final double EPSILON = 1e-6;
+
+	/**
+	 * Algorithm building the initial solution.
+	 */
+	private WindFarmApproximationAlgorithm initialAlgorithm;
+
+	/**
+	 * Time in ms the local search can spend after the initial solution is
+	 * built.
+	 */
+	private long timeBudget;
+
+	/**
+	 * Cost of the initial solution.
+	 */
+	private Double initialCost;
+
+	private long moves, passes;
+
+	// ----------- State of the local search -----------
+
+	private FrozenWindFarmInstance frozen;
+	private CableCostTable table;
+	private CompactDirectedGraph graph;
+	private int root;
+	private boolean[] inTree;
+
+	/**
+	 * For each node of the arborescence, its input arc, -1 for the root.
+	 */
+	private int[] parentArcs;
+	private int[] parents;
+
+	/**
+	 * For each node of the arborescence, the capacity of its input arc.
+	 */
+	private int[] capacities;
+
+	/**
+	 * For each node of the arborescence, the number of terminals of its
+	 * subtree, which is the flow of its input arc.
+	 */
+	private int[] flows;
+
+	private int[] outputDegrees;
+
+	/**
+	 * Capacities of the cables the solution can use, sorted.
+	 */
+	private int[] allowedCapacities;
+
+	private double branchingNodeCost;
+
+	/**
+	 * marks[v] == stamp if v is an ancestor of the current old parent.
+	 */
+	private int[] marks;
+	private int stamp;
+
+	/**
+	 * @param initialAlgorithm
+	 *            : algorithm building the initial solution, it is run over
+	 *            the instance of this algorithm.
+	 * @param timeBudget
+	 *            : time in milliseconds the local search can spend after the
+	 *            initial solution is built.
+	 */
+	public LocalSearchWindFarmAlgorithm(WindFarmApproximationAlgorithm initialAlgorithm, long timeBudget) {
+		this.initialAlgorithm = initialAlgorithm;
+		setTimeBudget(timeBudget);
+	}
+
+	/**
+	 * Build the initial solution with a {@link GFLAC2WindFarmAlgorithm3}, and
+	 * give one second to the local search.
+	 */
+	public LocalSearchWindFarmAlgorithm() {
+		this(new GFLAC2WindFarmAlgorithm3(), 1000L);
+	}
+
+	public WindFarmApproximationAlgorithm getInitialAlgorithm() {
+		return initialAlgorithm;
+	}
+
+	/**
+	 * @param timeBudget
+	 *            : time in milliseconds the local search can spend after the
+	 *            initial solution is built.
+	 */
+	public void setTimeBudget(long timeBudget) {
+		if (timeBudget < 0)
+			throw new IllegalArgumentException("timeBudget must be non negative");
+		this.timeBudget = timeBudget;
+	}
+
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * @return the cost of the solution returned by the initial algorithm
+	 *         during the last run, -1 if it found no solution.
+	 */
+	public Double getInitialCost() {
+		return initialCost;
+	}
+
+	@Override
+	protected void computeWithoutTime() {
+		moves = passes = 0;
+
+		startPhase(INITIAL_SOLUTION_PHASE);
+		initialAlgorithm.setInstance(this.getInstance());
+		initialAlgorithm.compute();
+		HashMap<Arc, Integer> initial = initialAlgorithm.getArborescence();
+		initialCost = initialAlgorithm.getCost();
+		if (initial == null) {
+			setNoSolution();
+			return;
+		}
+		arborescence = initial;
+		cost = initialCost;
+
+		startPhase(LOCAL_SEARCH_PHASE);
+		long deadline = System.nanoTime() + timeBudget * 1000000L;
+		if (!this.getInstance().testSolution(initial, true).isEmpty() || !init(initial))
+			return;
+
+		boolean improved = true;
+		while (improved && System.nanoTime() < deadline) {
+			improved = false;
+			passes++;
+			for (int v = 0; v < graph.getNumberOfVertices() && System.nanoTime() < deadline; v++) {
+				if (v == root || !inTree[v])
+					continue;
+				if (outputDegrees[v] == 0 && !frozen.isRequired(v)) {
+					if (removeLeaf(v))
+						improved = true;
+				}
+				else if (reattach(v))
+					improved = true;
+			}
+		}
+
+		startPhase(COST_EVAL_PHASE);
+		HashMap<Arc, Integer> result = new HashMap<Arc, Integer>();
+		for (int v = 0; v < graph.getNumberOfVertices(); v++)
+			if (inTree[v] && v != root)
+				result.put(graph.getArc(parentArcs[v]), capacities[v]);
+		double c = evaluate(result);
+		if (c < cost) {
+			arborescence = result;
+			cost = c;
+		}
+	}
+
+	@Override
+	protected void recordCounters() {
+		addToCounter(MOVES_COUNTER, moves);
+		addToCounter(PASSES_COUNTER, passes);
+	}
+
+	/**
+	 * @return the cost of the arborescence, computed as in
+	 *         {@link GFLAC2WindFarmAlgorithm3}.
+	 */
+	private double evaluate(HashMap<Arc, Integer> arborescenceCapacities) {
+		Double c = 0D;
+		DirectedGraph arbGraph = this.getInstance().getGraph().getInducedGraphFromArc(arborescenceCapacities.keySet());
+		for (Integer node : arbGraph.getVerticesView())
+			if (arbGraph.getOutputSize(node) >= 2)
+				c += this.getInstance().getStaticStaticBranchingNodeCost();
+		for (Map.Entry<Arc, Integer> entry : arborescenceCapacities.entrySet())
+			c += this.getInstance().getRealCableCost(entry.getKey(), entry.getValue());
+		return c;
+	}
+
+	/**
+	 * Build the state of the local search from the initial solution.
+	 *
+	 * @return false if the local search cannot be applied to the solution.
+	 */
+	private boolean init(HashMap<Arc, Integer> initial) {
+		frozen = this.getInstance().freeze();
+		table = frozen.getCableCostTable();
+		graph = frozen.getGraph();
+		int n = graph.getNumberOfVertices();
+		root = frozen.getRoot();
+		if (root == -1)
+			return false;
+
+		double b = frozen.getStaticStaticBranchingNodeCost();
+		branchingNodeCost = Double.isNaN(b) ? 0D : b;
+
+		inTree = new boolean[n];
+		parentArcs = new int[n];
+		parents = new int[n];
+		capacities = new int[n];
+		flows = new int[n];
+		outputDegrees = new int[n];
+		marks = new int[n];
+		stamp = 0;
+		Arrays.fill(parentArcs, -1);
+		Arrays.fill(parents, -1);
+		inTree[root] = true;
+		int[] used = new int[initial.size()];
+		int nbUsed = 0;
+		for (Map.Entry<Arc, Integer> entry : initial.entrySet()) {
+			int a = graph.getArcIndex(entry.getKey());
+			if (a == -1 || entry.getValue() == null)
+				return false;
+			int u = graph.getInput(a), v = graph.getOutput(a);
+			parentArcs[v] = a;
+			parents[v] = u;
+			capacities[v] = entry.getValue();
+			used[nbUsed++] = capacities[v];
+			inTree[u] = inTree[v] = true;
+			outputDegrees[u]++;
+		}
+		Arrays.sort(used, 0, nbUsed);
+		int nbAllowed = 0;
+		for (int i = 0; i < nbUsed; i++)
+			if (i == 0 || used[i] != used[i - 1])
+				used[nbAllowed++] = used[i];
+		allowedCapacities = Arrays.copyOf(used, nbAllowed);
+
+		// Flows, from the leaves to the root
+		for (int v = 0; v < n; v++) {
+			if (!inTree[v] || !frozen.isRequired(v) || v == root)
+				continue;
+			for (int u = v; u != root; u = parents[u])
+				flows[u]++;
+		}
+		return true;
+	}
+
+	/**
+	 * @param a
+	 * @param flow
+	 * @return the cheapest allowed capacity of a cable following the arc a
+	 *         and carrying that flow, -1 if there is none.
+	 */
+	private int bestCapacity(int a, int flow) {
+		int best = -1;
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (int capacity : allowedCapacities) {
+			if (capacity < flow || !table.hasCable(a, capacity))
+				continue;
+			double c = table.realCableCost(a, capacity);
+			if (c < bestCost) {
+				best = capacity;
+				bestCost = c;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Remove the leaf v, which is not a terminal, if it decreases the cost.
+	 *
+	 * @return true if v was removed.
+	 */
+	private boolean removeLeaf(int v) {
+		int p = parents[v];
+		double delta = -table.realCableCost(parentArcs[v], capacities[v]);
+		if (outputDegrees[p] == 2)
+			delta -= branchingNodeCost;
+		if (delta >= -EPSILON)
+			return false;
+		inTree[v] = false;
+		outputDegrees[p]--;
+		parentArcs[v] = -1;
+		parents[v] = -1;
+		moves++;
+		return true;
+	}
+
+	/**
+	 * Search the best new parent of v and reattach the subtree rooted at v to
+	 * it, if it decreases the cost.
+	 *
+	 * @return true if v was reattached.
+	 */
+	private boolean reattach(int v) {
+		int p = parents[v];
+		int f = flows[v];
+
+		// Mark the ancestors of p
+		stamp++;
+		for (int u = p; u != -1; u = parents[u])
+			marks[u] = stamp;
+
+		double removed = -table.realCableCost(parentArcs[v], capacities[v]);
+		if (outputDegrees[p] == 2)
+			removed -= branchingNodeCost;
+
+		int bestArc = -1;
+		double bestDelta = -EPSILON;
+		for (int i = graph.getInputBegin(v); i < graph.getInputEnd(v); i++) {
+			int a = graph.getInputArc(i);
+			int q = graph.getInput(a);
+			if (q == p || !inTree[q])
+				continue;
+			if (frozen.hasMaximumOutputDegree(q) && outputDegrees[q] >= frozen.getMaximumOutputDegree(q))
+				continue;
+			int capacity = bestCapacity(a, f);
+			if (capacity == -1)
+				continue;
+			double delta = removed + table.realCableCost(a, capacity);
+			if (outputDegrees[q] == 1)
+				delta += branchingNodeCost;
+
+			// Path from q to the lowest common ancestor, which must not go
+			// through v
+			int lca = q;
+			boolean feasible = true;
+			for (; marks[lca] != stamp; lca = parents[lca]) {
+				if (lca == v) {
+					feasible = false;
+					break;
+				}
+				int c = bestCapacity(parentArcs[lca], flows[lca] + f);
+				if (c == -1) {
+					feasible = false;
+					break;
+				}
+				delta += table.realCableCost(parentArcs[lca], c)
+						- table.realCableCost(parentArcs[lca], capacities[lca]);
+			}
+			if (!feasible)
+				continue;
+
+			// Path from p to the lowest common ancestor
+			for (int u = p; u != lca; u = parents[u]) {
+				int c = bestCapacity(parentArcs[u], flows[u] - f);
+				delta += table.realCableCost(parentArcs[u], c)
+						- table.realCableCost(parentArcs[u], capacities[u]);
+			}
+
+			if (delta < bestDelta) {
+				bestDelta = delta;
+				bestArc = a;
+			}
+		}
+		if (bestArc == -1)
+			return false;
+
+		// Apply the move
+		int q = graph.getInput(bestArc);
+		int lca = q;
+		while (marks[lca] != stamp)
+			lca = parents[lca];
+		for (int u = p; u != lca; u = parents[u]) {
+			flows[u] -= f;
+			capacities[u] = bestCapacity(parentArcs[u], flows[u]);
+		}
+		for (int u = q; u != lca; u = parents[u]) {
+			flows[u] += f;
+			capacities[u] = bestCapacity(parentArcs[u], flows[u]);
+		}
+		outputDegrees[p]--;
+		outputDegrees[q]++;
+		parentArcs[v] = bestArc;
+		parents[v] = q;
+		capacities[v] = bestCapacity(bestArc, f);
+		moves++;
+		return true;
+	}
+
+	@Override
+	protected void setNoSolution() {
+		super.setNoSolution();
+		initialCost = -1D;
+	}
+}
@@ -0,0 +1,215 @@
+package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
+
+import graphTheory.graph.Arc;
+import graphTheory.instances.steiner.windfarm.FrozenWindFarmInstance;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Run G_F several times over the same instance, with multiple threads, and
+ * return the best feasible arborescence.
+ * <p>
+ * The first restart runs {@link CompactGFLAC2WindFarmAlgorithm} with the
+ * costs of the instance, and thus returns the arborescence of
+ * {@link GFLAC2WindFarmAlgorithm3}. The restart i &gt; 0 perturbs the costs
+ * with the seed (seed + i), see
+ * {@link CompactGFLAC2WindFarmAlgorithm#setCostPerturbation(double, long)}.
+ * The returned arborescence is the cheapest one satisfying every constraint
+ * according to {@link WindFarmInstance#testSolution(HashMap)}, the one of the
+ * first restart if none does. Equal costs are broken by the number of the
+ * restart: the result only depends on the seed, not on the threads.
+ * <p>
+ * Each restart runs its own algorithm over the
+ * {@link FrozenWindFarmInstance} snapshot of the instance, which is built
+ * before the restarts are launched. Besides the snapshot, the restarts only
+ * read the instance, to repair the arborescence
+ * ({@link WindFarmInstance#unviolateTreeConstraint(HashMap)} and
+ * {@link WindFarmInstance#unviolateMaxNbSecConstraint(HashMap)}), to compute
+ * its cost and to check it with
+ * {@link WindFarmInstance#testSolution(HashMap, boolean)}. None of them
+ * modifies the instance or its graph once the snapshot is built.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class MultiStartWindFarmAlgorithm extends WindFarmApproximationAlgorithm {
+
+	/**
+	 * Run of the restarts.
+	 */
+	public static final String RESTARTS_PHASE = "restarts";
+
+	/**
+	 * Number of restarts returning an arborescence satisfying every
+	 * constraint.
+	 */
+	public static final String FEASIBLE_RESTARTS_COUNTER = "feasible-restarts";
+
+	private int nbRestarts;
+	private int parallelism;
+	private double amplitude;
+	private long seed;
+
+	/**
+	 * Number of the restart returning the arborescence, -1 if there is none.
+	 */
+	private int bestRestart;
+
+	private long feasibleRestarts;
+
+	/**
+	 * Build an algorithm running one restart per available processor, with
+	 * the default amplitude 0.05 and the seed 0.
+	 */
+	public MultiStartWindFarmAlgorithm() {
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.nbRestarts = parallelism;
+		this.amplitude = 0.05;
+		this.seed = 0L;
+	}
+
+	/**
+	 * @param nbRestarts
+	 *            : number of runs of G_F, including the one without
+	 *            perturbation.
+	 */
+	public void setNbRestarts(int nbRestarts) {
+		if (nbRestarts < 1)
+			throw new IllegalArgumentException("nbRestarts must be positive");
+		this.nbRestarts = nbRestarts;
+	}
+
+	/**
+	 * Number of threads running the restarts. The default value is the number
+	 * of available processors.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be positive");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param amplitude
+	 *            : the costs are multiplied by random factors in [1 -
+	 *            amplitude, 1 + amplitude[.
+	 */
+	public void setAmplitude(double amplitude) {
+		if (amplitude < 0 || amplitude >= 1)
+			throw new IllegalArgumentException("amplitude must be in [0, 1[");
+		this.amplitude = amplitude;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return the number of the restart which returned the arborescence during
+	 *         the last run, 0 being the restart without perturbation, -1 if
+	 *         there is no solution.
+	 */
+	public int getBestRestart() {
+		return bestRestart;
+	}
+
+	@Override
+	protected void computeWithoutTime() {
+		feasibleRestarts = 0;
+		WindFarmInstance eol = this.getInstance();
+
+		// Build the shared snapshot, so that the restarts only read the instance
+		FrozenWindFarmInstance frozen = eol.freeze();
+		if (frozen.getNumberOfArcs() > 0)
+			frozen.getCableCostTable().getSortedInputArc(0);
+
+		startPhase(RESTARTS_PHASE);
+		List<Callable<Restart>> tasks = new ArrayList<Callable<Restart>>();
+		for (int i = 0; i < nbRestarts; i++) {
+			final int restart = i;
+			tasks.add(() -> run(eol, restart));
+		}
+
+		List<Restart> restarts = new ArrayList<Restart>();
+		ExecutorService executor = new ForkJoinPool(Math.min(parallelism, nbRestarts));
+		try {
+			for (Future<Restart> future : executor.invokeAll(tasks))
+				restarts.add(future.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			setNoSolution();
+			return;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		Restart best = null;
+		for (Restart r : restarts) {
+			if (r.feasible)
+				feasibleRestarts++;
+			if (r.feasible && (best == null || r.cost < best.cost))
+				best = r;
+		}
+		if (best == null)
+			best = restarts.get(0);
+		if (best.arborescence == null) {
+			setNoSolution();
+			return;
+		}
+		arborescence = best.arborescence;
+		cost = best.cost;
+		bestRestart = best.number;
+	}
+
+	/**
+	 * Run the restart number i over the instance.
+	 */
+	private Restart run(WindFarmInstance eol, int i) {
+		CompactGFLAC2WindFarmAlgorithm gf = new CompactGFLAC2WindFarmAlgorithm();
+		gf.setCheckFeasibility(false);
+		if (i > 0)
+			gf.setCostPerturbation(amplitude, seed + i);
+		gf.setInstance(eol);
+		gf.compute();
+
+		Restart r = new Restart();
+		r.number = i;
+		r.arborescence = gf.getArborescence();
+		r.cost = gf.getCost();
+		r.feasible = r.arborescence != null && eol.testSolution(r.arborescence, true).isEmpty();
+		return r;
+	}
+
+	@Override
+	protected void recordCounters() {
+		addToCounter(FEASIBLE_RESTARTS_COUNTER, feasibleRestarts);
+	}
+
+	@Override
+	protected void setNoSolution() {
+		super.setNoSolution();
+		bestRestart = -1;
+	}
+
+	/**
+	 * Result of one restart.
+	 */
+	private static class Restart {
+		private int number;
+		private HashMap<Arc, Integer> arborescence;
+		private double cost;
+		private boolean feasible;
+	}
+}
@@ -3,12 +3,19 @@ package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
 import graphTheory.graph.Arc;
 import graphTheory.graph.DirectedGraph;
 import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.utils.Couple;
 import graphTheory.utils.FileManager;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Created by mouton on 29/06/16.
@@ -17,9 +24,24 @@ public class PaquetAlgorithm extends WindFarmApproximationAlgorithm {
 
     private ArrayList<String> paquetFiles;
 
+    /**
+     * Angle thresholds used to simplify the instance of each packet.
+     */
+    private double[] angleThresholds;
+
+    private int parallelism;
+
+    /**
+     * Time in ms of the local search applied to each solution of a packet, 0 for no local search.
+     */
+    private long localSearchTimeBudget;
+
 
     public PaquetAlgorithm() {
         this.paquetFiles = new ArrayList<String>();
+        this.angleThresholds = new double[]{Math.PI / 12};
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.localSearchTimeBudget = 0L;
     }
 
     public void addPaquet(String file){
@@ -34,98 +56,178 @@ public class PaquetAlgorithm extends WindFarmApproximationAlgorithm {
         paquetFiles.clear();
     }
 
-    @Override
-    protected void computeWithoutTime() {
-        HashMap<Arc,Integer> tree = new HashMap<Arc,Integer>();
+    /**
+     * Each packet is solved on its induced graph, and on the same graph simplified with
+     * {@link WindFarmInstance#simplifyWithAngles(double)} for each of these thresholds.
+     */
+    public void setAngleThresholds(double... angleThresholds){
+        this.angleThresholds = angleThresholds.clone();
+    }
 
-        FileManager fm = new FileManager();
-        for(String file : paquetFiles){
-            fm.openRead(file);
-
-            HashSet<Integer> nodes = new HashSet<Integer>();
-
-            String line;
-            while((line = fm.readLine()) != null) {
-                String[] ints = line.split("\\s+");
-                Integer i1 = Integer.valueOf(ints[0]);
-                Integer i2 = Integer.valueOf(ints[1]);
-                nodes.add(i1);
-                nodes.add(i2);
-            }
-            fm.closeRead();
+    public double[] getAngleThresholds(){
+        return angleThresholds.clone();
+    }
 
-            nodes.add(this.getInstance().getRoot());
+    /**
+     * Number of threads solving the packets. The default value is the number of available processors.
+     */
+    public void setParallelism(int parallelism){
+        if(parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive");
+        this.parallelism = parallelism;
+    }
 
-            DirectedGraph dg = this.getInstance().getGraph();
-            DirectedGraph pg = dg.getInducedGraphFromNodes(nodes);
+    /**
+     * Improve each solution of each packet with a {@link LocalSearchWindFarmAlgorithm} given that time in ms.
+     * The default value is 0: no local search.
+     */
+    public void setLocalSearchTimeBudget(long localSearchTimeBudget){
+        if(localSearchTimeBudget < 0)
+            throw new IllegalArgumentException("localSearchTimeBudget must be non negative");
+        this.localSearchTimeBudget = localSearchTimeBudget;
+    }
 
-            WindFarmInstance eol = new WindFarmInstance(pg);
+    @Override
+    protected void computeWithoutTime() {
+        HashMap<Arc,Integer> tree = new HashMap<Arc,Integer>();
 
-            for(Integer node : nodes){
-                if(this.getInstance().isRequired(node))
-                    eol.setRequired(node);
+        ExecutorService executor = new ForkJoinPool(parallelism);
+        List<Future<HashMap<Arc, Integer>>> bests;
+        try {
+            // Build the instance of each packet and its simplified instances in this thread, as they read the
+            // graph of the instance: each task then owns the instance it solves.
+            List<WindFarmInstance> paquets = new ArrayList<WindFarmInstance>();
+            List<Callable<Couple<HashMap<Arc, Integer>, Double>>> solveTasks =
+                    new ArrayList<Callable<Couple<HashMap<Arc, Integer>, Double>>>();
+            for (String file : paquetFiles) {
+                WindFarmInstance eol = getPaquetInstance(file);
+                paquets.add(eol);
+                List<WindFarmInstance> simplified = new ArrayList<WindFarmInstance>();
+                for (double angleThreshold : angleThresholds)
+                    simplified.add(eol.simplifyWithAngles(angleThreshold));
+
+                // Solve each packet once with its induced graph, and once for each angle threshold
+                solveTasks.add(() -> solve(eol));
+                for (WindFarmInstance simplifiedEol : simplified)
+                    solveTasks.add(() -> solve(simplifiedEol));
             }
-            eol.setRoot(this.getInstance().getRoot());
-
-            for(Arc arc : pg.getEdges()){
-                eol.setCost(arc, this.getInstance().getDoubleCost(arc));
+            List<Future<Couple<HashMap<Arc, Integer>, Double>>> solutions = executor.invokeAll(solveTasks);
+
+            // For each packet, keep the best solution, the last one if many are equal
+            int k = 0;
+            for (int i = 0; i < paquets.size(); i++) {
+                HashMap<Arc, Integer> best = null;
+                Double bestCost = null;
+                for (int j = 0; j <= angleThresholds.length; j++) {
+                    Couple<HashMap<Arc, Integer>, Double> solution = solutions.get(k++).get();
+                    if (solution.second != -1 && (bestCost == null || solution.second <= bestCost)) {
+                        best = solution.first;
+                        bestCost = solution.second;
+                    }
+                }
+
+                if(best == null){
+                    this.setNoSolution();
+                    return;
+                }
+
+                tree.putAll(best);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.setNoSolution();
+            return;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
 
-            for(Integer capa : this.getInstance().getStaticCapacities()){
-                eol.setStaticCapacityCost(capa, this.getInstance().getStaticCapacityCost(capa));
-            }
+        tree = this.getInstance().unviolateMaxNbSecConstraint(tree);
+        Double c = 0D;
+        for(Map.Entry<Arc,Integer> entry : tree.entrySet()){
+            c += this.getInstance().getRealCableCost(entry.getKey(), entry.getValue());
+        }
 
-            for(Integer capa : this.getInstance().getDynamicCapacities()){
-                eol.setDynamicCapacityCost(capa, this.getInstance().getDynamicCapacityCost(capa));
-            }
+        arborescence = tree;
+        cost = c;
 
-            for(Integer node : nodes)
-                eol.setMaximumOutputDegree(node, this.getInstance().getMaximumOutputDegree(node));
-            eol.setMaximumOutputDegree(this.getInstance().getRoot(), 1);
 
+    }
 
-            for(Integer node : nodes) {
-                eol.getGraph().setNodeAbscissa(node, this.getInstance().getGraph().getNodeAbscissa(node));
-                eol.getGraph().setNodeOrdinate(node, this.getInstance().getGraph().getNodeOrdinate(node));
-            }
+    /**
+     * @return the instance induced by the nodes of the packet file.
+     */
+    private WindFarmInstance getPaquetInstance(String file){
+        FileManager fm = new FileManager();
+        fm.openRead(file);
 
-            eol.setMaxNbSec(this.getInstance().getStaticCapacities().size());
-            eol.setDistanceMin(this.getInstance().getDistanceMin());
-            eol.setStaticStaticBranchingNodeCost(this.getInstance().getStaticStaticBranchingNodeCost());
-            eol.setDynamicStaticBranchingNodeCost(this.getInstance().getDynamicStaticBranchingNodeCost());
+        HashSet<Integer> nodes = new HashSet<Integer>();
 
-            GFLAC2WindFarmAlgorithm3 gf = new GFLAC2WindFarmAlgorithm3();
-            gf.setInstance(eol);
-            gf.compute();
+        String line;
+        while((line = fm.readLine()) != null) {
+            String[] ints = line.split("\\s+");
+            Integer i1 = Integer.valueOf(ints[0]);
+            Integer i2 = Integer.valueOf(ints[1]);
+            nodes.add(i1);
+            nodes.add(i2);
+        }
+        fm.closeRead();
 
-            HashMap<Arc, Integer> h1 = gf.getArborescence();
-            Double c1 = gf.getCost();
+        nodes.add(this.getInstance().getRoot());
 
-            WindFarmInstance peol2 = eol.simplifyWithAngles(Math.PI / 12);
+        DirectedGraph dg = this.getInstance().getGraph();
+        DirectedGraph pg = dg.getInducedGraphFromNodes(nodes);
 
-            gf.setInstance(peol2);
-            gf.compute();
-            HashMap<Arc, Integer> h2 = gf.getArborescence();
-            Double c2 = gf.getCost();
-            HashMap<Arc, Integer> best = (c1 != -1 && (c2 == -1 || c1 < c2))?h1:h2;
+        WindFarmInstance eol = new WindFarmInstance(pg);
 
-            if(best == null){
-                this.setNoSolution();
-                return;
-            }
+        for(Integer node : nodes){
+            if(this.getInstance().isRequired(node))
+                eol.setRequired(node);
+        }
+        eol.setRoot(this.getInstance().getRoot());
 
-            tree.putAll(best);
+        for(Arc arc : pg.getEdges()){
+            eol.setCost(arc, this.getInstance().getDoubleCost(arc));
         }
 
-        tree = this.getInstance().unviolateMaxNbSecConstraint(tree);
-        Double c = 0D;
-        for(Map.Entry<Arc,Integer> entry : tree.entrySet()){
-            c += this.getInstance().getRealCableCost(entry.getKey(), entry.getValue());
+        for(Integer capa : this.getInstance().getStaticCapacities()){
+            eol.setStaticCapacityCost(capa, this.getInstance().getStaticCapacityCost(capa));
         }
 
-        arborescence = tree;
-        cost = c;
+        for(Integer capa : this.getInstance().getDynamicCapacities()){
+            eol.setDynamicCapacityCost(capa, this.getInstance().getDynamicCapacityCost(capa));
+        }
 
+        for(Integer node : nodes)
+            eol.setMaximumOutputDegree(node, this.getInstance().getMaximumOutputDegree(node));
+        eol.setMaximumOutputDegree(this.getInstance().getRoot(), 1);
+
+
+        for(Integer node : nodes) {
+            eol.getGraph().setNodeAbscissa(node, this.getInstance().getGraph().getNodeAbscissa(node));
+            eol.getGraph().setNodeOrdinate(node, this.getInstance().getGraph().getNodeOrdinate(node));
+        }
+
+        eol.setMaxNbSec(this.getInstance().getStaticCapacities().size());
+        eol.setDistanceMin(this.getInstance().getDistanceMin());
+        eol.setStaticStaticBranchingNodeCost(this.getInstance().getStaticStaticBranchingNodeCost());
+        eol.setDynamicStaticBranchingNodeCost(this.getInstance().getDynamicStaticBranchingNodeCost());
+        return eol;
+    }
 
+    /**
+     * @return the arborescence returned by a new GFLAC2WindFarmAlgorithm3 over eol, improved by the local search
+     * if any, and its cost.
+     */
+    private Couple<HashMap<Arc, Integer>, Double> solve(WindFarmInstance eol){
+        WindFarmApproximationAlgorithm gf = new GFLAC2WindFarmAlgorithm3();
+        if(localSearchTimeBudget > 0)
+            gf = new LocalSearchWindFarmAlgorithm(gf, localSearchTimeBudget);
+        gf.setInstance(eol);
+        gf.compute();
+        return new Couple<HashMap<Arc, Integer>, Double>(gf.getArborescence(), gf.getCost());
     }
 }
@@ -3,6 +3,7 @@ package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
 import graphTheory.algorithms.Algorithm;
 import graphTheory.graph.Arc;
 import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.utils.HighQualityRandom;
 
 import java.util.HashMap;
 import java.util.Set;
@@ -17,6 +18,60 @@ import java.util.Set;
 public abstract class WindFarmApproximationAlgorithm extends
 		Algorithm<WindFarmInstance> {
 
+	/*
+	 * Names of the phases and counters of the GFLAC2 algorithms, see
+	 * Algorithm#getStatistics().
+	 */
+
+	/**
+	 * Copy of the instance and initialization of the structures.
+	 */
+	public static final String INIT_PHASE = "init";
+
+	/**
+	 * Runs of FLAC, until every terminal is reached.
+	 */
+	public static final String FLAC_ITERATION_PHASE = "flac-iteration";
+
+	/**
+	 * Removal of the cycles of the merged trees, see
+	 * {@link WindFarmInstance#unviolateTreeConstraint(HashMap)}.
+	 */
+	public static final String TREE_REPAIR_PHASE = "tree-repair";
+
+	/**
+	 * Choice of the capacities, see
+	 * {@link WindFarmInstance#unviolateMaxNbSecConstraint(HashMap)}.
+	 */
+	public static final String NBSEC_DP_PHASE = "nbsec-dp";
+
+	/**
+	 * Computation of the cost of the returned arborescence.
+	 */
+	public static final String COST_EVAL_PHASE = "cost-eval";
+
+	/**
+	 * Number of insertions, decreases of key and removals of the minimum in
+	 * the heap of saturating nodes.
+	 */
+	public static final String HEAP_OPERATIONS_COUNTER = "heap-operations";
+
+	/**
+	 * Number of saturated arcs without conflict.
+	 */
+	public static final String SATURATIONS_COUNTER = "saturations";
+
+	/**
+	 * Number of saturations ignored or delayed because of a conflict.
+	 */
+	public static final String CONFLICTS_COUNTER = "conflicts";
+
+	/**
+	 * Number of runs of FLAC, including the first one: FLAC runs once per tree
+	 * added to the solution, and once more if it fails to find a tree.
+	 */
+	public static final String FLAC_RUNS_COUNTER = "flac-runs";
+
 	protected HashMap<Arc, Integer> arborescence;
 	protected Double cost;
 
@@ -34,6 +89,22 @@ public abstract class WindFarmApproximationAlgorithm extends
 
 
 
+	/**
+	 * @param nbArcs
+	 * @param amplitude
+	 * @param seed
+	 * @return for each dense arc id between 0 and nbArcs - 1, a factor
+	 *         uniformly drawn in [1 - amplitude, 1 + amplitude[, the same for
+	 *         the same seed.
+	 */
+	protected static double[] perturbationFactors(int nbArcs, double amplitude, long seed) {
+		HighQualityRandom random = new HighQualityRandom(seed);
+		double[] factors = new double[nbArcs];
+		for (int a = 0; a < nbArcs; a++)
+			factors[a] = 1D + amplitude * (2D * random.nextDouble() - 1D);
+		return factors;
+	}
+
 	@Override
 	protected void setNoSolution() {
 		arborescence = null;
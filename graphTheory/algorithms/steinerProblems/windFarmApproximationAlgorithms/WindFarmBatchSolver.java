@@ -0,0 +1,271 @@
+package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
+
+import graphTheory.generators.steinLib.STPGenerator;
+import graphTheory.generators.windfarm.STPWindFarmGenerator;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.steinLib.STPTranslationException;
+import graphTheory.steinLib.STPTranslationWindFarmException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Solve every instance of one or more directories of STP wind farm files, with
+ * multiple threads.
+ * <p>
+ * Each instance is generated with a {@link STPWindFarmGenerator} and solved by
+ * a worker thread. Each worker uses its own algorithm, built with the supplier
+ * given to the constructor. The result of each instance is sent to a consumer
+ * as soon as it is solved: the results are not sent in the order of the files.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class WindFarmBatchSolver {
+
+	/**
+	 * Build the algorithm of each worker.
+	 */
+	private Supplier<? extends WindFarmApproximationAlgorithm> algorithmSupplier;
+
+	/**
+	 * Number of threads of the default pool.
+	 */
+	private int parallelism;
+
+	/**
+	 * If not null, the instances are solved by this executor instead of a new
+	 * {@link ForkJoinPool}.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * @param algorithmSupplier
+	 *            : builds a new algorithm, for instance
+	 *            GFLAC2WindFarmAlgorithm3::new
+	 */
+	public WindFarmBatchSolver(Supplier<? extends WindFarmApproximationAlgorithm> algorithmSupplier) {
+		this.algorithmSupplier = algorithmSupplier;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.executor = null;
+	}
+
+	/**
+	 * Define the number of threads solving the instances. The default value is
+	 * the number of available processors.
+	 *
+	 * @param parallelism
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be positive");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Solve the instances with that executor, for instance a virtual thread
+	 * executor, instead of a new {@link ForkJoinPool}. The executor is not shut
+	 * down by this solver. If null, a new ForkJoinPool is used.
+	 *
+	 * @param executor
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Solve every instance of the directory.
+	 *
+	 * @param instancesDirectoryName
+	 * @param consumer
+	 *            : receives the result of each instance. It is never called by
+	 *            two threads at the same time.
+	 * @throws InterruptedException
+	 */
+	public void solve(String instancesDirectoryName, Consumer<Result> consumer) throws InterruptedException {
+		solve(Arrays.asList(instancesDirectoryName), consumer);
+	}
+
+	/**
+	 * Solve every instance of every directory.
+	 *
+	 * @param instancesDirectoryNames
+	 * @param consumer
+	 *            : receives the result of each instance. It is never called by
+	 *            two threads at the same time. An exception thrown by the
+	 *            consumer is thrown again by this method, once every instance
+	 *            is solved.
+	 * @throws InterruptedException
+	 */
+	public void solve(Collection<String> instancesDirectoryNames, Consumer<Result> consumer)
+			throws InterruptedException {
+		ThreadLocal<WindFarmApproximationAlgorithm> algorithms = ThreadLocal.withInitial(algorithmSupplier);
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (String dir : instancesDirectoryNames) {
+			STPWindFarmGenerator gen = new STPWindFarmGenerator(dir);
+			for (int i = 0; i < gen.getNumberOfInstances(); i++) {
+				final int index = i;
+				tasks.add(() -> {
+					Result result = solve(gen, index, algorithms.get());
+					if (result != null) {
+						synchronized (consumer) {
+							consumer.accept(result);
+						}
+					}
+					return null;
+				});
+			}
+		}
+
+		ExecutorService ex = (executor == null) ? new ForkJoinPool(parallelism) : executor;
+		List<Future<Void>> futures;
+		try {
+			futures = ex.invokeAll(tasks);
+		} finally {
+			if (executor == null)
+				ex.shutdown();
+		}
+
+		for (Future<Void> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Solve the index-th instance of the generator with the algorithm.
+	 *
+	 * @return the result, or null if the name of the file is not the name of
+	 *         a stp file. If the file can not be translated, the result only
+	 *         contains the name of the file and the exception.
+	 */
+	private Result solve(STPWindFarmGenerator gen, int index, WindFarmApproximationAlgorithm algorithm) {
+		Result result = new Result();
+		WindFarmInstance eol;
+		try {
+			eol = gen.translate(index);
+		} catch (STPTranslationException | STPTranslationWindFarmException | RuntimeException e) {
+			result.name = gen.getInstanceFile(index).getName();
+			result.exception = e;
+			return result;
+		}
+		if (eol == null)
+			return null;
+
+		result.name = (String) eol.getGraph().getParam(STPGenerator.OUTPUT_NAME_PARAM_NAME);
+		result.numberOfVertices = eol.getGraph().getNumberOfVertices();
+		result.numberOfArcs = eol.getGraph().getNumberOfEdges();
+		result.numberOfRequiredVertices = eol.getNumberOfRequiredVertices();
+
+		try {
+			algorithm.setInstance(eol);
+			algorithm.compute();
+			result.time = algorithm.getTime();
+			result.cost = algorithm.getCost();
+			if (algorithm.getCost() > 0)
+				result.errors = eol.testSolution(algorithm.getArborescence());
+		} catch (RuntimeException e) {
+			result.exception = e;
+		} finally {
+			algorithm.setInstance(null);
+		}
+		return result;
+	}
+
+	/**
+	 * Result of one instance.
+	 */
+	public static class Result {
+
+		private String name;
+		private int numberOfVertices;
+		private int numberOfArcs;
+		private int numberOfRequiredVertices;
+		private Long time;
+		private Double cost;
+		private HashSet<WindFarmInstance.ResultError> errors;
+		private Exception exception;
+
+		public String getName() {
+			return name;
+		}
+
+		public int getNumberOfVertices() {
+			return numberOfVertices;
+		}
+
+		public int getNumberOfArcs() {
+			return numberOfArcs;
+		}
+
+		public int getNumberOfRequiredVertices() {
+			return numberOfRequiredVertices;
+		}
+
+		/**
+		 * @return the running time of the algorithm in ms, or null if it
+		 *         failed.
+		 */
+		public Long getTime() {
+			return time;
+		}
+
+		/**
+		 * @return the cost of the returned solution, -1 if no solution was
+		 *         found, or null if the algorithm failed.
+		 */
+		public Double getCost() {
+			return cost;
+		}
+
+		/**
+		 * @return the errors of the returned solution, or null if no
+		 *         solution was found.
+		 */
+		public HashSet<WindFarmInstance.ResultError> getErrors() {
+			return errors;
+		}
+
+		/**
+		 * @return the exception thrown while translating the file or by the
+		 *         algorithm, or null.
+		 */
+		public Exception getException() {
+			return exception;
+		}
+
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(name).append(' ');
+			sb.append(numberOfVertices).append(' ');
+			sb.append(numberOfArcs).append(' ');
+			sb.append(numberOfRequiredVertices).append(' ');
+			if (exception != null)
+				sb.append("EXCEPTION ").append(exception);
+			else if (errors == null)
+				sb.append(time).append(" ERROR");
+			else {
+				sb.append(time).append(' ').append(cost.intValue());
+				if (!errors.isEmpty())
+					sb.append(' ').append(errors);
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -72,6 +72,14 @@ public abstract class STPGenerator<T extends SteinerInstance> extends
 		return instanceFiles.length;
 	}
 
+	/**
+	 * @param i
+	 * @return the file of the i-th instance of the current directory
+	 */
+	public File getInstanceFile(int i) {
+		return instanceFiles[i];
+	}
+
 	/**
 	 * Tell the generator to increase by 1 the index pointing at the 
 	 * next generated instance.
@@ -0,0 +1,344 @@
+package graphTheory.generators.windfarm;
+
+import graphTheory.generators.InstanceGenerator;
+import graphTheory.generators.steinLib.STPGenerator;
+import graphTheory.graph.Arc;
+import graphTheory.graph.DirectedGraph;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.utils.HighQualityRandom;
+import graphTheory.utils.PointGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This generator generates random wind farm instances. Two generators with the
+ * same parameters and the same seed generate the same instances.
+ * <p>
+ * The turbines (the terminals) and the junction nodes are placed in clusters,
+ * in a square whose area grows linearly with the number of nodes, as in the
+ * instances of SteinLibWindFarm. The centers of the clusters are uniformly
+ * placed in the square, and the nodes of a cluster follow a normal
+ * distribution around its center. The root, the substation, is at the center
+ * of the square.
+ * <p>
+ * The root is linked to every node. Each other node is linked, in both
+ * directions, to its k nearest neighbours, found with a {@link PointGrid}: the
+ * instances can have tens of thousands of turbines. The cost of an arc is its
+ * euclidean length, rounded to two decimals.
+ * <p>
+ * The nodes are numbered from 1: first the root, then the turbines, then the
+ * junction nodes.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class RandomWindFarmGenerator extends InstanceGenerator<WindFarmInstance> {
+
+	/**
+	 * Same density of nodes as in the instances of SteinLibWindFarm: 28 nodes
+	 * in a 2000 x 2000 square.
+	 */
+	private static final double AREA_PER_NODE = 2000D * 2000D / 28D;
+
+	private int nbTurbines;
+	private int nbJunctions;
+	private int nbClusters;
+	private double clusterSpread;
+	private int nbNeighbours;
+
+	private Integer turbineMaximumOutputDegree;
+	private Integer junctionMaximumOutputDegree;
+	private Integer rootMaximumOutputDegree;
+
+	private LinkedHashMap<Integer, Double> staticCapacityCosts;
+	private LinkedHashMap<Integer, Double> dynamicCapacityCosts;
+	private int maxNbSec;
+	private double distanceMin;
+	private double staticStaticBranchingNodeCost;
+	private double dynamicStaticBranchingNodeCost;
+
+	/**
+	 * Seed of the next generated instance.
+	 */
+	private long seed;
+
+	/**
+	 * Create a generator of instances with nbTurbines turbines, and the
+	 * default parameters: one junction node for three turbines, one cluster
+	 * for a hundred turbines, 10 neighbours per node, the capacities and costs
+	 * of the large instances of SteinLibWindFarm.
+	 *
+	 * @param nbTurbines
+	 * @param seed
+	 *            : seed of the first generated instance.
+	 */
+	public RandomWindFarmGenerator(int nbTurbines, long seed) {
+		setNbTurbines(nbTurbines);
+		this.nbJunctions = nbTurbines / 3;
+		this.nbClusters = Math.max(1, nbTurbines / 100);
+		this.clusterSpread = 0.25;
+		this.nbNeighbours = 10;
+		this.turbineMaximumOutputDegree = 1;
+		this.junctionMaximumOutputDegree = null;
+		this.rootMaximumOutputDegree = null;
+
+		staticCapacityCosts = new LinkedHashMap<Integer, Double>();
+		for (int capacity = 1; capacity <= 25; capacity++)
+			staticCapacityCosts.put(capacity, (capacity <= 5) ? 10D : (capacity <= 10) ? 14.5 : (capacity <= 15) ? 19D : 25D);
+		dynamicCapacityCosts = new LinkedHashMap<Integer, Double>();
+		dynamicCapacityCosts.put(5, 20D);
+		dynamicCapacityCosts.put(15, 38D);
+		dynamicCapacityCosts.put(25, 50D);
+		maxNbSec = 3;
+		distanceMin = 12.5;
+		staticStaticBranchingNodeCost = 100D;
+		dynamicStaticBranchingNodeCost = 60D;
+
+		this.seed = seed;
+	}
+
+	public void setNbTurbines(int nbTurbines) {
+		if (nbTurbines < 1)
+			throw new IllegalArgumentException("nbTurbines must be positive");
+		this.nbTurbines = nbTurbines;
+	}
+
+	/**
+	 * @param nbJunctions
+	 *            : number of non terminal nodes, other than the root.
+	 */
+	public void setNbJunctions(int nbJunctions) {
+		if (nbJunctions < 0)
+			throw new IllegalArgumentException("nbJunctions must be non negative");
+		this.nbJunctions = nbJunctions;
+	}
+
+	public void setNbClusters(int nbClusters) {
+		if (nbClusters < 1)
+			throw new IllegalArgumentException("nbClusters must be positive");
+		this.nbClusters = nbClusters;
+	}
+
+	/**
+	 * @param clusterSpread
+	 *            : standard deviation of the distance between a node and the
+	 *            center of its cluster, as a fraction of the side of the
+	 *            square divided by the square root of the number of clusters.
+	 *            The default value is 0.25.
+	 */
+	public void setClusterSpread(double clusterSpread) {
+		if (clusterSpread <= 0)
+			throw new IllegalArgumentException("clusterSpread must be positive");
+		this.clusterSpread = clusterSpread;
+	}
+
+	/**
+	 * @param nbNeighbours
+	 *            : number of nearest neighbours each node is linked to.
+	 */
+	public void setNbNeighbours(int nbNeighbours) {
+		if (nbNeighbours < 1)
+			throw new IllegalArgumentException("nbNeighbours must be positive");
+		this.nbNeighbours = nbNeighbours;
+	}
+
+	/**
+	 * @param degree
+	 *            : maximum output degree of the turbines, null for no limit.
+	 *            The default value is 1.
+	 */
+	public void setTurbineMaximumOutputDegree(Integer degree) {
+		this.turbineMaximumOutputDegree = degree;
+	}
+
+	/**
+	 * @param degree
+	 *            : maximum output degree of the junction nodes, null for no
+	 *            limit. The default value is null.
+	 */
+	public void setJunctionMaximumOutputDegree(Integer degree) {
+		this.junctionMaximumOutputDegree = degree;
+	}
+
+	/**
+	 * @param degree
+	 *            : maximum output degree of the root, null for a fifth of the
+	 *            number of turbines, as in the large instances of
+	 *            SteinLibWindFarm. The default value is null.
+	 */
+	public void setRootMaximumOutputDegree(Integer degree) {
+		this.rootMaximumOutputDegree = degree;
+	}
+
+	/**
+	 * @param costs
+	 *            : cost of one meter of static cable for each capacity.
+	 */
+	public void setStaticCapacityCosts(Map<Integer, Double> costs) {
+		if (costs.isEmpty())
+			throw new IllegalArgumentException("at least one static capacity is needed");
+		staticCapacityCosts = new LinkedHashMap<Integer, Double>(costs);
+	}
+
+	/**
+	 * @param costs
+	 *            : cost of one meter of dynamic cable for each capacity.
+	 */
+	public void setDynamicCapacityCosts(Map<Integer, Double> costs) {
+		dynamicCapacityCosts = new LinkedHashMap<Integer, Double>(costs);
+	}
+
+	public void setMaxNbSec(int maxNbSec) {
+		this.maxNbSec = maxNbSec;
+	}
+
+	public void setDistanceMin(double distanceMin) {
+		this.distanceMin = distanceMin;
+	}
+
+	public void setStaticStaticBranchingNodeCost(double cost) {
+		this.staticStaticBranchingNodeCost = cost;
+	}
+
+	public void setDynamicStaticBranchingNodeCost(double cost) {
+		this.dynamicStaticBranchingNodeCost = cost;
+	}
+
+	/**
+	 * Define the seed of the next generated instance.
+	 *
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Generate the instance of the current seed, and increment the seed.
+	 */
+	@Override
+	public WindFarmInstance generate() {
+		return generate(seed++);
+	}
+
+	/**
+	 * Generate the instance of that seed. The seed of the next instance
+	 * returned by {@link #generate()} is not modified.
+	 *
+	 * @param seed
+	 * @return the instance.
+	 */
+	public WindFarmInstance generate(long seed) {
+		HighQualityRandom random = new HighQualityRandom(seed);
+		int nbNodes = 1 + nbTurbines + nbJunctions;
+
+		// Coordinates, without two nodes at the same place
+		int side = Math.max(1, (int) Math.ceil(Math.sqrt(nbNodes * AREA_PER_NODE)));
+		double sigma = clusterSpread * side / Math.sqrt(nbClusters);
+		double[] centerXs = new double[nbClusters];
+		double[] centerYs = new double[nbClusters];
+		for (int c = 0; c < nbClusters; c++) {
+			centerXs[c] = random.nextDouble() * side;
+			centerYs[c] = random.nextDouble() * side;
+		}
+		int[] xs = new int[nbNodes + 1];
+		int[] ys = new int[nbNodes + 1];
+		HashSet<Long> positions = new HashSet<Long>();
+		xs[1] = side / 2;
+		ys[1] = side / 2;
+		positions.add(((long) xs[1] << 32) | ys[1]);
+		for (int v = 2; v <= nbNodes; v++) {
+			int c = random.nextInt(nbClusters);
+			do {
+				xs[v] = clip(centerXs[c] + sigma * random.nextGaussian(), side);
+				ys[v] = clip(centerYs[c] + sigma * random.nextGaussian(), side);
+			} while (!positions.add(((long) xs[v] << 32) | ys[v]));
+		}
+
+		long[] arcs = nearestNeighbourArcs(xs, ys, nbNodes);
+
+		DirectedGraph g = new DirectedGraph(nbNodes, arcs.length);
+		for (int v = 1; v <= nbNodes; v++) {
+			g.addVertice(v);
+			g.setNodeAbscissa(v, xs[v]);
+			g.setNodeOrdinate(v, ys[v]);
+		}
+		WindFarmInstance eol = new WindFarmInstance(g);
+		for (long key : arcs) {
+			int u = (int) (key >>> 32);
+			int v = (int) key;
+			Arc a = g.addDirectedEdge(u, v);
+			eol.setCost(a, Math.round(100 * Math.hypot(xs[u] - xs[v], ys[u] - ys[v])) / 100D);
+		}
+
+		eol.setRoot(1);
+		ArrayList<Integer> turbines = new ArrayList<Integer>(nbTurbines);
+		for (int v = 2; v <= 1 + nbTurbines; v++) {
+			turbines.add(v);
+			if (turbineMaximumOutputDegree != null)
+				eol.setMaximumOutputDegree(v, turbineMaximumOutputDegree);
+		}
+		eol.setRequired(turbines);
+		if (junctionMaximumOutputDegree != null)
+			for (int v = 2 + nbTurbines; v <= nbNodes; v++)
+				eol.setMaximumOutputDegree(v, junctionMaximumOutputDegree);
+		eol.setMaximumOutputDegree(1,
+				(rootMaximumOutputDegree == null) ? Math.max(1, (nbTurbines + 4) / 5) : rootMaximumOutputDegree);
+
+		for (Map.Entry<Integer, Double> entry : staticCapacityCosts.entrySet())
+			eol.setStaticCapacityCost(entry.getKey(), entry.getValue());
+		for (Map.Entry<Integer, Double> entry : dynamicCapacityCosts.entrySet())
+			eol.setDynamicCapacityCost(entry.getKey(), entry.getValue());
+		eol.setMaxNbSec(maxNbSec);
+		eol.setDistanceMin(distanceMin);
+		eol.setStaticStaticBranchingNodeCost(staticStaticBranchingNodeCost);
+		eol.setDynamicStaticBranchingNodeCost(dynamicStaticBranchingNodeCost);
+
+		g.defineParam(STPGenerator.OUTPUT_NAME_PARAM_NAME, "R" + nbTurbines + "_" + seed);
+		return eol;
+	}
+
+	private static int clip(double x, int side) {
+		return (int) Math.max(0, Math.min(side - 1, Math.round(x)));
+	}
+
+	/**
+	 * @return the arcs linking the root to every other node, and each other
+	 *         node to and from its nbNeighbours nearest neighbours, as sorted
+	 *         keys (input << 32 | output).
+	 */
+	private long[] nearestNeighbourArcs(int[] xs, int[] ys, int nbNodes) {
+		int k = Math.min(nbNeighbours, nbNodes - 2);
+		long[] keys = new long[nbNodes - 1 + 2 * (nbNodes - 1) * Math.max(k, 0)];
+		int m = 0;
+		for (int v = 2; v <= nbNodes; v++)
+			keys[m++] = (1L << 32) | v;
+
+		if (k > 0) {
+			// The point p of the grid is the node p + 2
+			PointGrid grid = new PointGrid(Arrays.copyOfRange(xs, 2, nbNodes + 1),
+					Arrays.copyOfRange(ys, 2, nbNodes + 1), nbNodes - 1);
+			int[] neighbours = new int[k];
+			long[] distances = new long[k];
+			for (int u = 2; u <= nbNodes; u++) {
+				int nb = grid.nearest(u - 2, k, neighbours, distances);
+				for (int i = 0; i < nb; i++) {
+					int v = neighbours[i] + 2;
+					keys[m++] = ((long) u << 32) | v;
+					keys[m++] = ((long) v << 32) | u;
+				}
+			}
+		}
+
+		Arrays.sort(keys, 0, m);
+		int distinct = 0;
+		for (int i = 0; i < m; i++)
+			if (i == 0 || keys[i] != keys[i - 1])
+				keys[distinct++] = keys[i];
+		return Arrays.copyOf(keys, distinct);
+	}
+}
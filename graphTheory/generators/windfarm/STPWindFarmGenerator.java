@@ -5,8 +5,11 @@ import graphTheory.instances.steiner.windfarm.WindFarmInstance;
 import graphTheory.steinLib.STPTranslationException;
 import graphTheory.steinLib.STPTranslationWindFarmException;
 import graphTheory.steinLib.STPWindFarmTranslator;
+import graphTheory.steinLib.WindFarmInstanceCache;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,6 +17,11 @@ import java.util.regex.Pattern;
  * 
  * This generator generated Windfarm Directed Steiner Instances from an STP file.
  * The format is adapted from the format described at http://steinlib.zib.de/
+ * <p>
+ * By default, each instance is loaded from its binary cache file, written by
+ * {@link WindFarmInstanceCache} next to the stp file, if it is up to date.
+ * Otherwise the stp file is translated and the cache file is written. The
+ * cache files are not counted as instances of the directory.
  * 
  * @author Watel Dimitri
  *
@@ -28,31 +36,121 @@ public class STPWindFarmGenerator extends STPGenerator<WindFarmInstance> {
      */
 	public STPWindFarmGenerator(String instancesDirectoryName) {
 		super(instancesDirectoryName);
+		useCache = true;
 	}
 
+	/**
+	 * If true, the instances are loaded from and saved in cache files.
+	 */
+	private boolean useCache;
+
+	/**
+	 * Define if the instances are loaded from their cache file when it is up
+	 * to date, and if the cache files are written otherwise. True by default.
+	 *
+	 * @param useCache
+	 */
+	public void setUseCache(boolean useCache) {
+		this.useCache = useCache;
+	}
+
+	@Override
+	public void setInstancesDirectoryName(String iDN) {
+		super.setInstancesDirectoryName(iDN);
+		instanceFiles = Arrays.stream(instanceFiles)
+				.filter(f -> !f.getName().endsWith(WindFarmInstanceCache.CACHE_EXTENSION))
+				.toArray(File[]::new);
+	}
+
+	/**
+	 * Names of the files this generator can translate
+	 */
+	private static final Pattern STP_FILE_NAME = Pattern.compile("((\\w|-)+)\\.stp");
+
 	@Override
 	public WindFarmInstance generate() {
 		File f = instanceFiles[index];
-		Pattern p = Pattern.compile("((\\w|-)+)\\.stp");
-		Matcher m = p.matcher(f.getName());
-		if (m.matches()) {
-			String name = m.group(1);
-
-            WindFarmInstance eol;
-			try {
-				eol = STPWindFarmTranslator.translateFile(f.getPath());
-				incrIndex();
-			} catch (STPTranslationException | STPTranslationWindFarmException e) {
-				e.printStackTrace();
-				incrIndex();
-				return null;
-			}
-
-			eol.getGraph().defineParam(OUTPUT_NAME_PARAM_NAME, name);
-            return eol;
-        } else {
+		if (!STP_FILE_NAME.matcher(f.getName()).matches())
+			return null;
+		WindFarmInstance eol = generate(index);
+		incrIndex();
+		return eol;
+	}
+
+	/**
+	 * Generate the i-th instance of the directory, without modifying the index
+	 * of the next generated instance. Contrary to {@link #generate()}, this
+	 * method can be called by multiple threads at the same time.
+	 *
+	 * @param i
+	 * @return the i-th instance, or null if the file can not be translated.
+	 */
+	public WindFarmInstance generate(int i) {
+		try {
+			return translate(i);
+		} catch (STPTranslationException | STPTranslationWindFarmException e) {
+			e.printStackTrace();
 			return null;
 		}
 	}
 
+	/**
+	 * Generate the i-th instance of the directory, as {@link #generate(int)}
+	 * does, but throw the exception if the file can not be translated.
+	 *
+	 * @param i
+	 * @return the i-th instance, or null if the name of the file is not the
+	 *         name of a stp file.
+	 * @throws STPTranslationException
+	 * @throws STPTranslationWindFarmException
+	 */
+	public WindFarmInstance translate(int i) throws STPTranslationException, STPTranslationWindFarmException {
+		File f = instanceFiles[i];
+		Matcher m = STP_FILE_NAME.matcher(f.getName());
+		if (!m.matches())
+			return null;
+		String name = m.group(1);
+
+		WindFarmInstance eol = useCache ? readCache(f) : null;
+		if (eol == null) {
+			eol = STPWindFarmTranslator.translateFile(f.getPath());
+			if (useCache)
+				writeCache(f, eol);
+		}
+
+		eol.getGraph().defineParam(OUTPUT_NAME_PARAM_NAME, name);
+		return eol;
+	}
+
+	/**
+	 * @param f
+	 * @return the instance saved in the cache file of f, or null if that file
+	 *         does not exist, is not up to date, or can not be read.
+	 */
+	private WindFarmInstance readCache(File f) {
+		File cache = WindFarmInstanceCache.getCacheFile(f);
+		if (!WindFarmInstanceCache.isUpToDate(cache, f))
+			return null;
+		try {
+			return WindFarmInstanceCache.read(cache);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Save eol, translated from f, in the cache file of f.
+	 */
+	private void writeCache(File f, WindFarmInstance eol) {
+		File cache = WindFarmInstanceCache.getCacheFile(f);
+		if (!cache.getAbsoluteFile().getParentFile().canWrite())
+			return;
+		try {
+			WindFarmInstanceCache.write(eol, cache, f);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 }
\ No newline at end of file
@@ -86,6 +86,12 @@ public class Arc implements Cloneable {
 				.toString();
 	}
 
+	/**
+	 * The iteration order of the hash maps and sets of arcs, and thus the
+	 * solutions of the heuristics breaking ties with that order, depend on
+	 * this hash code. The lookups by endpoints use {@link #mix(long)} instead,
+	 * see {@link Graph#getDirectedArcLinking(Integer, Integer)}.
+	 */
 	@Override
 	public int hashCode() {
 
@@ -97,6 +103,26 @@ public class Arc implements Cloneable {
 			return i1 ^ i2;
 	}
 
+	/**
+	 * @param input
+	 * @param output
+	 * @return a long identifying the couple (input, output).
+	 */
+	static long key(int input, int output) {
+		return ((long) input << 32) | (output & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Fibonacci hashing: the highest bits of the returned value depend on
+	 * every bit of key.
+	 *
+	 * @param key
+	 * @return the mixed key.
+	 */
+	static long mix(long key) {
+		return key * 0x9E3779B97F4A7C15L;
+	}
+
 	@Override
 	public Object clone() {
 		Arc a;
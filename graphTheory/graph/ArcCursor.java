@@ -0,0 +1,114 @@
+package graphTheory.graph;
+
+/**
+ * Reusable cursor over the input or output arcs of the vertices of a
+ * {@link CompactDirectedGraph}. A cursor is positioned on the neighbourhood of
+ * a vertex with {@link #overOutputArcs(int)} or {@link #overInputArcs(int)},
+ * then moved with {@link #next()}:
+ *
+ * <pre>
+ * ArcCursor c = graph.cursor();
+ * for (c.overOutputArcs(v); c.next();)
+ * 	use(c.arc(), c.output());
+ * </pre>
+ *
+ * The same cursor can be positioned on any number of vertices: walking the
+ * neighbourhoods does not allocate anything.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public final class ArcCursor {
+
+	private final CompactDirectedGraph graph;
+
+	/**
+	 * True if the cursor is over output arcs, false if it is over input arcs.
+	 */
+	private boolean outputs;
+
+	/**
+	 * Next position in the arrays of output or input arcs, and first position
+	 * after the neighbourhood.
+	 */
+	private int position, end;
+
+	/**
+	 * Current arc, -1 before the first call to {@link #next()}.
+	 */
+	private int arc;
+
+	ArcCursor(CompactDirectedGraph graph) {
+		this.graph = graph;
+		this.arc = -1;
+	}
+
+	/**
+	 * Position this cursor before the first output arc of the vertex v.
+	 *
+	 * @param v
+	 * @return this cursor.
+	 */
+	public ArcCursor overOutputArcs(int v) {
+		outputs = true;
+		position = graph.getOutputBegin(v);
+		end = graph.getOutputEnd(v);
+		arc = -1;
+		return this;
+	}
+
+	/**
+	 * Position this cursor before the first input arc of the vertex v.
+	 *
+	 * @param v
+	 * @return this cursor.
+	 */
+	public ArcCursor overInputArcs(int v) {
+		outputs = false;
+		position = graph.getInputBegin(v);
+		end = graph.getInputEnd(v);
+		arc = -1;
+		return this;
+	}
+
+	/**
+	 * Move this cursor to the next arc.
+	 *
+	 * @return false if there is no next arc.
+	 */
+	public boolean next() {
+		if (position >= end)
+			return false;
+		arc = outputs ? graph.getOutputArc(position++) : graph.getInputArc(position++);
+		return true;
+	}
+
+	/**
+	 * @return the dense id of the current arc.
+	 */
+	public int arc() {
+		return arc;
+	}
+
+	/**
+	 * @return the dense id of the input of the current arc.
+	 */
+	public int input() {
+		return graph.getInput(arc);
+	}
+
+	/**
+	 * @return the dense id of the output of the current arc.
+	 */
+	public int output() {
+		return graph.getOutput(arc);
+	}
+
+	/**
+	 * @return the dense id of the extremity of the current arc which is not
+	 *         the vertex this cursor is positioned on.
+	 */
+	public int neighbour() {
+		return outputs ? graph.getOutput(arc) : graph.getInput(arc);
+	}
+}
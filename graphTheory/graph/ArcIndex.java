@@ -0,0 +1,137 @@
+package graphTheory.graph;
+
+/**
+ * Hash index associating each directed arc of a {@link Graph} to the key
+ * (input &lt;&lt; 32 | output) of its endpoints, see {@link Arc#key(int, int)}.
+ * <p>
+ * The index uses open addressing with linear probing over two parallel
+ * arrays: a lookup reads a long array and compares primitive keys, without
+ * boxing the nodes or calling {@link Arc#equals(Object)}. Removing an arc
+ * shifts back the following entries of its cluster, so that the index does
+ * not keep any tombstone.
+ *
+ * @author Watel Dimitri
+ *
+ */
+final class ArcIndex {
+
+	/**
+	 * The arrays are doubled when the index is filled at more than one half.
+	 */
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+
+	/**
+	 * arcs[i] is the arc with key keys[i], null if the slot i is free.
+	 */
+	private Arc[] arcs;
+
+	private int size;
+
+	/**
+	 * 64 - log2(capacity): the slot of a key is given by the highest bits of
+	 * its mixed value.
+	 */
+	private int shift;
+
+	/**
+	 * Build an index which can contain expectedArcs arcs without growing.
+	 *
+	 * @param expectedArcs
+	 */
+	ArcIndex(int expectedArcs) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2 * expectedArcs)
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		arcs = new Arc[capacity];
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
+	}
+
+	private int slot(long key) {
+		return (int) (Arc.mix(key) >>> shift);
+	}
+
+	/**
+	 * @param key
+	 * @return the arc with the key key, null if there is none.
+	 */
+	Arc get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key); arcs[i] != null; i = (i + 1) & mask)
+			if (keys[i] == key)
+				return arcs[i];
+		return null;
+	}
+
+	/**
+	 * Associate the arc a to the key key, replacing the previous arc with that
+	 * key if any.
+	 *
+	 * @param key
+	 * @param a
+	 */
+	void put(long key, Arc a) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		for (; arcs[i] != null; i = (i + 1) & mask)
+			if (keys[i] == key) {
+				arcs[i] = a;
+				return;
+			}
+		keys[i] = key;
+		arcs[i] = a;
+		if (++size > keys.length / 2)
+			grow();
+	}
+
+	/**
+	 * Remove the arc with the key key, if any.
+	 *
+	 * @param key
+	 */
+	void remove(long key) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		for (; arcs[i] != null; i = (i + 1) & mask)
+			if (keys[i] == key)
+				break;
+		if (arcs[i] == null)
+			return;
+		size--;
+
+		// Move back every following entry of the cluster which can no longer
+		// be reached from its slot
+		int free = i;
+		for (i = (i + 1) & mask; arcs[i] != null; i = (i + 1) & mask) {
+			int s = slot(keys[i]);
+			if (((i - s) & mask) >= ((i - free) & mask)) {
+				keys[free] = keys[i];
+				arcs[free] = arcs[i];
+				free = i;
+			}
+		}
+		arcs[free] = null;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		Arc[] oldArcs = arcs;
+		allocate(2 * oldKeys.length);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldArcs[j] == null)
+				continue;
+			int i = slot(oldKeys[j]);
+			while (arcs[i] != null)
+				i = (i + 1) & mask;
+			keys[i] = oldKeys[j];
+			arcs[i] = oldArcs[j];
+		}
+	}
+}
@@ -0,0 +1,483 @@
+package graphTheory.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of the directed part of a
+ * {@link Graph}.
+ * <p>
+ * Each vertex of the snapshotted graph is given a dense id between 0 and
+ * {@link #getNumberOfVertices()} - 1, and each directed arc a dense id between
+ * 0 and {@link #getNumberOfArcs()} - 1. The input and output arcs of every
+ * vertex are stored contiguously in two int arrays, delimited by offset arrays,
+ * so that algorithms can walk the neighbourhood of a vertex without boxing
+ * integers or reading any hash table.
+ * <p>
+ * The dense ids follow the iteration order of the graph at the time of the
+ * snapshot (vertices, then output arcs and input arcs of each vertex). As a
+ * consequence, an algorithm iterating over the snapshot visits the vertices and
+ * the arcs in the same order as an algorithm iterating over the graph itself.
+ * <p>
+ * Undirected edges, virtually removed vertices and virtually removed arcs are
+ * not part of the snapshot.
+ *
+ * @author Watel Dimitri
+ * @see Graph#freeze()
+ */
+public final class CompactDirectedGraph {
+
+	/**
+	 * The nodes of the original graph are dense if they span at most
+	 * DENSE_RANGE_FACTOR times more integers than there are nodes.
+	 */
+	private static final int DENSE_RANGE_FACTOR = 4;
+
+	/**
+	 * For each dense vertex id, the node of the original graph.
+	 */
+	private final int[] vertices;
+
+	/**
+	 * Smallest node of the original graph, used to index {@link #indexes}.
+	 */
+	private final int minNode;
+
+	/**
+	 * If the nodes are dense, for each node n of the original graph,
+	 * indexes[n - minNode] is the dense id of n, or -1 if n is not in the
+	 * snapshot. Null otherwise.
+	 */
+	private final int[] indexes;
+
+	/**
+	 * If the nodes are not dense, hash table with open addressing and linear
+	 * probing associating each node to its dense id: if nodeIds[i] is not -1,
+	 * it is the dense id of the node nodeKeys[i]. Null otherwise.
+	 */
+	private final int[] nodeKeys;
+	private final int[] nodeIds;
+
+	/**
+	 * 64 - log2(nodeKeys.length), see {@link ArcIndex}.
+	 */
+	private final int nodeShift;
+
+	/**
+	 * For each dense arc id, the arc of the original graph.
+	 */
+	private final Arc[] arcs;
+
+	/**
+	 * For each dense arc id, the dense id of its input.
+	 */
+	private final int[] arcInputs;
+
+	/**
+	 * For each dense arc id, the dense id of its output.
+	 */
+	private final int[] arcOutputs;
+
+	/**
+	 * The output arcs of the vertex v are outArcs[outOffsets[v]] to
+	 * outArcs[outOffsets[v+1] - 1].
+	 */
+	private final int[] outOffsets;
+	private final int[] outArcs;
+
+	/**
+	 * Hash table with open addressing and linear probing associating the key
+	 * {@link Arc#key(int, int)} of the extremities of each arc of the original
+	 * graph to its dense id: if arcIds[i] is not -1, it is the dense id of the
+	 * arc with key arcKeys[i].
+	 */
+	private final long[] arcKeys;
+	private final int[] arcIds;
+
+	/**
+	 * 64 - log2(arcKeys.length), see {@link ArcIndex}.
+	 */
+	private final int arcShift;
+
+	/**
+	 * The input arcs of the vertex v are inArcs[inOffsets[v]] to
+	 * inArcs[inOffsets[v+1] - 1].
+	 */
+	private final int[] inOffsets;
+	private final int[] inArcs;
+
+	/**
+	 * Build a snapshot of the current state of the graph g.
+	 *
+	 * @param g
+	 */
+	CompactDirectedGraph(Graph g) {
+		int n = g.getNumberOfVertices();
+		vertices = new int[n];
+
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		int v = 0;
+		Iterator<Integer> it = g.getVerticesIterator();
+		while (it.hasNext()) {
+			int node = it.next();
+			vertices[v++] = node;
+			if (node < min)
+				min = node;
+			if (node > max)
+				max = node;
+		}
+
+		minNode = (n == 0) ? 0 : min;
+		long range = (n == 0) ? 0 : (long) max - min + 1;
+		if (range <= (long) DENSE_RANGE_FACTOR * n) {
+			indexes = new int[(int) range];
+			Arrays.fill(indexes, -1);
+			for (v = 0; v < n; v++)
+				indexes[vertices[v] - minNode] = v;
+			nodeKeys = null;
+			nodeIds = null;
+			nodeShift = 0;
+		}
+		else {
+			indexes = null;
+			int capacity = 16;
+			while (capacity < 2 * n)
+				capacity <<= 1;
+			nodeKeys = new int[capacity];
+			nodeIds = new int[capacity];
+			Arrays.fill(nodeIds, -1);
+			nodeShift = 64 - Integer.numberOfTrailingZeros(capacity);
+			for (v = 0; v < n; v++) {
+				int i = slot(vertices[v]);
+				nodeKeys[i] = vertices[v];
+				nodeIds[i] = v;
+			}
+		}
+
+		// Count the arcs and the degrees
+		outOffsets = new int[n + 1];
+		inOffsets = new int[n + 1];
+		int m = 0;
+		for (v = 0; v < n; v++) {
+			Iterator<Arc> ita = g.getOutputArcsIterator(vertices[v]);
+			while (ita.hasNext()) {
+				ita.next();
+				m++;
+			}
+			outOffsets[v + 1] = m;
+		}
+
+		arcs = new Arc[m];
+		arcInputs = new int[m];
+		arcOutputs = new int[m];
+		outArcs = new int[m];
+		inArcs = new int[m];
+
+		// Arc ids follow the output iteration order, so outArcs is the identity
+		int a = 0;
+		int[] inDegrees = new int[n];
+		for (v = 0; v < n; v++) {
+			Iterator<Arc> ita = g.getOutputArcsIterator(vertices[v]);
+			while (ita.hasNext()) {
+				Arc arc = ita.next();
+				int w = getIndex(arc.getOutput().intValue());
+				arcs[a] = arc;
+				arcInputs[a] = v;
+				arcOutputs[a] = w;
+				outArcs[a] = a;
+				inDegrees[w]++;
+				a++;
+			}
+		}
+
+		int capacity = 16;
+		while (capacity < 2 * m)
+			capacity <<= 1;
+		arcKeys = new long[capacity];
+		arcIds = new int[capacity];
+		Arrays.fill(arcIds, -1);
+		arcShift = 64 - Integer.numberOfTrailingZeros(capacity);
+		for (a = 0; a < m; a++) {
+			long key = Arc.key(vertices[arcInputs[a]], vertices[arcOutputs[a]]);
+			int i = arcSlot(key);
+			arcKeys[i] = key;
+			arcIds[i] = a;
+		}
+
+		for (v = 0; v < n; v++)
+			inOffsets[v + 1] = inOffsets[v] + inDegrees[v];
+
+		// Fill the input arcs following the input iteration order of the graph
+		for (v = 0; v < n; v++) {
+			int pos = inOffsets[v];
+			Iterator<Arc> ita = g.getInputArcsIterator(vertices[v]);
+			while (ita.hasNext()) {
+				Arc arc = ita.next();
+				inArcs[pos++] = getArcIndex(getIndex(arc.getInput().intValue()), v);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of vertices of this snapshot.
+	 */
+	public int getNumberOfVertices() {
+		return vertices.length;
+	}
+
+	/**
+	 * @return the number of arcs of this snapshot.
+	 */
+	public int getNumberOfArcs() {
+		return arcs.length;
+	}
+
+	/**
+	 * @param v
+	 * @return the node of the original graph with dense id v.
+	 */
+	public int getVertex(int v) {
+		return vertices[v];
+	}
+
+	/**
+	 * @param node
+	 * @return the dense id of the node of the original graph, or -1 if it is
+	 *         not in this snapshot.
+	 */
+	public int getIndex(Integer node) {
+		if (node == null)
+			return -1;
+		return getIndex(node.intValue());
+	}
+
+	/**
+	 * @param node
+	 * @return the dense id of the node of the original graph, or -1 if it is
+	 *         not in this snapshot.
+	 */
+	public int getIndex(int node) {
+		if (indexes == null)
+			return nodeIds[slot(node)];
+		long i = (long) node - minNode;
+		if (i < 0 || i >= indexes.length)
+			return -1;
+		return indexes[(int) i];
+	}
+
+	/**
+	 * @param node
+	 * @return the slot of node in {@link #nodeKeys}, or the free slot where it
+	 *         should be inserted.
+	 */
+	private int slot(int node) {
+		int mask = nodeKeys.length - 1;
+		int i = (int) (Arc.mix(node) >>> nodeShift);
+		while (nodeIds[i] != -1 && nodeKeys[i] != node)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	/**
+	 * @param a
+	 * @return the arc of the original graph with dense id a.
+	 */
+	public Arc getArc(int a) {
+		return arcs[a];
+	}
+
+	/**
+	 * O(1)
+	 *
+	 * @param a
+	 * @return the dense id of the arc a of the original graph, or -1 if it is
+	 *         not in this snapshot.
+	 */
+	public int getArcIndex(Arc a) {
+		if (a == null || !a.isDirected())
+			return -1;
+		return arcIds[arcSlot(Arc.key(a.getInput(), a.getOutput()))];
+	}
+
+	/**
+	 * O(1)
+	 *
+	 * @param u
+	 * @param v
+	 * @return the dense id of the arc linking the vertex with dense id u to the
+	 *         vertex with dense id v, or -1 if there is no such arc.
+	 */
+	public int getArcIndex(int u, int v) {
+		if (u < 0 || v < 0)
+			return -1;
+		return arcIds[arcSlot(Arc.key(vertices[u], vertices[v]))];
+	}
+
+	/**
+	 * @param key
+	 * @return the slot of the arc with key key in {@link #arcKeys}, or the
+	 *         free slot where it should be inserted.
+	 */
+	private int arcSlot(long key) {
+		int mask = arcKeys.length - 1;
+		int i = (int) (Arc.mix(key) >>> arcShift);
+		while (arcIds[i] != -1 && arcKeys[i] != key)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	/**
+	 * @param a
+	 * @return the dense id of the input of the arc with dense id a.
+	 */
+	public int getInput(int a) {
+		return arcInputs[a];
+	}
+
+	/**
+	 * @param a
+	 * @return the dense id of the output of the arc with dense id a.
+	 */
+	public int getOutput(int a) {
+		return arcOutputs[a];
+	}
+
+	/**
+	 * @param v
+	 * @return the number of arcs outgoing from the vertex with dense id v.
+	 */
+	public int getOutputSize(int v) {
+		return outOffsets[v + 1] - outOffsets[v];
+	}
+
+	/**
+	 * @param v
+	 * @return the number of arcs entering the vertex with dense id v.
+	 */
+	public int getInputSize(int v) {
+		return inOffsets[v + 1] - inOffsets[v];
+	}
+
+	/**
+	 * @param v
+	 * @return the position in {@link #getOutputArc(int)} of the first arc
+	 *         outgoing from v.
+	 */
+	public int getOutputBegin(int v) {
+		return outOffsets[v];
+	}
+
+	/**
+	 * @param v
+	 * @return the position in {@link #getOutputArc(int)} after the last arc
+	 *         outgoing from v.
+	 */
+	public int getOutputEnd(int v) {
+		return outOffsets[v + 1];
+	}
+
+	/**
+	 * @param i
+	 * @return the dense id of the arc at position i in the output arcs array.
+	 * @see #getOutputBegin(int)
+	 * @see #getOutputEnd(int)
+	 */
+	public int getOutputArc(int i) {
+		return outArcs[i];
+	}
+
+	/**
+	 * @param v
+	 * @return the position in {@link #getInputArc(int)} of the first arc
+	 *         entering v.
+	 */
+	public int getInputBegin(int v) {
+		return inOffsets[v];
+	}
+
+	/**
+	 * @param v
+	 * @return the position in {@link #getInputArc(int)} after the last arc
+	 *         entering v.
+	 */
+	public int getInputEnd(int v) {
+		return inOffsets[v + 1];
+	}
+
+	/**
+	 * @param i
+	 * @return the dense id of the arc at position i in the input arcs array.
+	 * @see #getInputBegin(int)
+	 * @see #getInputEnd(int)
+	 */
+	public int getInputArc(int i) {
+		return inArcs[i];
+	}
+
+	/**
+	 * Apply the consumer to each output arc of the vertex v, with the dense
+	 * ids of the arc and of its extremities.
+	 *
+	 * @param v
+	 * @param consumer
+	 */
+	public void forEachOutputArc(int v, IntArcConsumer consumer) {
+		for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+			int a = outArcs[i];
+			consumer.accept(a, v, arcOutputs[a]);
+		}
+	}
+
+	/**
+	 * Apply the consumer to each input arc of the vertex v, with the dense
+	 * ids of the arc and of its extremities.
+	 *
+	 * @param v
+	 * @param consumer
+	 */
+	public void forEachInputArc(int v, IntArcConsumer consumer) {
+		for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+			int a = inArcs[i];
+			consumer.accept(a, arcInputs[a], v);
+		}
+	}
+
+	/**
+	 * @return a new cursor over the neighbourhoods of the vertices of this
+	 *         snapshot.
+	 */
+	public ArcCursor cursor() {
+		return new ArcCursor(this);
+	}
+
+	/**
+	 * O(number of vertices + number of arcs)
+	 * <p>
+	 * Search, with one breadth first search, every vertex reachable from the
+	 * vertex source with a directed path.
+	 *
+	 * @param source
+	 * @return the set of the dense ids of the vertices reachable from the
+	 *         vertex with dense id source, source included.
+	 */
+	public BitSet getReachableVertices(int source) {
+		int n = vertices.length;
+		BitSet visited = new BitSet(n);
+		int[] queue = new int[n];
+		int head = 0, tail = 0;
+		visited.set(source);
+		queue[tail++] = source;
+		while (head < tail) {
+			int u = queue[head++];
+			for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++) {
+				int v = arcOutputs[outArcs[i]];
+				if (!visited.get(v)) {
+					visited.set(v);
+					queue[tail++] = v;
+				}
+			}
+		}
+		return visited;
+	}
+}
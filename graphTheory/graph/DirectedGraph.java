@@ -8,6 +8,19 @@ package graphTheory.graph;
  */
 public class DirectedGraph extends Graph {
 
+	public DirectedGraph() {
+		super();
+	}
+
+	/**
+	 * @param expectedVertices
+	 * @param expectedArcs
+	 * @see Graph#Graph(int, int)
+	 */
+	public DirectedGraph(int expectedVertices, int expectedArcs) {
+		super(expectedVertices, expectedArcs);
+	}
+
 	public Arc addUndirectedEdge(Integer input, Integer output) {
 		return null;
 	}
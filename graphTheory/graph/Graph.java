@@ -1,9 +1,8 @@
 package graphTheory.graph;
 
-import graphTheory.graphDrawer.symbols.*;
+import graphTheory.graphDrawer.GraphStyle;
 import graphTheory.utils.*;
 
-import java.awt.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -47,31 +46,58 @@ public class Graph implements Parametable {
 	 */
 	protected Map<Integer, Triplet<Set<Arc>, Set<Arc>, Set<Arc>>> links;
 
+	/**
+	 * Last snapshot returned by {@link #freeze()}, null if this graph was
+	 * modified since.
+	 */
+	private CompactDirectedGraph snapshot;
+
+	/**
+	 * The directed arcs of this, including the virtually removed ones, indexed
+	 * by their endpoints.
+	 */
+	private ArcIndex directedArcs;
+
 	/**
 	 * This constructor build an empty graph.
 	 */
 	public Graph() {
-		vertices = new HashSet<Integer>();
-		edges = new HashSet<Arc>();
+		this(0, 0);
+	}
+
+	/**
+	 * This constructor build an empty graph, which can then contain
+	 * expectedVertices vertices and expectedEdges edges and arcs without
+	 * rehashing its sets.
+	 * <p>
+	 * The sets get the capacity they would reach by growing from the default
+	 * one: once filled, they are iterated in the same order.
+	 * </p>
+	 * 
+	 * @param expectedVertices
+	 * @param expectedEdges
+	 */
+	public Graph(int expectedVertices, int expectedEdges) {
+		vertices = new HashSet<Integer>(initialCapacity(expectedVertices));
+		edges = new HashSet<Arc>(initialCapacity(expectedEdges));
+		directedArcs = new ArcIndex(expectedEdges);
 		params = new HashMap<String, Object>();
 
 		vrmVertices = new HashSet<Integer>();
 		vrmEdges = new HashSet<Arc>();
 
-		links = new HashMap<Integer, Triplet<Set<Arc>, Set<Arc>, Set<Arc>>>();
+		links = new HashMap<Integer, Triplet<Set<Arc>, Set<Arc>, Set<Arc>>>(
+				initialCapacity(expectedVertices));
+	}
 
-		// Graph drawer fields
-		this.nodeAbscissa = new HashMap<Integer, Integer>();
-		this.nodeOrdinate = new HashMap<Integer, Integer>();
-		this.drawnNodes = new HashMap<Integer, Boolean>();
-		this.nodeColors = new HashMap<Integer, Color>();
-		this.nodeFill = new HashMap<Integer, Boolean>();
-		this.nodeSymbols = new HashMap<Integer, NodeSymbol>();
-		this.nodeTextColor = new HashMap<Integer, Color>();
-		this.drawnArcs = new HashMap<Arc, Boolean>();
-		this.arcSymbols = new HashMap<Arc, ArcSymbol>();
-		this.arcOutputSymbols = new HashMap<Arc, ArcArrowSymbol>();
-		this.arcColors = new HashMap<Arc, Color>();
+	/**
+	 * @param expectedSize
+	 * @return the initial capacity of a hash set or map with the default load
+	 *         factor, which can contain expectedSize elements without
+	 *         rehashing, and never less than the default capacity.
+	 */
+	public static int initialCapacity(int expectedSize) {
+		return Math.max(16, (int) Math.ceil(expectedSize / 0.75));
 	}
 
 	/*
@@ -196,6 +222,171 @@ public class Graph implements Parametable {
 		return edges.contains(a) && !hasVirtuallyRemoved(a);
 	}
 
+	/*
+	 * --------------------------------------------- Live views
+	 * ---------------------------------------------
+	 */
+
+	/**
+	 * O(1)
+	 * 
+	 * @return An unmodifiable view of the nodes of this, excluding the
+	 *         virtually removed vertices. The view reflects the later
+	 *         modifications of this, and nothing is copied.
+	 * @see #getVertices()
+	 */
+	public Set<Integer> getVerticesView() {
+		return Collections.unmodifiableSet(new View<Integer>(vertices,
+				n -> !Graph.this.hasVirtuallyRemoved(n)));
+	}
+
+	/**
+	 * O(1)
+	 * 
+	 * @return An unmodifiable view of the edges and arcs of this, excluding the
+	 *         virtually removed arcs and edges. The view reflects the later
+	 *         modifications of this, and nothing is copied.
+	 * @see #getEdges()
+	 */
+	public Set<Arc> getEdgesView() {
+		return arcsView(edges);
+	}
+
+	/**
+	 * O(1)
+	 * 
+	 * @param n
+	 * @return An unmodifiable view of the directed arcs entering n in this,
+	 *         null if n does not belong to this graph, or is virtually
+	 *         removed.
+	 * @see #getInputArcs(Integer)
+	 */
+	public Set<Arc> getInputArcsView(Integer n) {
+		Set<Arc> l = getInputs(n);
+		return (l == null) ? null : arcsView(l);
+	}
+
+	/**
+	 * O(1)
+	 * 
+	 * @param n
+	 * @return An unmodifiable view of the directed arcs outgoing from n in
+	 *         this, null if n does not belong to this graph, or is virtually
+	 *         removed.
+	 * @see #getOutputArcs(Integer)
+	 */
+	public Set<Arc> getOutputArcsView(Integer n) {
+		Set<Arc> l = getOutputs(n);
+		return (l == null) ? null : arcsView(l);
+	}
+
+	/**
+	 * O(1)
+	 * 
+	 * @param n
+	 * @return An unmodifiable view of the undirected edges linked to n in this,
+	 *         null if n does not belong to this graph, or is virtually
+	 *         removed.
+	 * @see #getUndirectedNeighbourEdges(Integer)
+	 */
+	public Set<Arc> getUndirectedNeighbourEdgesView(Integer n) {
+		Set<Arc> l = getUndirectedNeighours(n);
+		return (l == null) ? null : arcsView(l);
+	}
+
+	private Set<Arc> arcsView(Set<Arc> arcs) {
+		return Collections.unmodifiableSet(new View<Arc>(arcs,
+				a -> !Graph.this.hasVirtuallyRemoved(a)));
+	}
+
+	/**
+	 * @return true if a vertex, an arc or an edge is virtually removed from
+	 *         this.
+	 */
+	private boolean hasVirtuallyRemovedElements() {
+		return !vrmVertices.isEmpty() || !vrmEdges.isEmpty();
+	}
+
+	/**
+	 * Set of the elements of a set of this graph which are not virtually
+	 * removed. As long as nothing is virtually removed from the graph, the
+	 * view reads the set directly.
+	 */
+	private final class View<T> extends AbstractSet<T> {
+
+		private final Set<T> source;
+		private final Foncteur<T, Boolean> isVisible;
+
+		private View(Set<T> source, Foncteur<T, Boolean> isVisible) {
+			this.source = source;
+			this.isVisible = isVisible;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			if (!hasVirtuallyRemovedElements())
+				return source.iterator();
+			return new PartialIterator<T>(source, isVisible);
+		}
+
+		@Override
+		public int size() {
+			if (!hasVirtuallyRemovedElements())
+				return source.size();
+			int s = 0;
+			for (T t : source)
+				if (isVisible.apply(t))
+					s++;
+			return s;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o) {
+			return source.contains(o) && isVisible.apply((T) o);
+		}
+	}
+
+	/**
+	 * Apply the consumer to each directed arc outgoing from the node n, with
+	 * the dense id of the arc in {@link #freeze()} and the nodes of its
+	 * extremities. Nothing is allocated, unless this graph was modified since
+	 * the last snapshot.
+	 * 
+	 * @param n
+	 * @param consumer
+	 */
+	public void forEachOutputArc(int n, IntArcConsumer consumer) {
+		CompactDirectedGraph g = freeze();
+		int v = g.getIndex(n);
+		if (v == -1)
+			return;
+		for (int i = g.getOutputBegin(v); i < g.getOutputEnd(v); i++) {
+			int a = g.getOutputArc(i);
+			consumer.accept(a, n, g.getVertex(g.getOutput(a)));
+		}
+	}
+
+	/**
+	 * Apply the consumer to each directed arc entering the node n, with the
+	 * dense id of the arc in {@link #freeze()} and the nodes of its
+	 * extremities. Nothing is allocated, unless this graph was modified since
+	 * the last snapshot.
+	 * 
+	 * @param n
+	 * @param consumer
+	 */
+	public void forEachInputArc(int n, IntArcConsumer consumer) {
+		CompactDirectedGraph g = freeze();
+		int v = g.getIndex(n);
+		if (v == -1)
+			return;
+		for (int i = g.getInputBegin(v); i < g.getInputEnd(v); i++) {
+			int a = g.getInputArc(i);
+			consumer.accept(a, g.getVertex(g.getInput(a)), n);
+		}
+	}
+
 	/*
 	 * --------------------------------------------- Iterate on the vertices and
 	 * the edges ---------------------------------------------
@@ -275,6 +466,8 @@ public class Graph implements Parametable {
 	}
 
 	/**
+	 * O(1)
+	 * 
 	 * Return the (input,output) directed arc in this. If more than one arc link
 	 * those nodes, there is no mean to know which one is returned. If there is
 	 * no arc, null is returned.
@@ -285,23 +478,13 @@ public class Graph implements Parametable {
 	 *         or n2 does not belong to this, or are virtually removed.
 	 */
 	public Arc getDirectedArcLinking(Integer input, Integer output) {
-		Set<Arc> inputOutputs = getOutputs(input);
-		if (inputOutputs == null)
+		if (input == null || output == null)
 			return null;
-		int ioSize = inputOutputs.size();
-
-		Set<Arc> outputInputs = getInputs(output);
-		if (outputInputs == null)
+		Arc a = directedArcs.get(Arc.key(input, output));
+		if (a == null || hasVirtuallyRemoved(input)
+				|| hasVirtuallyRemoved(output))
 			return null;
-		int oiSize = outputInputs.size();
-
-		Set<Arc> searchList = (ioSize < oiSize) ? inputOutputs : outputInputs;
-		for (Arc a : searchList) {
-			if (a.getInput().equals(input) && a.getOutput().equals(output))
-				return a;
-		}
-
-		return null;
+		return a;
 	}
 
 	/**
@@ -452,7 +635,7 @@ public class Graph implements Parametable {
 	 *         to this graph, or is virtually removed.
 	 */
 	public Integer getInputSize(Integer n) {
-		Set<Arc> l = getHashSetInputArcs(n);
+		Set<Arc> l = getInputArcsView(n);
 		if (l == null)
 			return null;
 		return l.size();
@@ -601,7 +784,7 @@ public class Graph implements Parametable {
 	 *         belong to this graph, or is virtually removed.
 	 */
 	public Integer getOutputSize(Integer n) {
-		Set<Arc> l = getHashSetOutputArcs(n);
+		Set<Arc> l = getOutputArcsView(n);
 		if (l == null)
 			return null;
 		return l.size();
@@ -751,7 +934,7 @@ public class Graph implements Parametable {
 	 *         does not belong to this graph, or is virtually removed.
 	 */
 	public Integer getUndirectedNeighbourSize(Integer n) {
-		Set<Arc> l = getHashSetUndirectedNeighbourEdges(n);
+		Set<Arc> l = getUndirectedNeighbourEdgesView(n);
 		if (l == null)
 			return null;
 		return l.size();
@@ -920,6 +1103,7 @@ public class Graph implements Parametable {
 		Triplet<Set<Arc>, Set<Arc>, Set<Arc>> nodeLinks = new Triplet<Set<Arc>, Set<Arc>, Set<Arc>>(
 				new HashSet<Arc>(), new HashSet<Arc>(), new HashSet<Arc>());
 		links.put(node, nodeLinks);
+		snapshot = null;
 		return vertices.add(node);
 
 	}
@@ -939,6 +1123,7 @@ public class Graph implements Parametable {
 		this.getAllNeighbourEdges(node).forEach(this::removeEdge);
 
 		links.remove(node);
+		snapshot = null;
 		return vertices.remove(node);
 	}
 
@@ -982,6 +1167,48 @@ public class Graph implements Parametable {
 		return l;
 	}
 
+	/**
+	 * Add the directed arcs (inputs[i], outputs[i]) to this, in the order of
+	 * the arrays, and return them. Contrary to
+	 * {@link #addDirectedEdge(Integer, Integer)}, the arcs are not linked to
+	 * their nodes in that order: they are added to the outputs of their input
+	 * in the order of outputOrder, and to the inputs of their output in the
+	 * order of inputOrder, both being permutations of the indexes of the
+	 * arrays. <br/>
+	 * This rebuilds a graph whose arcs, output arcs and input arcs are iterated
+	 * in recorded orders, as inserting the elements of a hash set in its
+	 * iteration order in a new set gives the same iteration order.
+	 *
+	 * @param inputs
+	 * @param outputs
+	 * @param outputOrder
+	 * @param inputOrder
+	 * @return the added arcs. The i-th arc is null if inputs[i] or outputs[i]
+	 *         does not belong to this or if the arc already belongs to this.
+	 */
+	public Arc[] addOrderedDirectedEdges(int[] inputs, int[] outputs,
+			int[] outputOrder, int[] inputOrder) {
+		Arc[] arcs = new Arc[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			if (!this.contains(inputs[i]) || !this.contains(outputs[i]))
+				continue;
+			Arc a = new Arc(inputs[i], outputs[i], true);
+			if (edges.add(a)) {
+				arcs[i] = a;
+				directedArcs.put(Arc.key(inputs[i], outputs[i]), a);
+			}
+		}
+		snapshot = null;
+
+		for (int i : outputOrder)
+			if (arcs[i] != null)
+				getOutputs(arcs[i].getInput()).add(arcs[i]);
+		for (int i : inputOrder)
+			if (arcs[i] != null)
+				getInputs(arcs[i].getOutput()).add(arcs[i]);
+		return arcs;
+	}
+
 	/**
 	 * Remove every directed arc (input, output) in this. Do nothing if input or
 	 * output does not belong to this. <br/>
@@ -1067,8 +1294,10 @@ public class Graph implements Parametable {
 	public boolean removeEdge(Arc a) {
 		if (this.hasVirtuallyRemoved(a) || !edges.remove(a)) // true if a == null
 			return false;
+		snapshot = null;
 
 		if (a.isDirected()) {
+			directedArcs.remove(Arc.key(a.getInput(), a.getOutput()));
 			getOutputs(a.getInput()).remove(a);
 			getInputs(a.getOutput()).remove(a);
 		} else {
@@ -1098,8 +1327,10 @@ public class Graph implements Parametable {
 		Arc a = new Arc(n1, n2, directed);
 		if (!edges.add(a))
 			return null;
+		snapshot = null;
 
 		if (directed) {
+			directedArcs.put(Arc.key(n1, n2), a);
 			getOutputs(n1).add(a);
 			getInputs(n2).add(a);
 		} else {
@@ -1158,7 +1389,10 @@ public class Graph implements Parametable {
 	 * @see #cancelVirtuallyRemoveVertice(Integer)
 	 */
 	public boolean virtuallyRemoveVertice(Integer n) {
-		return !(n == null || !this.contains(n)) && vrmVertices.add(n);
+		if (n == null || !this.contains(n) || !vrmVertices.add(n))
+			return false;
+		snapshot = null;
+		return true;
 	}
 
 	/**
@@ -1170,7 +1404,10 @@ public class Graph implements Parametable {
 	 *         {@link #virtuallyRemoveVertice(Integer)}
 	 */
 	public boolean cancelVirtuallyRemoveVertice(Integer n) {
-		return n != null && vrmVertices.remove(n);
+		if (n == null || !vrmVertices.remove(n))
+			return false;
+		snapshot = null;
+		return true;
 	}
 
 	/**
@@ -1207,7 +1444,10 @@ public class Graph implements Parametable {
 	 *         removed. {@link #cancelVirtuallyRemoveEdge(Arc)}
 	 */
 	public boolean virtuallyRemoveEdge(Arc a) {
-		return !(a == null || !this.contains(a)) && vrmEdges.add(a);
+		if (a == null || !this.contains(a) || !vrmEdges.add(a))
+			return false;
+		snapshot = null;
+		return true;
 	}
 
 	/**
@@ -1220,8 +1460,11 @@ public class Graph implements Parametable {
 	 *         ends it virtually removed. {@link #virtuallyRemoveEdge(Arc)}
 	 */
 	public boolean cancelVirtuallyRemoveEdge(Arc a) {
-		return !(a == null || this.hasVirtuallyRemoved(a.getInput())
-				|| this.hasVirtuallyRemoved(a.getOutput())) && vrmEdges.remove(a);
+		if (a == null || this.hasVirtuallyRemoved(a.getInput())
+				|| this.hasVirtuallyRemoved(a.getOutput()) || !vrmEdges.remove(a))
+			return false;
+		snapshot = null;
+		return true;
 	}
 
 	/**
@@ -1277,6 +1520,29 @@ public class Graph implements Parametable {
 		return s.toString();
 	}
 
+	/*
+	 * --------------------------------------------- Compact snapshot
+	 * ---------------------------------------------
+	 */
+
+	/**
+	 * O(|Number of nodes| + |Number of arcs|) the first time, O(1) until this
+	 * graph is modified.
+	 * <p>
+	 * Return an immutable compressed sparse row snapshot of the directed arcs
+	 * of this, excluding the virtually removed vertices and arcs. Algorithms
+	 * can request it to work with dense int ids instead of boxed nodes and hash
+	 * tables. The snapshot is cached: it is built again only if a vertex or an
+	 * arc was added, removed or virtually removed since the last call.
+	 *
+	 * @return a compact snapshot of the directed part of this.
+	 */
+	public CompactDirectedGraph freeze() {
+		if (snapshot == null)
+			snapshot = new CompactDirectedGraph(this);
+		return snapshot;
+	}
+
 	/*
 	 * --------------------------------------------- Connected components
 	 * ---------------------------------------------
@@ -1360,6 +1626,55 @@ public class Graph implements Parametable {
 		return areConnected(n1, n2, false, true);
 	}
 
+	/**
+	 * O(|Number of nodes| + |Number of arcs|)
+	 * <p>
+	 * Return every node n such that a directed path from source to n exists in
+	 * this, with one search over {@link #freeze()}, instead of one search per
+	 * node with {@link #areConnectedByDirectedPath(Integer, Integer)}.
+	 *
+	 * @param source
+	 * @return the nodes reachable from source with a directed path, source
+	 *         included, or an empty set if source does not belong to this.
+	 */
+	public HashSet<Integer> getVerticesReachableByDirectedPath(Integer source) {
+		CompactDirectedGraph g = freeze();
+		HashSet<Integer> reachable = new HashSet<Integer>();
+		int s = g.getIndex(source);
+		if (s == -1)
+			return reachable;
+		BitSet visited = g.getReachableVertices(s);
+		for (int v = visited.nextSetBit(0); v >= 0; v = visited.nextSetBit(v + 1))
+			reachable.add(g.getVertex(v));
+		return reachable;
+	}
+
+	/**
+	 * O(|Number of nodes| + |Number of arcs| + |targets|)
+	 * <p>
+	 * Return the nodes of targets n such that
+	 * {@link #areConnectedByDirectedPath(Integer, Integer)} returns false for
+	 * source and n, with one search over {@link #freeze()}.
+	 *
+	 * @param source
+	 * @param targets
+	 * @return the nodes of targets not reachable from source with a directed
+	 *         path, in the iteration order of targets.
+	 */
+	public ArrayList<Integer> getVerticesUnreachableByDirectedPath(Integer source,
+			Collection<Integer> targets) {
+		CompactDirectedGraph g = freeze();
+		int s = g.getIndex(source);
+		BitSet visited = (s == -1) ? new BitSet() : g.getReachableVertices(s);
+		ArrayList<Integer> unreachable = new ArrayList<Integer>();
+		for (Integer n : targets) {
+			int v = g.getIndex(n);
+			if (v == -1 || !visited.get(v))
+				unreachable.add(n);
+		}
+		return unreachable;
+	}
+
 	/**
 	 * Return true if a path connecting n1 and n2 exists in this. This path can
 	 * use directed and undirected edges.
@@ -1812,7 +2127,8 @@ public class Graph implements Parametable {
 				n2 = a.getOutput();
 				if (nodes.contains(n1) && nodes.contains(n2)) {
 					Arc b = g.addArc(n1, n2, a.isDirected());
-					g.copyParams(this, a, b);
+					if (style != null && style.definesParams(a))
+						g.getStyle().copyParams(style, a, b);
 				}
 			}
 
@@ -1852,7 +2168,8 @@ public class Graph implements Parametable {
 					g.addVertice(n1);
 					g.addVertice(n2);
 					b = g.addArc(n1, n2, a.isDirected());
-					g.copyParams(this, a, b);
+					if (style != null && style.definesParams(a))
+						g.getStyle().copyParams(style, a, b);
 				}
 			}
 		} catch (InstantiationException | IllegalAccessException e) {
@@ -1941,29 +2258,33 @@ public class Graph implements Parametable {
 
 	// Node informations
 
-	private HashMap<Integer, Integer> nodeAbscissa;
-	private HashMap<Integer, Integer> nodeOrdinate;
+	/**
+	 * Coordinates of the nodes, null until a coordinate is defined.
+	 */
+	private NodeCoordinates coordinates;
 
 	public int getNodeAbscissa(Integer n) {
-		Integer x = nodeAbscissa.get(n);
-		if (x == null)
-			x = 0;
-		return x;
+		if (coordinates == null || n == null)
+			return 0;
+		return coordinates.getAbscissa(n);
 	}
 
 	public void setNodeAbscissa(Integer n, int x) {
-		this.nodeAbscissa.put(n, x);
+		if (coordinates == null)
+			coordinates = new NodeCoordinates();
+		coordinates.setAbscissa(n, x);
 	}
 
 	public int getNodeOrdinate(Integer n) {
-		Integer y = nodeOrdinate.get(n);
-		if (y == null)
-			y = 0;
-		return y;
+		if (coordinates == null || n == null)
+			return 0;
+		return coordinates.getOrdinate(n);
 	}
 
 	public void setNodeOrdinate(Integer n, int y) {
-		this.nodeOrdinate.put(n, y);
+		if (coordinates == null)
+			coordinates = new NodeCoordinates();
+		coordinates.setOrdinate(n, y);
 	}
 
 	public void setNodeCoordinates(Integer n, int x, int y) {
@@ -1971,279 +2292,28 @@ public class Graph implements Parametable {
 		setNodeOrdinate(n, y);
 	}
 
-	private HashMap<Integer, Boolean> drawnNodes;
-
-	public Boolean isDrawn(Integer n) {
-		Boolean b = drawnNodes.get(n);
-		if (b == null)
-			b = true;
-		return b;
-	}
-
-	public void setDrawn(Integer n, Boolean toDraw) {
-		drawnNodes.put(n, toDraw);
-	}
-
-	private HashMap<Integer, NodeSymbol> nodeSymbols;
-
-	public NodeSymbol getNodeSymbol(Integer n) {
-		NodeSymbol s = nodeSymbols.get(n);
-		if (s == null) {
-			s = new NodeCircleSymbol();
-			nodeSymbols.put(n, s);
-		}
-		return s;
-	}
-
-	public boolean isCircleSymbol(Integer n) {
-		return getNodeSymbol(n).isCircle();
-	}
-
-	public boolean isSquareSymbol(Integer n) {
-		return getNodeSymbol(n).isSquare();
-	}
-
-	public int getSideLength(Integer n) {
-		if (isSquareSymbol(n))
-			return ((NodeSquareSymbol) getNodeSymbol(n)).getSideLength();
-		else
-			return 0;
-	}
-
-	public int getRadius(Integer n) {
-		if (isSquareSymbol(n))
-			return ((NodeSquareSymbol) getNodeSymbol(n)).getSideLength() / 2;
-		else
-			return ((NodeCircleSymbol) getNodeSymbol(n)).getRadius();
-	}
-
-	public void setSquareSymbol(Integer n) {
-		NodeSquareSymbol symb = new NodeSquareSymbol();
-		nodeSymbols.put(n, symb);
-	}
-
-	public void setSideLength(Integer n, int sideLength) {
-		if (isSquareSymbol(n))
-			((NodeSquareSymbol) nodeSymbols.get(n)).setSideLength(sideLength);
-	}
-
-	public void setSquareSymbol(Integer n, int sideLength) {
-		NodeSquareSymbol symb = new NodeSquareSymbol();
-		symb.setSideLength(sideLength);
-		nodeSymbols.put(n, symb);
-	}
-
-	public void setCircleSymbol(Integer n) {
-		NodeCircleSymbol symb = new NodeCircleSymbol();
-		nodeSymbols.put(n, symb);
-	}
-
-	public void setRadius(Integer n, int radius) {
-		if (isCircleSymbol(n))
-			((NodeCircleSymbol) nodeSymbols.get(n)).setRadius(radius);
-	}
-
-	public void setCircleSymbol(Integer n, int radius) {
-		NodeCircleSymbol symb = new NodeCircleSymbol();
-		symb.setRadius(radius);
-		nodeSymbols.put(n, symb);
-	}
-
-	private HashMap<Integer, Color> nodeColors;
-
-	public Color getColor(Integer n) {
-		Color c = nodeColors.get(n);
-		if (c == null)
-			c = Color.BLACK;
-		return c;
-	}
-
-	public void setColor(Integer n, Color color) {
-		nodeColors.put(n, color);
-	}
-
-	private HashMap<Integer, Boolean> nodeFill;
-
-	public boolean isFill(Integer n) {
-		Boolean b = nodeFill.get(n);
-		if (b == null)
-			b = false;
-		return b;
-	}
-
-	public void setFill(Integer n, boolean fill) {
-		nodeFill.put(n, fill);
-	}
-
-	private HashMap<Integer, Color> nodeTextColor; // default : black
-
-	public Color getTextColor(Integer n) {
-		Color c = nodeTextColor.get(n);
-		if (c == null)
-			c = Color.black;
-		return c;
-	}
-
-	public void setTextColor(Integer n, Color textColor) {
-		nodeTextColor.put(n, textColor);
-	}
-
 	/**
-	 * Copy the parameters of the node n into the copy node cp
+	 * Drawing attributes of the nodes and the arcs, null until
+	 * {@link #getStyle()} is called.
 	 */
-	public void copyParams(Graph g, Integer n, Integer cp) {
-		this.setColor(cp, g.getColor(n));
-		this.setTextColor(cp, g.getTextColor(n));
-		this.setNodeAbscissa(cp, g.getNodeAbscissa(n));
-		this.setNodeOrdinate(cp, g.getNodeOrdinate(n));
-		this.setFill(cp, g.isFill(n));
-
-		if (g.isCircleSymbol(n))
-			this.setCircleSymbol(cp, g.getRadius(n));
-		else if (g.isSquareSymbol(n))
-			this.setSquareSymbol(cp, g.getRadius(n) * 2);
-	}
-
-	// --------------------------------------
-	// Arc informations
-
-	private HashMap<Arc, Boolean> drawnArcs;
-
-	public Boolean isDrawn(Arc a) {
-		Boolean b = drawnArcs.get(a);
-		if (b == null)
-			b = true;
-		return b;
-	}
-
-	public void setDrawn(Arc a, Boolean toDraw) {
-		drawnArcs.put(a, toDraw);
-	}
-
-	private HashMap<Arc, ArcSymbol> arcSymbols;
-
-	public void setSymbolLine(Arc a) {
-		arcSymbols.put(a, new ArcLineSymbol());
-	}
-
-	public void setSymbolCircleArc1(Arc a, double startAngle) {
-		ArcCircleStartAngleSymbol symbol = new ArcCircleStartAngleSymbol();
-		symbol.setStartAngle(startAngle);
-		arcSymbols.put(a, symbol);
-	}
-
-	public double getStartAngle(Arc a) {
-		if (this.isCircleStartAngleSymbol(a)) {
-			ArcSymbol symbol = arcSymbols.get(a);
-			return ((ArcCircleStartAngleSymbol) symbol).getStartAngle();
-		}
-		return 0D;
-	}
-
-	public void setSymbolCircleArc2(Arc a, double middleDistance) {
-		ArcCircleMiddleDistanceSymbol symbol = new ArcCircleMiddleDistanceSymbol();
-		symbol.setMiddleDistance(middleDistance);
-		arcSymbols.put(a, symbol);
-	}
-
-	public double getMiddleDistance(Arc a) {
-		if (this.isCircleMiddleDistanceSymbol(a)) {
-			ArcSymbol symbol = arcSymbols.get(a);
-			return ((ArcCircleMiddleDistanceSymbol) symbol).getMiddleDistance();
-		}
-		return 0D;
-	}
-
-	public ArcSymbol getArcSymbol(Arc a) {
-		ArcSymbol s = arcSymbols.get(a);
-		if (s == null) {
-			s = new ArcLineSymbol();
-			arcSymbols.put(a, s);
-		}
-		return s;
-	}
-
-	public boolean isLineSymbol(Arc a) {
-		return getArcSymbol(a).isLineSymbol();
-	}
+	private GraphStyle style;
 
-	public boolean isCircleStartAngleSymbol(Arc a) {
-		return getArcSymbol(a).isCircleStartAngleSymbol();
-	}
-
-	public boolean isCircleMiddleDistanceSymbol(Arc a) {
-		return getArcSymbol(a).isCircleMiddleDistanceSymbol();
-	}
-
-	private HashMap<Arc, ArcArrowSymbol> arcOutputSymbols;
-
-	public ArcArrowSymbol getArcOutputSymbol(Arc a) {
-		ArcArrowSymbol s = arcOutputSymbols.get(a);
-		if (s == null) {
-			s = new ArcArrowSymbol();
-			arcOutputSymbols.put(a, s);
-		}
-		return s;
-	}
-
-	public boolean isArrowOutputSymbol(Arc a) {
-		return a.isDirected();
-	}
-
-	public void setOutputSymbolArrow(Arc a, double beta, int sideDistance) {
-		ArcArrowSymbol symbol = new ArcArrowSymbol();
-		symbol.setBeta(beta);
-		symbol.setSideDistance(sideDistance);
-
-		arcOutputSymbols.put(a, symbol);
-	}
-
-	public double getBeta(Arc a) {
-		if (this.isArrowOutputSymbol(a)) {
-			ArcArrowSymbol symbol = getArcOutputSymbol(a);
-			return symbol.getBeta();
-		}
-		return 0D;
-	}
-
-	public int getSideDistance(Arc a) {
-		if (this.isArrowOutputSymbol(a)) {
-			ArcArrowSymbol symbol = arcOutputSymbols.get(a);
-			return symbol.getSideDistance();
-		}
-		return 0;
-	}
-
-	private HashMap<Arc, Color> arcColors;
-
-	public Color getColor(Arc a) {
-		Color color = arcColors.get(a);
-		if (color == null)
-			color = Color.black;
-		return color;
-	}
-
-	public void setColor(Arc a, Color color) {
-		arcColors.put(a, color);
+	/**
+	 * @return the drawing attributes of the nodes and the arcs of this,
+	 *         created at the first call.
+	 */
+	public GraphStyle getStyle() {
+		if (style == null)
+			style = new GraphStyle();
+		return style;
 	}
 
 	/**
-	 * Copy the parameters of the arc/edge a into the copy arc/edge cp
+	 * @return true if {@link #getStyle()} was already called, which means that
+	 *         this graph may define drawing attributes.
 	 */
-	public void copyParams(Graph g, Arc a, Arc cp) {
-		this.setColor(cp, g.getColor(a));
-
-		if (g.isLineSymbol(a)) {
-			this.setSymbolLine(cp);
-		} else if (g.isCircleStartAngleSymbol(a)) {
-			this.setSymbolCircleArc1(cp, g.getStartAngle(a));
-		} else if (g.isCircleMiddleDistanceSymbol(a)) {
-			this.setSymbolCircleArc2(cp, g.getMiddleDistance(a));
-		}
-
-		if (g.isArrowOutputSymbol(a)) {
-			this.setOutputSymbolArrow(cp, g.getBeta(a), g.getSideDistance(a));
-		}
+	public boolean hasStyle() {
+		return style != null;
 	}
 
 }
@@ -0,0 +1,23 @@
+package graphTheory.graph;
+
+/**
+ * Operation applied to each arc of a neighbourhood by
+ * {@link CompactDirectedGraph#forEachOutputArc(int, IntArcConsumer)} and the
+ * similar methods, without boxing any id nor allocating any iterator.
+ *
+ * @author Watel Dimitri
+ * @see ArcCursor
+ */
+@FunctionalInterface
+public interface IntArcConsumer {
+
+	/**
+	 * @param arc
+	 *            : dense id of the arc.
+	 * @param input
+	 *            : input of the arc.
+	 * @param output
+	 *            : output of the arc.
+	 */
+	void accept(int arc, int input, int output);
+}
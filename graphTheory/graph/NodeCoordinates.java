@@ -0,0 +1,111 @@
+package graphTheory.graph;
+
+import java.util.Arrays;
+
+/**
+ * Coordinates of the nodes of a {@link Graph}, 0 for the undefined ones.
+ * <p>
+ * The nodes and their coordinates are stored in three parallel primitive
+ * arrays, with open addressing and linear probing: a node costs one long and
+ * two ints, instead of two boxed integers and two entries of hash maps.
+ *
+ * @author Watel Dimitri
+ *
+ */
+final class NodeCoordinates {
+
+	/**
+	 * Key of the free slots, no int being equal to it.
+	 */
+	private static final long FREE = Long.MIN_VALUE;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] nodes;
+	private int[] abscissas;
+	private int[] ordinates;
+
+	private int size;
+
+	/**
+	 * 64 - log2(capacity), see {@link ArcIndex}.
+	 */
+	private int shift;
+
+	NodeCoordinates() {
+		allocate(MIN_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		nodes = new long[capacity];
+		Arrays.fill(nodes, FREE);
+		abscissas = new int[capacity];
+		ordinates = new int[capacity];
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
+	}
+
+	/**
+	 * @param node
+	 * @return the slot of node, or the free slot where it should be inserted.
+	 */
+	private int slot(int node) {
+		int mask = nodes.length - 1;
+		int i = (int) (Arc.mix(node) >>> shift);
+		while (nodes[i] != FREE && nodes[i] != node)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	/**
+	 * @param node
+	 * @return the slot of node, which is inserted with the coordinates (0, 0)
+	 *         if it was not.
+	 */
+	private int insert(int node) {
+		int i = slot(node);
+		if (nodes[i] != FREE)
+			return i;
+		if (size + 1 > nodes.length / 2) {
+			grow();
+			i = slot(node);
+		}
+		nodes[i] = node;
+		size++;
+		return i;
+	}
+
+	private void grow() {
+		long[] oldNodes = nodes;
+		int[] oldAbscissas = abscissas;
+		int[] oldOrdinates = ordinates;
+		allocate(2 * oldNodes.length);
+		for (int j = 0; j < oldNodes.length; j++) {
+			if (oldNodes[j] == FREE)
+				continue;
+			int i = slot((int) oldNodes[j]);
+			nodes[i] = oldNodes[j];
+			abscissas[i] = oldAbscissas[j];
+			ordinates[i] = oldOrdinates[j];
+		}
+	}
+
+	int getAbscissa(int node) {
+		int i = slot(node);
+		return (nodes[i] == FREE) ? 0 : abscissas[i];
+	}
+
+	int getOrdinate(int node) {
+		int i = slot(node);
+		return (nodes[i] == FREE) ? 0 : ordinates[i];
+	}
+
+	void setAbscissa(int node, int x) {
+		int i = insert(node);
+		abscissas[i] = x;
+	}
+
+	void setOrdinate(int node, int y) {
+		int i = insert(node);
+		ordinates[i] = y;
+	}
+}
@@ -21,7 +21,7 @@ public class CircleGraphDrawer extends GraphDrawer{
     @Override
     protected void setVerticesCoordinates() {
         ArrayList<Integer> nodes = graph.getVertices();
-        ArrayList<Integer> h = nodes.stream().filter(node -> graph.isDrawn(node)).collect(Collectors.toCollection(ArrayList::new));
+        ArrayList<Integer> h = nodes.stream().filter(node -> style.isDrawn(node)).collect(Collectors.toCollection(ArrayList::new));
 
 
         int s = h.size();
@@ -63,7 +63,7 @@ public class EnergyAnalogyGraphDrawer extends GraphDrawer {
 		k = Math.sqrt((double) area / graph.getNumberOfVertices());
 
 		ArrayList<Integer> nodes = graph.getVertices();
-		ArrayList<Integer> nodesToDraw = nodes.stream().filter(node -> graph.isDrawn(node)).collect(Collectors.toCollection(ArrayList::new));
+		ArrayList<Integer> nodesToDraw = nodes.stream().filter(node -> style.isDrawn(node)).collect(Collectors.toCollection(ArrayList::new));
 
 		initVerticesCoordinates(nodesToDraw); // Place nodes at random.
 
@@ -112,8 +112,8 @@ public class EnergyAnalogyGraphDrawer extends GraphDrawer {
 
 			// Compute the attractions
 			Integer u, v;
-			for (Arc e : graph.getEdges()) {
-				if(!graph.isDrawn(e))
+			for (Arc e : graph.getEdgesView()) {
+				if(!style.isDrawn(e))
 					continue;
 				v = e.getInput();
 				u = e.getOutput();
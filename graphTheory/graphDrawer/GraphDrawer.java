@@ -11,9 +11,9 @@ import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Set;
 
 /**
  *
@@ -57,6 +57,11 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 	 */
 	public Graph graph;
 
+	/**
+	 * Drawing attributes of the drawed graphTheory.graph
+	 */
+	public GraphStyle style;
+
 	/**
 	 * If a node is clicked and dragged, this let the frame knows which node is
 	 * dragged.
@@ -110,6 +115,7 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		addMouseListener(this);
 		addMouseMotionListener(this);
 		graph = g;
+		style = g.getStyle();
 
 		this.arcDisplayedParam = arcDisplayedParam;
 
@@ -130,7 +136,7 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 	 * @param g
 	 */
 	protected void paintVertices(Graphics g) {
-		graph.getVertices().stream().filter(n -> graph.isDrawn(n)).forEach(n -> paintVertice(g, n));
+		graph.getVerticesView().stream().filter(n -> style.isDrawn(n)).forEach(n -> paintVertice(g, n));
 	}
 
 	/**
@@ -139,22 +145,22 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 	 * @param g
 	 */
 	protected void paintEdges(Graphics g) {
-		ArrayList<Arc> arcs = graph.getEdges();
+		Set<Arc> arcs = graph.getEdgesView();
 		/*
 		 * It first checks if there is no two opposites arcs. In that case, if
 		 * the arcs were drawed with strait lines, the drawer uses two opposite
 		 * semi circular arcs instead.
 		 */
-		arcs.stream().filter(a -> graph.isDrawn(a)).forEach(a -> arcs.stream().filter(b -> graph.isDrawn(b)).filter(b -> a.getInput().equals(b.getOutput())
+		arcs.stream().filter(a -> style.isDrawn(a)).forEach(a -> arcs.stream().filter(b -> style.isDrawn(b)).filter(b -> a.getInput().equals(b.getOutput())
 				&& a.getOutput().equals(b.getInput())
-				&& graph.isLineSymbol(a) && graph.isLineSymbol(a)).forEach(b -> {
-			graph.setSymbolCircleArc1(a, -DEFAULT_START_ANGLE);
-			graph.setSymbolCircleArc1(a, -DEFAULT_START_ANGLE);
+				&& style.isLineSymbol(a) && style.isLineSymbol(a)).forEach(b -> {
+			style.setSymbolCircleArc1(a, -DEFAULT_START_ANGLE);
+			style.setSymbolCircleArc1(a, -DEFAULT_START_ANGLE);
 		}));
 
-		graph.getEdges().stream().filter(arc -> graph.isDrawn(arc)).forEach(arc -> {
+		arcs.stream().filter(arc -> style.isDrawn(arc)).forEach(arc -> {
 			if (arc.isDirected())
-				graph.setOutputSymbolArrow(arc, BETADEFAUT, RAYONDEFAUT);
+				style.setOutputSymbolArrow(arc, BETADEFAUT, RAYONDEFAUT);
 			paintEdge(g, arc);
 		});
 	}
@@ -174,15 +180,15 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 	 */
 	public void paintVertice(Graphics g, Integer n) {
 
-		g.setColor(graph.getColor(n));
+		g.setColor(style.getColor(n));
 
 		// If the node is drawed as a circle
-		if (graph.isCircleSymbol(n)) {
-			Integer radius = graph.getRadius(n);
+		if (style.isCircleSymbol(n)) {
+			Integer radius = style.getRadius(n);
 			if (radius == null)
 				radius = 25;
 
-			if (graph.isFill(n))
+			if (style.isFill(n))
 				g.fillOval(graph.getNodeAbscissa(n) - radius,
 						graph.getNodeOrdinate(n) - radius, 2 * radius,
 						2 * radius);
@@ -192,8 +198,8 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 						2 * radius);
 		}
 		// if the node is drawed as a square
-		else if (graph.isSquareSymbol(n)) {
-			Integer sideLength = graph.getSideLength(n);
+		else if (style.isSquareSymbol(n)) {
+			Integer sideLength = style.getSideLength(n);
 			if (sideLength == null)
 				sideLength = 50;
 			//Set the four x and y coordinates of the square
@@ -206,7 +212,7 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 							graph.getNodeOrdinate(n) + sideLength / 2,
 							graph.getNodeOrdinate(n) + sideLength / 2,
 							graph.getNodeOrdinate(n) - sideLength / 2 };
-			if (graph.isFill(n))
+			if (style.isFill(n))
 				g.fillPolygon(xPoints, yPoints, 4);
 			else
 				g.drawPolygon(xPoints, yPoints, 4);
@@ -217,7 +223,7 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		}
 
 		// draw the string representation of n at the node coordinates 
-		g.setColor(graph.getTextColor(n));
+		g.setColor(style.getTextColor(n));
 		g.drawString(String.valueOf(n), graph.getNodeAbscissa(n),
 				graph.getNodeOrdinate(n));
 		g.setColor(Color.black);
@@ -231,7 +237,7 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 	 */
 	public void paintEdge(Graphics g, Arc arc) {
 
-		g.setColor(graph.getColor(arc));
+		g.setColor(style.getColor(arc));
 
 		int x1, x2, y1, y2;
 		x1 = graph.getNodeAbscissa(arc.getInput());
@@ -261,16 +267,16 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		Integer radius, sideLength;
 
 		// If the input is a circle
-		if (graph.isCircleSymbol(arc.getInput())) {
-			radius = graph.getRadius(arc.getInput());
+		if (style.isCircleSymbol(arc.getInput())) {
+			radius = style.getRadius(arc.getInput());
 			if (radius == null)
 				radius = 25;
 			x11 = (int) (Math.cos(alpha) * (double) radius + (double) x1);
 			y11 = (int) (Math.sin(alpha) * (double) radius + (double) y1);
 		}
 		// if the input is a square
-		else if (graph.isSquareSymbol(arc.getInput())) {
-			sideLength = graph.getSideLength(arc.getInput());
+		else if (style.isSquareSymbol(arc.getInput())) {
+			sideLength = style.getSideLength(arc.getInput());
 			if (sideLength == null)
 				sideLength = 50;
 			if (alpha <= Math.PI / 4.0 || alpha > Math.PI * 7.0 / 4.0) {
@@ -290,16 +296,16 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		}
 
 		// If the output is a circle
-		if (graph.isCircleSymbol(arc.getOutput())) {
-			radius = graph.getRadius(arc.getOutput());
+		if (style.isCircleSymbol(arc.getOutput())) {
+			radius = style.getRadius(arc.getOutput());
 			if (radius == null)
 				radius = 25;
 			x22 = (int) (Math.cos(alpha) * (d - (double) radius) + (double) x1);
 			y22 = (int) (Math.sin(alpha) * (d - (double) radius) + (double) y1);
 		}
 		// if the output is a square
-		else if (graph.isSquareSymbol(arc.getOutput())) {
-			sideLength = graph.getSideLength(arc.getOutput());
+		else if (style.isSquareSymbol(arc.getOutput())) {
+			sideLength = style.getSideLength(arc.getOutput());
 			if (sideLength == null)
 				sideLength = 50;
 			if (alpha <= Math.PI / 4.0 || alpha > Math.PI * 7.0 / 4.0) {
@@ -321,7 +327,7 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		Double startAngle = null, middleDistance = null;
 
 		// If the arc is a strait line
-		if (graph.isLineSymbol(arc)) {
+		if (style.isLineSymbol(arc)) {
 			g.drawLine(x11, y11, x22, y22);
 		}
 
@@ -329,8 +335,8 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		 * For semi circular arcs defined by angles between the strait line
 		 * linking the nodes and the tangent of the arc at the endings.
 		 */
-		else if (graph.isCircleStartAngleSymbol(arc)) {
-			startAngle = graph.getStartAngle(arc);
+		else if (style.isCircleStartAngleSymbol(arc)) {
+			startAngle = style.getStartAngle(arc);
 			if (startAngle == null)
 				startAngle = DEFAULT_START_ANGLE;
 			Drawing.drawArc1(g, x11, y11, x22, y22, startAngle); // Special helper to draw semi circular arcs
@@ -342,8 +348,8 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		 * For semi circular arcs defined by the distance between the strait
 		 * line linking the nodes and the arc at middle distance
 		 */
-		else if (graph.isCircleMiddleDistanceSymbol(arc)) {
-			middleDistance = graph.getMiddleDistance(arc);
+		else if (style.isCircleMiddleDistanceSymbol(arc)) {
+			middleDistance = style.getMiddleDistance(arc);
 			if (middleDistance == null)
 				middleDistance = DEFAULT_MIDDLE_DISTANCE;
 			Drawing.drawArc2(g, x11, y11, x22, y22, middleDistance); // Special helper to draw semi circular arcs
@@ -353,15 +359,15 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 
 		// If the arc is directed, draw the ending triangle.
 		if (arc.isDirected()) {
-			if (graph.isArrowOutputSymbol(arc)) {
-				Integer rayon = graph.getSideDistance(arc);
-				Double beta = graph.getBeta(arc);
+			if (style.isArrowOutputSymbol(arc)) {
+				Integer rayon = style.getSideDistance(arc);
+				Double beta = style.getBeta(arc);
 				if (rayon == null)
 					rayon = RAYONDEFAUT;
 				if (beta == null)
 					beta = BETADEFAUT;
-				if (graph.isCircleStartAngleSymbol(arc)
-						|| graph.isCircleMiddleDistanceSymbol(arc)) {
+				if (style.isCircleStartAngleSymbol(arc)
+						|| style.isCircleMiddleDistanceSymbol(arc)) {
 					alpha += startAngle;
 				}
 				int x33 = (int) (Math.cos(alpha + (double) beta)
@@ -411,8 +417,8 @@ public abstract class GraphDrawer extends JFrame implements MouseListener,
 		Integer r;
 		while (it.hasNext()) {
 			n = it.next();
-			b = graph.isCircleSymbol(n);
-			r = graph.getRadius(n);
+			b = style.isCircleSymbol(n);
+			r = style.getRadius(n);
 
 			if (b) {
 				if (Math2.dist(graph.getNodeAbscissa(n),
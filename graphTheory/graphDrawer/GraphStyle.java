@@ -0,0 +1,345 @@
+package graphTheory.graphDrawer;
+
+import graphTheory.graph.Arc;
+import graphTheory.graphDrawer.symbols.*;
+
+import java.awt.*;
+import java.util.HashMap;
+
+/**
+ * Drawing attributes of the nodes and the arcs of a graph: whether they are
+ * drawn, their symbols and their colors. Every attribute which is not defined
+ * has a default value (drawn, circle node, line arc, black).
+ * <p>
+ * The attributes are kept out of {@link graphTheory.graph.Graph}, which
+ * creates its style at the first call to
+ * {@link graphTheory.graph.Graph#getStyle()}: a graph which is never drawn
+ * does not allocate these maps nor load the AWT classes.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class GraphStyle {
+
+	public GraphStyle() {
+		this.drawnNodes = new HashMap<Integer, Boolean>();
+		this.nodeColors = new HashMap<Integer, Color>();
+		this.nodeFill = new HashMap<Integer, Boolean>();
+		this.nodeSymbols = new HashMap<Integer, NodeSymbol>();
+		this.nodeTextColor = new HashMap<Integer, Color>();
+		this.drawnArcs = new HashMap<Arc, Boolean>();
+		this.arcSymbols = new HashMap<Arc, ArcSymbol>();
+		this.arcOutputSymbols = new HashMap<Arc, ArcArrowSymbol>();
+		this.arcColors = new HashMap<Arc, Color>();
+	}
+
+	// --------------------------------------
+	// Node informations
+
+	private HashMap<Integer, Boolean> drawnNodes;
+
+	public Boolean isDrawn(Integer n) {
+		Boolean b = drawnNodes.get(n);
+		if (b == null)
+			b = true;
+		return b;
+	}
+
+	public void setDrawn(Integer n, Boolean toDraw) {
+		drawnNodes.put(n, toDraw);
+	}
+
+	private HashMap<Integer, NodeSymbol> nodeSymbols;
+
+	/**
+	 * @param n
+	 * @return the symbol of n, a new default circle if it is not defined. The
+	 *         default symbol is not stored: use the setters to modify it.
+	 */
+	public NodeSymbol getNodeSymbol(Integer n) {
+		NodeSymbol s = nodeSymbols.get(n);
+		if (s == null)
+			s = new NodeCircleSymbol();
+		return s;
+	}
+
+	public boolean isCircleSymbol(Integer n) {
+		return getNodeSymbol(n).isCircle();
+	}
+
+	public boolean isSquareSymbol(Integer n) {
+		return getNodeSymbol(n).isSquare();
+	}
+
+	public int getSideLength(Integer n) {
+		if (isSquareSymbol(n))
+			return ((NodeSquareSymbol) getNodeSymbol(n)).getSideLength();
+		else
+			return 0;
+	}
+
+	public int getRadius(Integer n) {
+		if (isSquareSymbol(n))
+			return ((NodeSquareSymbol) getNodeSymbol(n)).getSideLength() / 2;
+		else
+			return ((NodeCircleSymbol) getNodeSymbol(n)).getRadius();
+	}
+
+	public void setSquareSymbol(Integer n) {
+		NodeSquareSymbol symb = new NodeSquareSymbol();
+		nodeSymbols.put(n, symb);
+	}
+
+	public void setSideLength(Integer n, int sideLength) {
+		if (isSquareSymbol(n))
+			((NodeSquareSymbol) nodeSymbols.get(n)).setSideLength(sideLength);
+	}
+
+	public void setSquareSymbol(Integer n, int sideLength) {
+		NodeSquareSymbol symb = new NodeSquareSymbol();
+		symb.setSideLength(sideLength);
+		nodeSymbols.put(n, symb);
+	}
+
+	public void setCircleSymbol(Integer n) {
+		NodeCircleSymbol symb = new NodeCircleSymbol();
+		nodeSymbols.put(n, symb);
+	}
+
+	public void setRadius(Integer n, int radius) {
+		if (isCircleSymbol(n))
+			setCircleSymbol(n, radius);
+	}
+
+	public void setCircleSymbol(Integer n, int radius) {
+		NodeCircleSymbol symb = new NodeCircleSymbol();
+		symb.setRadius(radius);
+		nodeSymbols.put(n, symb);
+	}
+
+	private HashMap<Integer, Color> nodeColors;
+
+	public Color getColor(Integer n) {
+		Color c = nodeColors.get(n);
+		if (c == null)
+			c = Color.BLACK;
+		return c;
+	}
+
+	public void setColor(Integer n, Color color) {
+		nodeColors.put(n, color);
+	}
+
+	private HashMap<Integer, Boolean> nodeFill;
+
+	public boolean isFill(Integer n) {
+		Boolean b = nodeFill.get(n);
+		if (b == null)
+			b = false;
+		return b;
+	}
+
+	public void setFill(Integer n, boolean fill) {
+		nodeFill.put(n, fill);
+	}
+
+	private HashMap<Integer, Color> nodeTextColor; // default : white if filled, black if not
+
+	public Color getTextColor(Integer n) {
+		Color c = nodeTextColor.get(n);
+		if (c == null)
+			c = isFill(n) ? Color.white : Color.black;
+		return c;
+	}
+
+	public void setTextColor(Integer n, Color textColor) {
+		nodeTextColor.put(n, textColor);
+	}
+
+	/**
+	 * Copy the parameters of the node n into the copy node cp
+	 */
+	public void copyParams(GraphStyle g, Integer n, Integer cp) {
+		Color c = g.nodeColors.get(n);
+		if (c != null)
+			this.setColor(cp, c);
+		c = g.nodeTextColor.get(n);
+		if (c != null)
+			this.setTextColor(cp, c);
+		Boolean fill = g.nodeFill.get(n);
+		if (fill != null)
+			this.setFill(cp, fill);
+
+		if (!g.nodeSymbols.containsKey(n))
+			return;
+		if (g.isCircleSymbol(n))
+			this.setCircleSymbol(cp, g.getRadius(n));
+		else if (g.isSquareSymbol(n))
+			this.setSquareSymbol(cp, g.getRadius(n) * 2);
+	}
+
+	// --------------------------------------
+	// Arc informations
+
+	private HashMap<Arc, Boolean> drawnArcs;
+
+	public Boolean isDrawn(Arc a) {
+		Boolean b = drawnArcs.get(a);
+		if (b == null)
+			b = true;
+		return b;
+	}
+
+	public void setDrawn(Arc a, Boolean toDraw) {
+		drawnArcs.put(a, toDraw);
+	}
+
+	private HashMap<Arc, ArcSymbol> arcSymbols;
+
+	public void setSymbolLine(Arc a) {
+		arcSymbols.put(a, new ArcLineSymbol());
+	}
+
+	public void setSymbolCircleArc1(Arc a, double startAngle) {
+		ArcCircleStartAngleSymbol symbol = new ArcCircleStartAngleSymbol();
+		symbol.setStartAngle(startAngle);
+		arcSymbols.put(a, symbol);
+	}
+
+	public double getStartAngle(Arc a) {
+		if (this.isCircleStartAngleSymbol(a)) {
+			ArcSymbol symbol = arcSymbols.get(a);
+			return ((ArcCircleStartAngleSymbol) symbol).getStartAngle();
+		}
+		return 0D;
+	}
+
+	public void setSymbolCircleArc2(Arc a, double middleDistance) {
+		ArcCircleMiddleDistanceSymbol symbol = new ArcCircleMiddleDistanceSymbol();
+		symbol.setMiddleDistance(middleDistance);
+		arcSymbols.put(a, symbol);
+	}
+
+	public double getMiddleDistance(Arc a) {
+		if (this.isCircleMiddleDistanceSymbol(a)) {
+			ArcSymbol symbol = arcSymbols.get(a);
+			return ((ArcCircleMiddleDistanceSymbol) symbol).getMiddleDistance();
+		}
+		return 0D;
+	}
+
+	/**
+	 * @param a
+	 * @return the symbol of a, a new default line if it is not defined. The
+	 *         default symbol is not stored.
+	 */
+	public ArcSymbol getArcSymbol(Arc a) {
+		ArcSymbol s = arcSymbols.get(a);
+		if (s == null)
+			s = new ArcLineSymbol();
+		return s;
+	}
+
+	public boolean isLineSymbol(Arc a) {
+		return getArcSymbol(a).isLineSymbol();
+	}
+
+	public boolean isCircleStartAngleSymbol(Arc a) {
+		return getArcSymbol(a).isCircleStartAngleSymbol();
+	}
+
+	public boolean isCircleMiddleDistanceSymbol(Arc a) {
+		return getArcSymbol(a).isCircleMiddleDistanceSymbol();
+	}
+
+	private HashMap<Arc, ArcArrowSymbol> arcOutputSymbols;
+
+	/**
+	 * @param a
+	 * @return the arrow of a, a new default arrow if it is not defined. The
+	 *         default arrow is not stored.
+	 */
+	public ArcArrowSymbol getArcOutputSymbol(Arc a) {
+		ArcArrowSymbol s = arcOutputSymbols.get(a);
+		if (s == null)
+			s = new ArcArrowSymbol();
+		return s;
+	}
+
+	public boolean isArrowOutputSymbol(Arc a) {
+		return a.isDirected();
+	}
+
+	public void setOutputSymbolArrow(Arc a, double beta, int sideDistance) {
+		ArcArrowSymbol symbol = new ArcArrowSymbol();
+		symbol.setBeta(beta);
+		symbol.setSideDistance(sideDistance);
+
+		arcOutputSymbols.put(a, symbol);
+	}
+
+	public double getBeta(Arc a) {
+		if (this.isArrowOutputSymbol(a)) {
+			ArcArrowSymbol symbol = getArcOutputSymbol(a);
+			return symbol.getBeta();
+		}
+		return 0D;
+	}
+
+	public int getSideDistance(Arc a) {
+		if (this.isArrowOutputSymbol(a)) {
+			ArcArrowSymbol symbol = getArcOutputSymbol(a);
+			return symbol.getSideDistance();
+		}
+		return 0;
+	}
+
+	private HashMap<Arc, Color> arcColors;
+
+	public Color getColor(Arc a) {
+		Color color = arcColors.get(a);
+		if (color == null)
+			color = Color.black;
+		return color;
+	}
+
+	public void setColor(Arc a, Color color) {
+		arcColors.put(a, color);
+	}
+
+	/**
+	 * @param a
+	 * @return true if this defines the color, the symbol or the arrow of a,
+	 *         the parameters copied by
+	 *         {@link #copyParams(GraphStyle, Arc, Arc)}.
+	 */
+	public boolean definesParams(Arc a) {
+		return arcColors.containsKey(a) || arcSymbols.containsKey(a)
+				|| arcOutputSymbols.containsKey(a);
+	}
+
+	/**
+	 * Copy the parameters of the arc/edge a defined in g into the copy
+	 * arc/edge cp
+	 */
+	public void copyParams(GraphStyle g, Arc a, Arc cp) {
+		Color color = g.arcColors.get(a);
+		if (color != null)
+			this.setColor(cp, color);
+
+		if (g.arcSymbols.containsKey(a)) {
+			if (g.isLineSymbol(a)) {
+				this.setSymbolLine(cp);
+			} else if (g.isCircleStartAngleSymbol(a)) {
+				this.setSymbolCircleArc1(cp, g.getStartAngle(a));
+			} else if (g.isCircleMiddleDistanceSymbol(a)) {
+				this.setSymbolCircleArc2(cp, g.getMiddleDistance(a));
+			}
+		}
+
+		if (g.arcOutputSymbols.containsKey(a) && g.isArrowOutputSymbol(a)) {
+			this.setOutputSymbolArrow(cp, g.getBeta(a), g.getSideDistance(a));
+		}
+	}
+
+}
@@ -79,9 +79,7 @@ public class ArcCostGraphInstance extends GraphInstance implements Cloneable {
 	}
 
 	public Number getCost(Arc a, boolean nullCosts){
-		if (costs == null)
-			costs = new HashMap<Arc, Number>();
-		Number cost = costs.get(a);
+		Number cost = (costs == null) ? null : costs.get(a);
 
 		if (nullCosts)
 			return cost;
@@ -1,12 +1,16 @@
 package graphTheory.instances.steiner.classic;
 
 import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
 import graphTheory.graph.DirectedGraph;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.ListIterator;
+import java.util.Objects;
 
 /**
  * 
@@ -31,16 +35,28 @@ public class SteinerDirectedInstance extends SteinerInstance implements
 		return root;
 	}
 
+	/**
+	 * Set the root of the instance. The root is drawn with a square only if the
+	 * graph already has a style, see {@link #applyStyle()}.
+	 */
 	public void setRoot(Integer root) {
 		if (root != null) {
 			Integer r = getRoot();
-			if (r != null)
-				graph.setCircleSymbol(r);
+			if (r != null && graph.hasStyle())
+				graph.getStyle().setCircleSymbol(r);
 			this.root = root;
-			graph.setSquareSymbol(root);
+			if (graph.hasStyle())
+				graph.getStyle().setSquareSymbol(root);
 		}
 	}
 
+	@Override
+	public void applyStyle() {
+		super.applyStyle();
+		if (root != null)
+			graph.getStyle().setSquareSymbol(root);
+	}
+
 	public DirectedGraph getGraph() {
 		return (DirectedGraph) graph;
 	}
@@ -48,7 +64,7 @@ public class SteinerDirectedInstance extends SteinerInstance implements
 	public String toString() {
 		StringBuilder s = new StringBuilder();
 		s.append("Noeuds\n\n");
-		for (Integer n : getGraph().getVertices()) {
+		for (Integer n : getGraph().getVerticesView()) {
 			s.append(n);
 			if (isRequired(n))
 				s.append(" ").append("x");
@@ -58,7 +74,7 @@ public class SteinerDirectedInstance extends SteinerInstance implements
 		}
 
 		s.append("\nArcs\n\n");
-		for (Arc a : getGraph().getEdges()) {
+		for (Arc a : getGraph().getEdgesView()) {
 			s.append(a).append(" ").append(getIntCost(a)).append("\n");
 		}
 
@@ -67,13 +83,73 @@ public class SteinerDirectedInstance extends SteinerInstance implements
 
 	@Override
 	public boolean hasSolution() {
+		Reachability r = getReachability();
 		ListIterator<Integer> it = this.getRequiredVerticesIterator();
 		while (it.hasNext()) {
-			if (!graph.areConnectedByDirectedPath(root, it.next()))
+			if (!r.isReachable(it.next()))
 				return false;
 		}
 		return true;
 	}
+
+	/**
+	 * @return the terminals which are not reachable from the root with a
+	 *         directed path, in the order of the terminals.
+	 */
+	public ArrayList<Integer> getUnreachableRequiredVertices() {
+		Reachability r = getReachability();
+		ArrayList<Integer> unreachable = new ArrayList<Integer>();
+		ListIterator<Integer> it = this.getRequiredVerticesIterator();
+		while (it.hasNext()) {
+			Integer t = it.next();
+			if (!r.isReachable(t))
+				unreachable.add(t);
+		}
+		return unreachable;
+	}
+
+	/**
+	 * @return the nodes reachable from the root, computed with one search
+	 *         over the graph, and computed again only if the graph or the
+	 *         root were modified since the last call.
+	 */
+	private Reachability getReachability() {
+		CompactDirectedGraph snapshot = graph.freeze();
+		Reachability r = reachability;
+		if (r == null || r.snapshot != snapshot || !Objects.equals(r.root, root)) {
+			r = new Reachability(snapshot, root);
+			reachability = r;
+		}
+		return r;
+	}
+
+	/**
+	 * Last result of {@link #getReachability()}.
+	 */
+	private volatile Reachability reachability;
+
+	/**
+	 * Nodes of a snapshot of the graph reachable from a root with a directed
+	 * path.
+	 */
+	private static final class Reachability {
+
+		private final CompactDirectedGraph snapshot;
+		private final Integer root;
+		private final BitSet reachable;
+
+		private Reachability(CompactDirectedGraph snapshot, Integer root) {
+			this.snapshot = snapshot;
+			this.root = root;
+			int r = snapshot.getIndex(root);
+			reachable = (r == -1) ? new BitSet() : snapshot.getReachableVertices(r);
+		}
+
+		private boolean isReachable(Integer n) {
+			int v = snapshot.getIndex(n);
+			return v != -1 && reachable.get(v);
+		}
+	}
 	
 	public boolean isFeasibleSolution(HashSet<Arc> tree){
 		
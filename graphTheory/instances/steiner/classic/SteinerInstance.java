@@ -2,10 +2,10 @@ package graphTheory.instances.steiner.classic;
 
 import graphTheory.graph.Arc;
 import graphTheory.graph.Graph;
+import graphTheory.graphDrawer.GraphStyle;
 import graphTheory.instances.ArcCostGraphInstance;
 import graphTheory.utils.Collections2;
 
-import java.awt.*;
 import java.util.*;
 
 /**
@@ -20,6 +20,12 @@ public abstract class SteinerInstance extends ArcCostGraphInstance implements
 
 	protected ArrayList<Integer> requiredVertices = new ArrayList<Integer>();
 
+	/**
+	 * Same nodes as requiredVertices, to check in constant time if a node is
+	 * required. Both are modified together.
+	 */
+	private HashSet<Integer> requiredVerticesSet = new HashSet<Integer>();
+
 	public SteinerInstance(Graph g) {
 		super(g);
 	}
@@ -49,7 +55,7 @@ public abstract class SteinerInstance extends ArcCostGraphInstance implements
 	}
 
 	public boolean isRequired(Integer n) {
-		return requiredVertices.contains(n);
+		return requiredVerticesSet.contains(n);
 	}
 
 	public void setRequired(Integer n) {
@@ -61,22 +67,49 @@ public abstract class SteinerInstance extends ArcCostGraphInstance implements
 			setRequired(n);
 	}
 
+	/**
+	 * Set n as required or not. The node is filled or emptied in the style of
+	 * the graph only if the graph already has a style, see
+	 * {@link #applyStyle()}.
+	 */
 	public void setRequired(Integer n, boolean isRequired) {
+		if (graph.hasStyle())
+			graph.getStyle().setFill(n, isRequired);
 		if (isRequired) {
-			if (!requiredVertices.contains(n)) {
-				graph.setColor(n, Color.black);
-				graph.setFill(n, true);
-				graph.setTextColor(n, Color.white);
+			if (requiredVerticesSet.add(n))
 				requiredVertices.add(n);
-			}
 		} else {
-			graph.setColor(n, Color.black);
-			graph.setFill(n, false);
-			graph.setTextColor(n, Color.black);
-			requiredVertices.remove(n);
+			if (requiredVerticesSet.remove(n))
+				requiredVertices.remove(n);
 		}
 	}
 
+	/**
+	 * Fill the terminals in the style of the graph, so that they can be
+	 * distinguished when the graph is drawn. Call it before drawing the graph:
+	 * the instance does not create the style of its graph by itself.
+	 */
+	public void applyStyle() {
+		GraphStyle style = graph.getStyle();
+		for (Integer n : requiredVertices)
+			style.setFill(n, true);
+	}
+
+	/**
+	 * Set all the nodes of ns as required, in the iteration order of ns.
+	 * Unlike {@link #setRequired(Integer)}, the nodes are not filled in the
+	 * style of the graph, even if it has one: this method is meant to build
+	 * large instances which are not drawn.
+	 *
+	 * @param ns
+	 */
+	public void setRequired(Collection<Integer> ns) {
+		requiredVertices.ensureCapacity(requiredVertices.size() + ns.size());
+		for (Integer n : ns)
+			if (requiredVerticesSet.add(n))
+				requiredVertices.add(n);
+	}
+
 	public Integer getRandomRequiredVertice() {
 		return Collections2.randomElement(requiredVertices);
 	}
@@ -100,7 +133,7 @@ public abstract class SteinerInstance extends ArcCostGraphInstance implements
 	public String toString() {
 		StringBuilder s = new StringBuilder();
 		s.append("Noeuds\n\n");
-		for (Integer n : graph.getVertices()) {
+		for (Integer n : graph.getVerticesView()) {
 			s.append(n);
 			if (isRequired(n))
 				s.append(" ").append("x");
@@ -108,7 +141,7 @@ public abstract class SteinerInstance extends ArcCostGraphInstance implements
 		}
 
 		s.append("\nArcs\n\n");
-		for (Arc a : graph.getEdges()) {
+		for (Arc a : graph.getEdgesView()) {
 			s.append(a).append(" ").append(getIntCost(a)).append("\n");
 		}
 
@@ -0,0 +1,253 @@
+package graphTheory.instances.steiner.windfarm;
+
+import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
+
+import java.util.Iterator;
+
+/**
+ * Immutable table of the costs of the cables of a {@link WindFarmInstance},
+ * indexed by the dense ids of the arcs of {@link graphTheory.graph.Graph#freeze()}
+ * and by the capacities.
+ * <p>
+ * For each capacity up to the largest static capacity, the table contains the
+ * cost of one meter of static cable and the cost of one meter of the smallest
+ * dynamic cable with at least that capacity. For each arc, it contains its
+ * length and the number of terminals among its extremities.
+ * {@link #realCableCost(int, int)} then computes
+ * {@link WindFarmInstance#getRealCableCost(Arc, Integer)} without boxing and
+ * without reading any hash table.
+ * <p>
+ * The table also gives the input arcs of each node sorted by cost (see
+ * {@link #getSortedInputArc(int)}), so that the algorithms run over the same
+ * instance sort them only once.
+ * <p>
+ * The table is a snapshot of the instance: it is built by
+ * {@link WindFarmInstance#getCableCostTable()}, which builds it again when the
+ * graph, the costs, the terminals, the capacities or the parameters of the
+ * instance were modified.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public final class CableCostTable {
+
+	/**
+	 * Snapshot of the graph defining the ids of the arcs.
+	 */
+	private final CompactDirectedGraph graph;
+
+	/**
+	 * Cost (or length) of each arc.
+	 */
+	private final double[] arcCosts;
+
+	/**
+	 * Number of terminals among the extremities of each arc.
+	 */
+	private final int[] terminalEndpoints;
+
+	/**
+	 * staticRates[c] is the cost of one meter of static cable with capacity c,
+	 * NaN if there is no such cable.
+	 */
+	private final double[] staticRates;
+
+	/**
+	 * dynamicRates[c] is the cost of one meter of the dynamic cable with
+	 * capacity c or, if there is no such cable, of the dynamic cable with the
+	 * smallest capacity greater than c. NaN if there is no such cable.
+	 */
+	private final double[] dynamicRates;
+
+	private final double distanceMin;
+
+	private final double dynamicStaticBranchingNodeCost;
+
+	/**
+	 * Input arcs of each node sorted by cost, null until they are needed.
+	 */
+	private volatile int[] sortedInputArcs;
+
+	CableCostTable(WindFarmInstance instance) {
+		graph = instance.getGraph().freeze();
+
+		int m = graph.getNumberOfArcs();
+		arcCosts = new double[m];
+		terminalEndpoints = new int[m];
+		boolean[] required = new boolean[graph.getNumberOfVertices()];
+		Iterator<Integer> it = instance.getRequiredVerticesIterator();
+		while (it.hasNext()) {
+			int v = graph.getIndex(it.next());
+			if (v != -1)
+				required[v] = true;
+		}
+		for (int a = 0; a < m; a++) {
+			arcCosts[a] = instance.getDoubleCost(graph.getArc(a));
+			if (required[graph.getInput(a)])
+				terminalEndpoints[a]++;
+			if (required[graph.getOutput(a)])
+				terminalEndpoints[a]++;
+		}
+
+		int maxCapacity = 0;
+		for (Integer capacity : instance.getStaticCapacities())
+			maxCapacity = Math.max(maxCapacity, capacity);
+		staticRates = new double[maxCapacity + 1];
+		dynamicRates = new double[maxCapacity + 1];
+		for (int capacity = 0; capacity <= maxCapacity; capacity++) {
+			Double cost = instance.getStaticCapacityCost(capacity);
+			staticRates[capacity] = (cost == null) ? Double.NaN : cost;
+		}
+
+		// Smallest dynamic capacity greater than or equal to each capacity
+		int[] dynamicCapacities = instance.getDynamicCapacities().stream()
+				.mapToInt(Integer::intValue).sorted().toArray();
+		int next = dynamicCapacities.length;
+		for (int capacity = maxCapacity; capacity >= 0; capacity--) {
+			while (next > 0 && dynamicCapacities[next - 1] >= capacity)
+				next--;
+			dynamicRates[capacity] = (next == dynamicCapacities.length) ? Double.NaN
+					: toDouble(instance.getDynamicCapacityCost(dynamicCapacities[next]));
+		}
+
+		distanceMin = toDouble(instance.getDistanceMin());
+		dynamicStaticBranchingNodeCost = toDouble(instance.getDynamicStaticBranchingNodeCost());
+	}
+
+	private static double toDouble(Double d) {
+		return (d == null) ? Double.NaN : d;
+	}
+
+	/**
+	 * @return the snapshot of the graph of the instance whose dense ids of
+	 *         arcs index this table.
+	 */
+	public CompactDirectedGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the largest static capacity.
+	 */
+	public int getMaximumCapacity() {
+		return staticRates.length - 1;
+	}
+
+	/**
+	 * @param arcId
+	 * @param capacity
+	 * @return true if there is a static cable with that capacity and, if the
+	 *         arc with dense id arcId is linked to a terminal, a dynamic cable
+	 *         with at least that capacity.
+	 */
+	public boolean hasCable(int arcId, int capacity) {
+		if (capacity < 0 || capacity >= staticRates.length || Double.isNaN(staticRates[capacity]))
+			return false;
+		return terminalEndpoints[arcId] == 0 || !Double.isNaN(dynamicRates[capacity]);
+	}
+
+	/**
+	 * @param arcId
+	 * @param capacity
+	 * @return the same cost as
+	 *         {@link WindFarmInstance#getRealCableCost(Arc, Integer)} for the
+	 *         arc with dense id arcId, or NaN if there is no such cable.
+	 * @see #hasCable(int, int)
+	 */
+	public double realCableCost(int arcId, int capacity) {
+		if (!hasCable(arcId, capacity))
+			return Double.NaN;
+		int nb = terminalEndpoints[arcId];
+		double dynamicCapacityCost = (nb == 0) ? 0D : dynamicRates[capacity];
+		return (arcCosts[arcId] - nb * distanceMin) * staticRates[capacity]
+				+ nb * distanceMin * dynamicCapacityCost
+				+ nb * dynamicStaticBranchingNodeCost;
+	}
+
+	/**
+	 * @param arcId
+	 * @return the cost (or length) of the arc with dense id arcId.
+	 */
+	public double getArcCost(int arcId) {
+		return arcCosts[arcId];
+	}
+
+	/**
+	 * For each node v, the input arcs of v sorted by cost, then by input node,
+	 * then by output node, are the arcs getSortedInputArc(i) for i from
+	 * getGraph().getInputBegin(v) to getGraph().getInputEnd(v) - 1. They are
+	 * sorted the first time this method is called.
+	 *
+	 * @param i
+	 * @return the dense id of the arc at position i.
+	 */
+	public int getSortedInputArc(int i) {
+		int[] sorted = sortedInputArcs;
+		if (sorted == null) {
+			sorted = sortInputArcs();
+			sortedInputArcs = sorted;
+		}
+		return sorted[i];
+	}
+
+	private int[] sortInputArcs() {
+		return sortInputArcs(graph, arcCosts);
+	}
+
+	/**
+	 * @param graph
+	 * @param costs
+	 *            : cost of each arc of the graph, indexed by dense ids.
+	 * @return for each node v, the input arcs of v sorted by cost, then by
+	 *         input node, then by output node, in the cells
+	 *         graph.getInputBegin(v) to graph.getInputEnd(v) - 1.
+	 */
+	public static int[] sortInputArcs(CompactDirectedGraph graph, double[] costs) {
+		int m = graph.getNumberOfArcs();
+		int[] sorted = new int[m];
+		int[] buffer = new int[m];
+		for (int i = 0; i < m; i++)
+			sorted[i] = graph.getInputArc(i);
+		for (int v = 0; v < graph.getNumberOfVertices(); v++) {
+			int begin = graph.getInputBegin(v);
+			int end = graph.getInputEnd(v);
+
+			// Bottom-up merge sort of sorted[begin..end-1]
+			int[] src = sorted;
+			int[] dst = buffer;
+			for (int width = 1; width < end - begin; width *= 2) {
+				for (int lo = begin; lo < end; lo += 2 * width) {
+					int mid = Math.min(lo + width, end);
+					int hi = Math.min(lo + 2 * width, end);
+					int i = lo, j = mid, k = lo;
+					while (i < mid && j < hi)
+						dst[k++] = (compareArcs(graph, costs, src[j], src[i]) < 0) ? src[j++] : src[i++];
+					while (i < mid)
+						dst[k++] = src[i++];
+					while (j < hi)
+						dst[k++] = src[j++];
+				}
+				int[] tmp = src;
+				src = dst;
+				dst = tmp;
+			}
+			if (src != sorted)
+				System.arraycopy(src, begin, sorted, begin, end - begin);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Compare two arcs by cost, then by input node, then by output node.
+	 */
+	private static int compareArcs(CompactDirectedGraph graph, double[] costs, int a1, int a2) {
+		int comp = Double.compare(costs[a1], costs[a2]);
+		if (comp != 0)
+			return comp;
+		comp = Integer.compare(graph.getVertex(graph.getInput(a1)), graph.getVertex(graph.getInput(a2)));
+		if (comp != 0)
+			return comp;
+		return Integer.compare(graph.getVertex(graph.getOutput(a1)), graph.getVertex(graph.getOutput(a2)));
+	}
+}
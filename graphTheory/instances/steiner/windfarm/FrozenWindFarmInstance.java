@@ -0,0 +1,210 @@
+package graphTheory.instances.steiner.windfarm;
+
+import graphTheory.graph.CompactDirectedGraph;
+
+import java.util.Iterator;
+
+/**
+ * Immutable snapshot of a {@link WindFarmInstance}, indexed by the dense ids
+ * of the vertices and of the arcs of {@link graphTheory.graph.Graph#freeze()}.
+ * <p>
+ * The snapshot contains the graph, the costs of the arcs and of the cables
+ * (see {@link #getCableCostTable()}), the root, the terminals, the maximum
+ * output degrees and the parameters of the instance. Every field is final and
+ * no array is returned: the accessors read the snapshot without copying or
+ * boxing anything, and a snapshot can be shared by algorithms running in
+ * different threads, as long as each of them keeps its own state in its own
+ * arrays.
+ * <p>
+ * The snapshot is built by {@link WindFarmInstance#freeze()}, which builds it
+ * again when the instance was modified.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public final class FrozenWindFarmInstance {
+
+	private final CableCostTable costTable;
+
+	private final CompactDirectedGraph graph;
+
+	/**
+	 * Dense id of the root, -1 if the root is not defined.
+	 */
+	private final int root;
+
+	/**
+	 * For each vertex, true if it is a terminal.
+	 */
+	private final boolean[] required;
+
+	/**
+	 * The terminals, in the order of their dense ids.
+	 */
+	private final int[] requiredVertices;
+
+	/**
+	 * For each vertex, its maximum output degree, -1 if it is not bounded.
+	 */
+	private final int[] maximumOutputDegrees;
+
+	/**
+	 * The capacities of the static cables, in increasing order.
+	 */
+	private final int[] staticCapacities;
+
+	private final int maxNbSec;
+
+	private final double staticStaticBranchingNodeCost;
+
+	FrozenWindFarmInstance(WindFarmInstance instance, CableCostTable costTable) {
+		this.costTable = costTable;
+		this.graph = costTable.getGraph();
+		int n = graph.getNumberOfVertices();
+
+		Integer r = instance.getRoot();
+		root = (r == null) ? -1 : graph.getIndex(r);
+
+		required = new boolean[n];
+		int nbRequired = 0;
+		Iterator<Integer> it = instance.getRequiredVerticesIterator();
+		while (it.hasNext()) {
+			int v = graph.getIndex(it.next());
+			if (v != -1 && !required[v]) {
+				required[v] = true;
+				nbRequired++;
+			}
+		}
+		requiredVertices = new int[nbRequired];
+		for (int v = 0, i = 0; v < n; v++)
+			if (required[v])
+				requiredVertices[i++] = v;
+
+		maximumOutputDegrees = new int[n];
+		for (int v = 0; v < n; v++) {
+			Integer degree = instance.getMaximumOutputDegree(graph.getVertex(v));
+			maximumOutputDegrees[v] = (degree == null) ? -1 : degree;
+		}
+
+		staticCapacities = instance.getStaticCapacities().stream()
+				.mapToInt(Integer::intValue).sorted().toArray();
+		Integer nbSec = instance.getMaxNbSec();
+		maxNbSec = (nbSec == null) ? -1 : nbSec;
+		Double branchingCost = instance.getStaticStaticBranchingNodeCost();
+		staticStaticBranchingNodeCost = (branchingCost == null) ? Double.NaN : branchingCost;
+	}
+
+	/**
+	 * @return the table of the costs of the cables of the instance, which
+	 *         also gives the costs of the arcs and the input arcs of each
+	 *         vertex sorted by cost.
+	 */
+	public CableCostTable getCableCostTable() {
+		return costTable;
+	}
+
+	/**
+	 * @return the snapshot of the graph of the instance defining the dense
+	 *         ids.
+	 */
+	public CompactDirectedGraph getGraph() {
+		return graph;
+	}
+
+	public int getNumberOfVertices() {
+		return graph.getNumberOfVertices();
+	}
+
+	public int getNumberOfArcs() {
+		return graph.getNumberOfArcs();
+	}
+
+	/**
+	 * @param arcId
+	 * @return the cost of the arc with dense id arcId.
+	 */
+	public double getCost(int arcId) {
+		return costTable.getArcCost(arcId);
+	}
+
+	/**
+	 * @return the dense id of the root, -1 if the instance has no root.
+	 */
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * @param v
+	 * @return true if the vertex with dense id v is a terminal.
+	 */
+	public boolean isRequired(int v) {
+		return required[v];
+	}
+
+	public int getNumberOfRequiredVertices() {
+		return requiredVertices.length;
+	}
+
+	/**
+	 * @param i
+	 * @return the dense id of the i-th terminal, the terminals being sorted by
+	 *         dense id.
+	 */
+	public int getRequiredVertex(int i) {
+		return requiredVertices[i];
+	}
+
+	/**
+	 * @param v
+	 * @return true if the output degree of the vertex with dense id v is
+	 *         bounded.
+	 */
+	public boolean hasMaximumOutputDegree(int v) {
+		return maximumOutputDegrees[v] != -1;
+	}
+
+	/**
+	 * @param v
+	 * @return the maximum output degree of the vertex with dense id v, -1 if
+	 *         it is not bounded.
+	 */
+	public int getMaximumOutputDegree(int v) {
+		return maximumOutputDegrees[v];
+	}
+
+	public int getNumberOfStaticCapacities() {
+		return staticCapacities.length;
+	}
+
+	/**
+	 * @param i
+	 * @return the i-th capacity of the static cables, sorted in increasing
+	 *         order.
+	 */
+	public int getStaticCapacity(int i) {
+		return staticCapacities[i];
+	}
+
+	/**
+	 * @return the largest capacity of the static cables.
+	 */
+	public int getMaximumCapacity() {
+		return costTable.getMaximumCapacity();
+	}
+
+	/**
+	 * @return the maximum number of types of cable of a solution, -1 if it is
+	 *         not defined.
+	 */
+	public int getMaxNbSec() {
+		return maxNbSec;
+	}
+
+	/**
+	 * @return the cost of a branching node, NaN if it is not defined.
+	 */
+	public double getStaticStaticBranchingNodeCost() {
+		return staticStaticBranchingNodeCost;
+	}
+}
@@ -0,0 +1,129 @@
+package graphTheory.instances.steiner.windfarm;
+
+import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
+import graphTheory.graph.DirectedGraph;
+import graphTheory.utils.PointGrid;
+
+
+/**
+ * Build the instance returned by
+ * {@link WindFarmInstance#simplifyWithNeighbours(int, int)}.
+ * <p>
+ * The nodes other than the root are put in a {@link PointGrid}. For each of
+ * them, the grid gives its k nearest nodes and its nearest node in each
+ * angular sector, searched within twice the distance of the k-th nearest
+ * node. An arc is kept if one of its extremities is the root, or if one of its
+ * extremities was selected by the other one. Each node selects at most k +
+ * nbSectors nodes: the simplified graph has O(n (k + nbSectors)) arcs,
+ * whatever the number of arcs of the instance.
+ *
+ * @author Watel Dimitri
+ *
+ */
+final class NeighbourhoodSimplifier {
+
+	private final WindFarmInstance instance;
+	private final CompactDirectedGraph graph;
+
+	NeighbourhoodSimplifier(WindFarmInstance instance) {
+		this.instance = instance;
+		this.graph = instance.getGraph().freeze();
+	}
+
+	WindFarmInstance simplify(int nbNeighbours, int nbSectors) {
+		int n = graph.getNumberOfVertices();
+		int m = graph.getNumberOfArcs();
+		int root = graph.getIndex(instance.getRoot());
+
+		// The point p of the grid is the node points[p], the root is not in the grid
+		int[] points = new int[n];
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		int nbPoints = 0;
+		for (int v = 0; v < n; v++) {
+			if (v == root)
+				continue;
+			Integer node = graph.getVertex(v);
+			xs[nbPoints] = instance.getGraph().getNodeAbscissa(node);
+			ys[nbPoints] = instance.getGraph().getNodeOrdinate(node);
+			points[nbPoints++] = v;
+		}
+		PointGrid grid = new PointGrid(xs, ys, nbPoints);
+
+		boolean[] kept = new boolean[m];
+		int nbKept = 0;
+		if (root != -1) {
+			for (int i = graph.getOutputBegin(root); i < graph.getOutputEnd(root); i++)
+				kept[graph.getOutputArc(i)] = true;
+			for (int i = graph.getInputBegin(root); i < graph.getInputEnd(root); i++)
+				kept[graph.getInputArc(i)] = true;
+		}
+
+		int k = Math.max(0, nbNeighbours);
+		int[] neighbours = new int[k];
+		long[] distances = new long[k];
+		int[] sectorNeighbours = new int[Math.max(0, nbSectors)];
+		long[] sectorDistances = new long[Math.max(0, nbSectors)];
+
+		// selected[v] == u + 1 if the node v was selected by the node u
+		int[] selected = new int[n];
+		for (int p = 0; p < nbPoints; p++) {
+			int u = points[p];
+			int nb = grid.nearest(p, k, neighbours, distances);
+			for (int i = 0; i < nb; i++)
+				selected[points[neighbours[i]]] = u + 1;
+			if (nbSectors > 0 && nb > 0) {
+				grid.nearestBySector(p, nbSectors, 4 * distances[nb - 1], sectorNeighbours, sectorDistances);
+				for (int s = 0; s < nbSectors; s++)
+					if (sectorNeighbours[s] != -1)
+						selected[points[sectorNeighbours[s]]] = u + 1;
+			}
+			for (int i = graph.getOutputBegin(u); i < graph.getOutputEnd(u); i++) {
+				int a = graph.getOutputArc(i);
+				if (selected[graph.getOutput(a)] == u + 1)
+					kept[a] = true;
+			}
+			for (int i = graph.getInputBegin(u); i < graph.getInputEnd(u); i++) {
+				int a = graph.getInputArc(i);
+				if (selected[graph.getInput(a)] == u + 1)
+					kept[a] = true;
+			}
+		}
+		for (int a = 0; a < m; a++)
+			if (kept[a])
+				nbKept++;
+
+		// Simplified instance, with every node and the kept arcs
+		DirectedGraph dg = new DirectedGraph(n, nbKept);
+		for (int v = 0; v < n; v++) {
+			Integer node = graph.getVertex(v);
+			dg.addVertice(node);
+			dg.setNodeAbscissa(node, instance.getGraph().getNodeAbscissa(node));
+			dg.setNodeOrdinate(node, instance.getGraph().getNodeOrdinate(node));
+		}
+		WindFarmInstance eol = new WindFarmInstance(dg);
+		for (int a = 0; a < m; a++) {
+			if (!kept[a])
+				continue;
+			Arc arc = graph.getArc(a);
+			eol.setCost(dg.addDirectedEdge(arc.getInput(), arc.getOutput()), instance.getCost(arc));
+		}
+
+		eol.setRoot(instance.getRoot());
+		eol.setRequired(instance.getRequiredVertices());
+		for (Integer capa : instance.getStaticCapacities())
+			eol.setStaticCapacityCost(capa, instance.getStaticCapacityCost(capa));
+		for (Integer capa : instance.getDynamicCapacities())
+			eol.setDynamicCapacityCost(capa, instance.getDynamicCapacityCost(capa));
+		eol.setMaximumOutputDegree(instance.getMaximumOutputDegree());
+		eol.setMaxNbSec(instance.getMaxNbSec());
+		eol.setDistanceMin(instance.getDistanceMin());
+		eol.setStaticStaticBranchingNodeCost(instance.getStaticStaticBranchingNodeCost());
+		eol.setDynamicStaticBranchingNodeCost(instance.getDynamicStaticBranchingNodeCost());
+		for (String name : instance.getGraph().getParamsNames())
+			dg.defineParam(name, instance.getGraph().getParam(name));
+
+		return eol;
+	}
+}
@@ -0,0 +1,249 @@
+package graphTheory.instances.steiner.windfarm;
+
+import graphTheory.graph.Arc;
+import graphTheory.graph.CompactDirectedGraph;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance.ResultError;
+import graphTheory.utils.WeightedQuickUnionPathCompressionUF;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Check a solution of a {@link WindFarmInstance}, as described in
+ * {@link WindFarmInstance#testSolution(HashMap, boolean)}.
+ * <p>
+ * The arcs of the solution are first copied into arrays indexed by dense ids,
+ * the ids of the nodes being those of {@link graphTheory.graph.Graph#freeze()}.
+ * The check is then done in two passes: one over the arcs (cycles, root,
+ * number of capacities), and one breadth first search from the root (degrees,
+ * reached nodes, flows). No hash table is built.
+ *
+ * @author Watel Dimitri
+ *
+ */
+final class SolutionValidator {
+
+	private final WindFarmInstance instance;
+	private final CompactDirectedGraph graph;
+
+	/**
+	 * If true, the check stops at the first error.
+	 */
+	private final boolean stopAtFirstError;
+
+	/**
+	 * Dense ids of the nodes of the solution which are not in the graph of the
+	 * instance, null if there is none.
+	 */
+	private HashMap<Integer, Integer> extraIds;
+
+	/**
+	 * Number of dense ids.
+	 */
+	private int n;
+
+	/**
+	 * Found errors, as a bit mask of the ordinals.
+	 */
+	private int errors;
+
+	SolutionValidator(WindFarmInstance instance, boolean stopAtFirstError) {
+		this.instance = instance;
+		this.graph = instance.getGraph().freeze();
+		this.stopAtFirstError = stopAtFirstError;
+	}
+
+	/**
+	 * @param node
+	 * @return the dense id of the node.
+	 */
+	private int getIndex(Integer node) {
+		int v = graph.getIndex(node);
+		if (v != -1)
+			return v;
+		if (extraIds == null)
+			extraIds = new HashMap<Integer, Integer>();
+		Integer w = extraIds.get(node);
+		if (w == null) {
+			w = n++;
+			extraIds.put(node, w);
+		}
+		return w;
+	}
+
+	/**
+	 * Add the error.
+	 *
+	 * @param error
+	 * @return true if the check must stop.
+	 */
+	private boolean add(ResultError error) {
+		errors |= 1 << error.ordinal();
+		return stopAtFirstError;
+	}
+
+	/**
+	 * @param arborescence
+	 * @return the errors of the solution.
+	 */
+	HashSet<ResultError> validate(HashMap<Arc, Integer> arborescence) {
+		check(arborescence);
+		HashSet<ResultError> err = new HashSet<ResultError>();
+		for (ResultError error : ResultError.values())
+			if ((errors & (1 << error.ordinal())) != 0)
+				err.add(error);
+		return err;
+	}
+
+	private void check(HashMap<Arc, Integer> arborescence) {
+		n = graph.getNumberOfVertices();
+
+		// Snapshot of the solution
+		int m = arborescence.size();
+		int[] tails = new int[m];
+		int[] heads = new int[m];
+		int[] capacities = new int[m];
+		boolean[] hasCapacity = new boolean[m];
+		int e = 0;
+		for (Map.Entry<Arc, Integer> entry : arborescence.entrySet()) {
+			Arc a = entry.getKey();
+			tails[e] = getIndex(a.getInput());
+			heads[e] = getIndex(a.getOutput());
+			Integer capacity = entry.getValue();
+			if (capacity != null) {
+				hasCapacity[e] = true;
+				capacities[e] = capacity;
+			}
+			e++;
+		}
+		int root = getIndex(instance.getRoot());
+
+		// First pass, over the arcs
+		WeightedQuickUnionPathCompressionUF unionFind = new WeightedQuickUnionPathCompressionUF(n);
+		int[] outBegin = new int[n + 1];
+		int[] prev = new int[n];
+		Arrays.fill(prev, -1);
+		for (e = 0; e < m; e++) {
+			if (!unionFind.union(tails[e], heads[e]) && add(ResultError.NOT_AN_ARBORESCENCE))
+				return;
+			if (heads[e] == root && add(ResultError.ROOT_NOT_THE_ROOT))
+				return;
+			outBegin[tails[e] + 1]++;
+			prev[heads[e]] = tails[e];
+		}
+
+		Integer maxNbSec = instance.getMaxNbSec();
+		if (maxNbSec != null && numberOfCapacities(capacities, hasCapacity) > maxNbSec
+				&& add(ResultError.NBSEC_VIOLATED))
+			return;
+
+		for (int v = 0; v < n; v++)
+			outBegin[v + 1] += outBegin[v];
+		int[] outputs = new int[m];
+		int[] fill = Arrays.copyOf(outBegin, n);
+		for (e = 0; e < m; e++)
+			outputs[fill[tails[e]]++] = heads[e];
+
+		// Second pass, breadth first search from the root
+		boolean[] visited = new boolean[n];
+		int[] order = new int[n];
+		int nbVisited = 0;
+		visited[root] = true;
+		order[nbVisited++] = root;
+		for (int i = 0; i < nbVisited; i++) {
+			int u = order[i];
+			int deg = outBegin[u + 1] - outBegin[u];
+			if (deg > 0) {
+				Integer max = instance.getMaximumOutputDegree(nodeOf(u));
+				if (max != null && deg > max && add(ResultError.DEGREE_VIOLATED))
+					return;
+			}
+			for (int j = outBegin[u]; j < outBegin[u + 1]; j++) {
+				int v = outputs[j];
+				if (!visited[v]) {
+					visited[v] = true;
+					order[nbVisited++] = v;
+				}
+			}
+		}
+
+		boolean[] required = new boolean[n];
+		Iterator<Integer> it = instance.getRequiredVerticesIterator();
+		while (it.hasNext()) {
+			int v = getIndex(it.next());
+			if (v >= required.length)
+				required = Arrays.copyOf(required, n);
+			required[v] = true;
+			if (v >= visited.length || !visited[v]) {
+				if (add(ResultError.TERMINAL_NOT_REACHED))
+					return;
+				break;
+			}
+		}
+		while (it.hasNext()) {
+			int v = getIndex(it.next());
+			if (v >= required.length)
+				required = Arrays.copyOf(required, n);
+			required[v] = true;
+		}
+		if (nbVisited != m + 1 && add(ResultError.DISCONNECTED_FOREST))
+			return;
+
+		// Flow of each node, from the leaves to the root
+		int[] flows = new int[n];
+		boolean[] hasFlow = new boolean[n];
+		for (int i = nbVisited - 1; i >= 0; i--) {
+			int v = order[i];
+			int u = prev[v];
+			if (u == -1)
+				continue;
+			if (required[v])
+				flows[v]++;
+			hasFlow[v] = true;
+			flows[u] += flows[v];
+			hasFlow[u] = true;
+		}
+
+		for (e = 0; e < m; e++)
+			if (hasCapacity[e] && hasFlow[heads[e]] && flows[heads[e]] > capacities[e]
+					&& add(ResultError.CAPACITY_VIOLATED))
+				return;
+	}
+
+	/**
+	 * @param v
+	 * @return the node with dense id v.
+	 */
+	private Integer nodeOf(int v) {
+		if (v < graph.getNumberOfVertices())
+			return graph.getVertex(v);
+		for (Map.Entry<Integer, Integer> entry : extraIds.entrySet())
+			if (entry.getValue() == v)
+				return entry.getKey();
+		return null;
+	}
+
+	/**
+	 * @return the number of distinct capacities, null being one of them.
+	 */
+	private static int numberOfCapacities(int[] capacities, boolean[] hasCapacity) {
+		int[] values = new int[capacities.length];
+		int nb = 0;
+		boolean hasNull = false;
+		for (int e = 0; e < capacities.length; e++) {
+			if (hasCapacity[e])
+				values[nb++] = capacities[e];
+			else
+				hasNull = true;
+		}
+		Arrays.sort(values, 0, nb);
+		int distinct = hasNull ? 1 : 0;
+		for (int i = 0; i < nb; i++)
+			if (i == 0 || values[i] != values[i - 1])
+				distinct++;
+		return distinct;
+	}
+}
@@ -3,12 +3,9 @@ package graphTheory.instances.steiner.windfarm;
 import graphTheory.graph.Arc;
 import graphTheory.graph.DirectedGraph;
 import graphTheory.instances.steiner.classic.SteinerDirectedInstance;
-import graphTheory.utils.Collections2;
 import graphTheory.utils.Math2;
-import graphTheory.utils.WeightedQuickUnionPathCompressionUF;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Created by mouton on 01/03/16.
@@ -42,6 +39,16 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     private Double dynamicStaticBranchingNodeCost;
 
+    /**
+     * Costs of the cables, null if they must be computed again.
+     */
+    private volatile CableCostTable cableCostTable;
+
+    /**
+     * Snapshot of this instance, null if it must be computed again.
+     */
+    private volatile FrozenWindFarmInstance frozenInstance;
+
     public Set<Integer> getStaticCapacities(){
         return staticCapacityCosts.keySet();
     }
@@ -85,6 +92,12 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
      * consequently if the cable is purely static or partly dynamic and partly static.
      */
     public Double getRealCableCost(Arc a, Integer capacity){
+        if(a != null && capacity != null) {
+            CableCostTable table = getCableCostTable();
+            int arcId = table.getGraph().getArcIndex(a);
+            if(arcId != -1)
+                return table.hasCable(arcId, capacity) ? table.realCableCost(arcId, capacity) : null;
+        }
         Double staticCapacityCost = getStaticCapacityCost(capacity);
         if(a == null || staticCapacityCost == null)
             return null;
@@ -114,6 +127,75 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
                 + nb * this.getDynamicStaticBranchingNodeCost();
     }
 
+    /**
+     * @param arcId
+     * @param capacity
+     * @return the same cost as {@link #getRealCableCost(Arc, Integer)} for the arc with dense id arcId in
+     * getGraph().freeze(), or NaN if there is no such cable.
+     * @see CableCostTable#realCableCost(int, int)
+     */
+    public double realCableCost(int arcId, int capacity){
+        return getCableCostTable().realCableCost(arcId, capacity);
+    }
+
+    /**
+     * @return the table of the costs of the cables of this instance. It is computed again if the graph, the costs,
+     * the terminals, the capacity costs, the minimum distance or the branching node costs were modified since the
+     * last call.
+     */
+    public CableCostTable getCableCostTable(){
+        CableCostTable table = cableCostTable;
+        if(table == null || table.getGraph() != getGraph().freeze()) {
+            table = new CableCostTable(this);
+            cableCostTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * @return an immutable snapshot of this instance, which algorithms running in different threads can share. It is
+     * computed again if this instance was modified since the last call.
+     */
+    public FrozenWindFarmInstance freeze(){
+        CableCostTable table = getCableCostTable();
+        FrozenWindFarmInstance frozen = frozenInstance;
+        if(frozen == null || frozen.getCableCostTable() != table) {
+            frozen = new FrozenWindFarmInstance(this, table);
+            frozenInstance = frozen;
+        }
+        return frozen;
+    }
+
+    @Override
+    public void setRoot(Integer root) {
+        super.setRoot(root);
+        frozenInstance = null;
+    }
+
+    @Override
+    public void setCost(Arc a, Number cost) {
+        super.setCost(a, cost);
+        cableCostTable = null;
+    }
+
+    @Override
+    public void setCosts(HashMap<Arc, Number> costs) {
+        super.setCosts(costs);
+        cableCostTable = null;
+    }
+
+    @Override
+    public void setRequired(Integer n, boolean isRequired) {
+        super.setRequired(n, isRequired);
+        cableCostTable = null;
+    }
+
+    @Override
+    public void setRequired(Collection<Integer> ns) {
+        super.setRequired(ns);
+        cableCostTable = null;
+    }
+
     /**
      * @param a
      * @param capacity
@@ -141,7 +223,9 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
      * @param cost
      */
     public void setStaticCapacityCost(Integer capacity, Double cost) {
-        staticCapacityCosts.put(capacity, cost); }
+        staticCapacityCosts.put(capacity, cost);
+        cableCostTable = null;
+    }
 
 
     /**
@@ -160,7 +244,9 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
      * @param cost
      */
     public void setDynamicCapacityCost(Integer capacity, Double cost) {
-        dynamicCapacityCosts.put(capacity, cost); }
+        dynamicCapacityCosts.put(capacity, cost);
+        cableCostTable = null;
+    }
 
     /**
      * Reset the cost of all the static capacities, and associate the cost of each capacity to the
@@ -170,6 +256,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
      */
     public void setStaticCapacityCosts(HashMap<Integer, Double> staticCapacityCosts) {
         this.staticCapacityCosts = staticCapacityCosts;
+        cableCostTable = null;
     }
 
     /**
@@ -180,6 +267,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
      */
     public void setDynamicCapacityCosts(HashMap<Integer, Double> dynamicCapacityCosts) {
         this.dynamicCapacityCosts = dynamicCapacityCosts;
+        cableCostTable = null;
     }
 
     public Integer getMaximumOutputDegree(Integer node){
@@ -188,6 +276,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     public void setMaximumOutputDegree(Integer node, Integer degree){
         maximumOutputDegree.put(node, degree);
+        frozenInstance = null;
     }
 
     public HashMap<Integer, Integer> getMaximumOutputDegree(){
@@ -196,6 +285,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     public void setMaximumOutputDegree(HashMap<Integer, Integer> maximumOutputDegree) {
         this.maximumOutputDegree = maximumOutputDegree;
+        frozenInstance = null;
     }
 
     public Integer getMaxNbSec(){
@@ -204,6 +294,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     public void setMaxNbSec(Integer maxNbSec) {
         this.maxNbSec = maxNbSec;
+        frozenInstance = null;
     }
 
     public Double getDistanceMin() {
@@ -212,6 +303,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     public void setDistanceMin(Double distanceMin) {
         this.distanceMin = distanceMin;
+        cableCostTable = null;
     }
 
     public Double getStaticStaticBranchingNodeCost() {
@@ -220,6 +312,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     public void setStaticStaticBranchingNodeCost(Double staticStaticBranchingNodeCost) {
         this.staticStaticBranchingNodeCost = staticStaticBranchingNodeCost;
+        frozenInstance = null;
     }
 
     public Double getDynamicStaticBranchingNodeCost() {
@@ -228,6 +321,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     public void setDynamicStaticBranchingNodeCost(Double dynamicStaticBranchingNodeCost) {
         this.dynamicStaticBranchingNodeCost = dynamicStaticBranchingNodeCost;
+        cableCostTable = null;
     }
 
 
@@ -278,7 +372,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
             eol.setCost(a, this.getDoubleCost(a));
 
         eol.setRoot(this.getRoot());
-        for(Integer node : dg.getVertices())
+        for(Integer node : dg.getVerticesView())
             if(this.isRequired(node))
                 eol.setRequired(node);
 
@@ -290,12 +384,12 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
             eol.setDynamicCapacityCost(capa, this.getDynamicCapacityCost(capa));
         }
 
-        for(Integer node : dg.getVertices())
+        for(Integer node : dg.getVerticesView())
             eol.setMaximumOutputDegree(node, this.getMaximumOutputDegree(node));
         eol.setMaximumOutputDegree(this.getRoot(), 1);
 
 
-        for(Integer node : dg.getVertices()) {
+        for(Integer node : dg.getVerticesView()) {
             eol.getGraph().setNodeAbscissa(node, this.getGraph().getNodeAbscissa(node));
             eol.getGraph().setNodeOrdinate(node, this.getGraph().getNodeOrdinate(node));
         }
@@ -308,120 +402,256 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
         return eol;
     }
 
+    /**
+     * Return a copy of this instance keeping, around each node, only the arcs linking it to its nbNeighbours
+     * nearest nodes and to its nearest node in each of nbSectors angular sectors (searched within twice the
+     * distance of its nbNeighbours-th nearest node). The arcs linking the root to the other nodes are all kept.
+     *
+     * The nearest nodes are found with a uniform grid over the coordinates of the nodes: the copy has
+     * O(n (nbNeighbours + nbSectors)) arcs and is built in O(n (nbNeighbours + nbSectors) + m) time on evenly
+     * spread nodes, n and m being the number of nodes and arcs of this instance. Contrary to
+     * {@link #simplifyWithAngles(double)}, every node and every parameter of this instance are kept.
+     * @param nbNeighbours
+     * @param nbSectors
+     * @return
+     */
+    public WindFarmInstance simplifyWithNeighbours(int nbNeighbours, int nbSectors){
+        return new NeighbourhoodSimplifier(this).simplify(nbNeighbours, nbSectors);
+    }
+
 
     /**
-     * Remove every cycle of the graph.
+     * Remove every cycle of the graph: return a new map in which each node has at most one input arc.
+     *
+     * The nodes are processed in a topological order, from the root. When a node v is processed, its ancestors
+     * already form a forest. While v has two input arcs a1 and a2, the one with the smallest flow, say a1, is
+     * removed: the flow of a1 is subtracted from every arc of the path of the forest going from the lowest common
+     * ancestor of the inputs of a1 and a2 to v through a1, and the arcs whose flow becomes null are removed.
+     * If the inputs of a1 and a2 have no common ancestor, the flow is subtracted up to the root of the tree
+     * containing the input of a1. When the sweep reaches a cycle, the cycle is broken at a node linked to the
+     * processed nodes, by removing its input arcs coming from the cycle.
+     *
+     * The lowest common ancestors are computed with binary lifting: the running time is
+     * O(m log m) plus the number of modified flows plus O(m) for each broken cycle, m being the number of arcs.
      * @param arborescenceFlow
      * @return
      */
     public HashMap<Arc, Integer> unviolateTreeConstraint(HashMap<Arc, Integer> arborescenceFlow){
         HashMap<Arc, Integer> noCycleFlow = new HashMap<Arc, Integer>(arborescenceFlow);
-        DirectedGraph arbGraph = this.getGraph().getInducedGraphFromArc(noCycleFlow.keySet());
-        outer : while(arbGraph.getNumberOfEdges() != arbGraph.getNumberOfVertices() - 1) {
-            for(Integer node : arbGraph.getVertices()){
-                if(arbGraph.getInputSize(node) >= 2) {
-
-                    Iterator<Arc> it = arbGraph.getInputArcsIterator(node);
-                    Arc a1 = it.next();
-                    Arc a2 = it.next();
-                    Integer v1, v2;
-
-                    LinkedList<Arc> p1 = new LinkedList<Arc>();
-                    LinkedList<Arc> p2 = new LinkedList<Arc>();
-
-                    Integer flow, flow1 = noCycleFlow.get(a1), flow2 = noCycleFlow.get(a2);
-
-                    if(flow1 <= flow2){
-                        v1 = a1.getInput();
-                        v2 = a2.getInput();
-                        p1.add(a1);
-                        p2.add(a2);
-                        flow = flow1;
-                    }
-                    else{
-                        v2 = a1.getInput();
-                        v1 = a2.getInput();
-                        p1.add(a2);
-                        p2.add(a1);
-                        flow = flow2;
-                    }
 
-                    Integer f1 = v1;
-                    while(arbGraph.getOutputSize(f1) == 1){
-                        a1 = arbGraph.getInputArcsIterator(f1).next();
-                        p1.addFirst(a1);
-                        f1 = a1.getInput();
-                    }
+        // Dense ids of the nodes and the arcs
+        int m = arborescenceFlow.size();
+        HashMap<Integer, Integer> ids = new HashMap<Integer, Integer>();
+        Arc[] arcs = new Arc[m];
+        int[] tails = new int[m];
+        int[] heads = new int[m];
+        int[] flows = new int[m];
+        int e = 0;
+        for(Map.Entry<Arc, Integer> entry : arborescenceFlow.entrySet()){
+            Arc a = entry.getKey();
+            arcs[e] = a;
+            tails[e] = ids.computeIfAbsent(a.getInput(), k -> ids.size());
+            heads[e] = ids.computeIfAbsent(a.getOutput(), k -> ids.size());
+            flows[e] = entry.getValue();
+            e++;
+        }
+        int n = ids.size();
+
+        // Input and output arcs of each node
+        int[] inBegin = new int[n + 1];
+        int[] outBegin = new int[n + 1];
+        for(e = 0; e < m; e++){
+            inBegin[heads[e] + 1]++;
+            outBegin[tails[e] + 1]++;
+        }
+        for(int v = 0; v < n; v++){
+            inBegin[v + 1] += inBegin[v];
+            outBegin[v + 1] += outBegin[v];
+        }
+        int[] inArcs = new int[m];
+        int[] outArcs = new int[m];
+        int[] inFill = Arrays.copyOf(inBegin, n);
+        int[] outFill = Arrays.copyOf(outBegin, n);
+        for(e = 0; e < m; e++){
+            inArcs[inFill[heads[e]]++] = e;
+            outArcs[outFill[tails[e]]++] = e;
+        }
 
-                    Integer f2 = v2;
-                    while(arbGraph.getOutputSize(f2) == 1){
-                        a2 = arbGraph.getInputArcsIterator(f2).next();
-                        p2.addFirst(a2);
-                        f2 = a2.getOutput();
+        // Forest of the processed nodes, with binary lifting tables. The tables are not updated when an arc of the
+        // forest is removed: parentArcs is.
+        int log = 1;
+        while((1 << log) < n)
+            log++;
+        int[][] up = new int[log][n];
+        int[] depths = new int[n];
+        int[] parentArcs = new int[n];
+        Arrays.fill(parentArcs, -1);
+        boolean[] removed = new boolean[m];
+
+        // Topological sweep
+        int[] unprocessedInputs = new int[n];
+        for(e = 0; e < m; e++)
+            unprocessedInputs[heads[e]]++;
+        boolean[] processed = new boolean[n];
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        for(int v = 0; v < n; v++)
+            if(unprocessedInputs[v] == 0)
+                queue.add(v);
+        int[] inputs = new int[n];
+
+        for(int nbProcessed = 0; nbProcessed < n; nbProcessed++){
+            if(queue.isEmpty()){
+                // Every remaining node is on a cycle or below one: break a cycle by removing the input arcs coming
+                // from unprocessed nodes of one node of that cycle.
+                int v = cycleEntry(inBegin, inArcs, tails, flows, removed, processed);
+                for(int i = inBegin[v]; i < inBegin[v + 1]; i++){
+                    int a = inArcs[i];
+                    if(!removed[a] && !processed[tails[a]]){
+                        removed[a] = true;
+                        noCycleFlow.remove(arcs[a]);
                     }
-
-                    HashSet<Integer> h1 = new HashSet<Integer>();
-                    h1.add(f1);
-                    h1.add(node);
-                    HashSet<Integer> h2 = new HashSet<Integer>();
-                    h2.add(f2);
-                    h1.add(node);
-
-                    while(!h1.contains(f2) && !h2.contains(f1)){
-                        if(arbGraph.getInputSize(f1) > 0){
-                            a1 = arbGraph.getInputArcsIterator(f1).next();
-                            p1.addFirst(a1);
-                            f1 = a1.getInput();
-                            while(arbGraph.getOutputSize(f1) == 1){
-                                a1 = arbGraph.getInputArcsIterator(f1).next();
-                                p1.addFirst(a1);
-                                f1 = a1.getInput();
-                            }
-                            h1.add(f1);
-                        }
-                        if(arbGraph.getInputSize(f2) > 0){
-                            a2 = arbGraph.getInputArcsIterator(f2).next();
-                            p2.addFirst(a2);
-                            f2 = a2.getOutput();
-                            while(arbGraph.getOutputSize(f2) == 1){
-                                a2 = arbGraph.getInputArcsIterator(f2).next();
-                                p2.addFirst(a2);
-                                f2 = a2.getOutput();
-                            }
-                            h2.add(f2);
-                        }
+                }
+                unprocessedInputs[v] = 0;
+                queue.add(v);
+            }
+            int v = queue.poll();
+            processed[v] = true;
+
+            int nbInputs = 0;
+            for(int i = inBegin[v]; i < inBegin[v + 1]; i++)
+                if(!removed[inArcs[i]])
+                    inputs[nbInputs++] = inArcs[i];
+
+            // Remove the inputs of v one by one, until one remains
+            int first = 0;
+            while(nbInputs - first >= 2){
+                int a1 = inputs[first], a2 = inputs[first + 1];
+                if(flows[a1] > flows[a2]){
+                    inputs[first + 1] = a1;
+                    a1 = a2;
+                    a2 = inputs[first + 1];
+                }
+                first++;
+                int ancestor = lowestCommonAncestor(up, depths, tails[a1], tails[a2]);
+                int flow = flows[a1];
+                int a = a1;
+                while(true){
+                    if(flows[a] == flow){
+                        removed[a] = true;
+                        noCycleFlow.remove(arcs[a]);
+                        if(parentArcs[heads[a]] == a)
+                            parentArcs[heads[a]] = -1;
                     }
-
-                    Integer f = (h1.contains(f2))?f2:f1;
-                    while(!p1.isEmpty() && !p1.getFirst().getInput().equals(f))
-                        p1.removeFirst();
-                    while(!p2.isEmpty() && !p2.getFirst().getInput().equals(f))
-                        p2.removeFirst();
-
-                    for(Arc a : p1){
-                        Integer flowa = noCycleFlow.get(a);
-                        if(flowa.equals(flow)){
-                            noCycleFlow.remove(a);
-                            arbGraph.removeEdge(a);
-                        }
-                        else
-                            noCycleFlow.put(a, flowa - flow);
+                    else{
+                        flows[a] -= flow;
+                        noCycleFlow.put(arcs[a], flows[a]);
                     }
-                    continue outer;
+                    if(tails[a] == ancestor)
+                        break;
+                    a = parentArcs[tails[a]];
+                    if(a == -1)
+                        break;
                 }
             }
+
+            // Attach v to the forest
+            if(nbInputs - first == 1){
+                int a = inputs[first];
+                int u = tails[a];
+                parentArcs[v] = a;
+                depths[v] = depths[u] + 1;
+                up[0][v] = u;
+            }
+            else{
+                depths[v] = 0;
+                up[0][v] = v;
+            }
+            for(int j = 1; j < log; j++)
+                up[j][v] = up[j - 1][up[j - 1][v]];
+
+            for(int i = outBegin[v]; i < outBegin[v + 1]; i++){
+                int a = outArcs[i];
+                if(!removed[a] && --unprocessedInputs[heads[a]] == 0)
+                    queue.add(heads[a]);
+            }
         }
         return noCycleFlow;
     }
 
+    /**
+     * @return an unprocessed node with an input arc coming from a processed node, minimizing the largest flow of
+     * its input arcs coming from unprocessed nodes, or the first unprocessed node if there is no such node.
+     */
+    private static int cycleEntry(int[] inBegin, int[] inArcs, int[] tails, int[] flows, boolean[] removed,
+                                  boolean[] processed){
+        int entry = -1;
+        int entryFlow = Integer.MAX_VALUE;
+        int first = -1;
+        for(int v = 0; v < processed.length; v++){
+            if(processed[v])
+                continue;
+            if(first == -1)
+                first = v;
+            boolean reached = false;
+            int cycleFlow = Integer.MIN_VALUE;
+            for(int i = inBegin[v]; i < inBegin[v + 1]; i++){
+                int a = inArcs[i];
+                if(removed[a])
+                    continue;
+                if(processed[tails[a]])
+                    reached = true;
+                else
+                    cycleFlow = Math.max(cycleFlow, flows[a]);
+            }
+            if(reached && cycleFlow < entryFlow){
+                entry = v;
+                entryFlow = cycleFlow;
+            }
+        }
+        return (entry == -1) ? first : entry;
+    }
+
+    /**
+     * @return the lowest common ancestor of u and v in the forest described by the binary lifting tables up and
+     * the depths, or -1 if they are not in the same tree.
+     */
+    private static int lowestCommonAncestor(int[][] up, int[] depths, int u, int v){
+        if(depths[u] < depths[v]){
+            int w = u;
+            u = v;
+            v = w;
+        }
+        for(int j = up.length - 1; j >= 0; j--)
+            if(depths[u] - (1 << j) >= depths[v])
+                u = up[j][u];
+        if(u == v)
+            return u;
+        for(int j = up.length - 1; j >= 0; j--){
+            if(up[j][u] != up[j][v]){
+                u = up[j][u];
+                v = up[j][v];
+            }
+        }
+        return (up[0][u] == up[0][v]) ? up[0][u] : -1;
+    }
+
 
     /**
      * Given an arborescence of arc, each one with the minimum capacity a cable following this arc should be
      * associated with, this method returns a new map associating each arc with a new capacity such that
      * - no more than this.maxNbSec distinct capacities is chosen
      * - the cost of the arborescence is minimized.
+     *
+     * The arcs are sorted by decreasing flow, and each arc receives a capacity of the static capacity table at most
+     * equal to the capacity of the previous arc. The first arc receives the smallest capacity greater than or equal
+     * to its flow. This is solved by dynamic programming over the arcs; each layer contains, for each candidate
+     * capacity and each number of changes of capacity, the cost of the best capacities of the previous arcs.
+     * The best previous capacity greater than the current one is given by a suffix minimum over the capacities:
+     * the running time is O(nbArcs * nbCapacities * maxNbSec), with nbCapacities the number of static capacities.
+     * Only the current layer and the back-pointers of all the layers are stored.
+     *
      * @param arborescenceFlows
-     * @return
+     * @return the new capacities, or null if no static capacity can carry the largest flow.
      */
     public HashMap<Arc,Integer> unviolateMaxNbSecConstraint(HashMap<Arc, Integer> arborescenceFlows){
         if(arborescenceFlows == null)
@@ -433,89 +663,107 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
         Collections.sort(keys, (arc, t1) -> -1 * arborescenceFlows.get(arc).compareTo(arborescenceFlows.get(t1)));
 
         int nbArcs = keys.size();
-        Arc firstArc = keys.get(0);
-        int maxFlow = arborescenceFlows.get(firstArc);
-
-        Double[][][] next = new Double[nbArcs][maxFlow][maxNbSec];
-        Integer[][][] nextCapa = new Integer[nbArcs][maxFlow][maxNbSec];
-
-        next[0][maxFlow-1][0] = this.getRealCableCost(firstArc, maxFlow);
-        nextCapa[0][maxFlow-1][0] = null;
-        for(int k = 1; k< maxNbSec; k++) {
-            next[0][maxFlow-1][k] = Double.POSITIVE_INFINITY;
-            nextCapa[0][maxFlow-1][k] = null;
-        }
-        for(int j = maxFlow-2; j>=0; j--){
-            for(int k = 0; k< maxNbSec; k++) {
-                next[0][j][k] = Double.POSITIVE_INFINITY;
-                nextCapa[0][j][k] = null;
-            }
-        }
+        int maxFlow = arborescenceFlows.get(keys.get(0));
+
+        // Candidate capacities, sorted, up to the smallest one carrying the largest flow
+        int top = Integer.MAX_VALUE;
+        for(Integer capa : getStaticCapacities())
+            if(capa >= maxFlow && capa < top)
+                top = capa;
+        if(top == Integer.MAX_VALUE)
+            return null;
+        final int maxCapa = top;
+        int[] capacities = getStaticCapacities().stream().mapToInt(Integer::intValue)
+                .filter(capa -> capa <= maxCapa).sorted().toArray();
+        int nbCapa = capacities.length;
+        int nbSec = maxNbSec;
+
+        // layer[t * nbSec + k] : minimum cost of the arcs up to the current one, if the current one uses
+        // capacities[t] and if the capacity changed k times.
+        double[] layer = new double[nbCapa * nbSec];
+        double[] previous = new double[nbCapa * nbSec];
+        // previousCapa[i][t * nbSec + k] : index of the capacity of the arc i-1 in the solution of layer i,
+        // -1 if there is no solution.
+        int[][] previousCapa = new int[nbArcs][nbCapa * nbSec];
+        double[] cableCosts = new double[nbCapa];
+        double[] suffixMin = new double[nbSec];
+        int[] suffixArgMin = new int[nbSec];
+
+        Arrays.fill(layer, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousCapa[0], -1);
+        CableCostTable table = getCableCostTable();
+        layer[(nbCapa - 1) * nbSec] = cableCost(table, table.getGraph().getArcIndex(keys.get(0)), keys.get(0), maxCapa);
 
         for(int i = 1; i<nbArcs; i++){
-            Arc a = keys.get(i);
-            Integer flow = arborescenceFlows.get(a);
-            for(int j = maxFlow-1; j>=flow-1; j--){
-                for(int k = 0; k < Math.min(i+1, maxNbSec); k++) {
-                    Double minValue = Double.POSITIVE_INFINITY;
-                    Integer minCapa = null;
-
-                    Double cableCost = getRealCableCost(a, j+1);
+            double[] tmp = previous;
+            previous = layer;
+            layer = tmp;
+            int[] back = previousCapa[i];
 
-                    if (k != 0) {
-                        for(int jp = j+1; jp < maxFlow; jp++) {
-                            Double candidate = cableCost + next[i-1][jp][k - 1];
+            Arc a = keys.get(i);
+            int flow = arborescenceFlows.get(a);
+            int arcId = table.getGraph().getArcIndex(a);
+            for(int t = 0; t < nbCapa; t++)
+                cableCosts[t] = (capacities[t] < flow) ? Double.POSITIVE_INFINITY : cableCost(table, arcId, a, capacities[t]);
+
+            Arrays.fill(suffixMin, Double.POSITIVE_INFINITY);
+            Arrays.fill(suffixArgMin, -1);
+            int maxK = Math.min(i+1, nbSec);
+            for(int t = nbCapa-1; t>=0; t--){
+                for(int k = 0; k < nbSec; k++) {
+                    double minValue = Double.POSITIVE_INFINITY;
+                    int minCapa = -1;
+                    if(k < maxK && capacities[t] >= flow) {
+                        double cableCost = cableCosts[t];
+                        // Change of capacity: best larger capacity of the previous arc, the smallest one in case of tie
+                        if (k != 0) {
+                            double candidate = cableCost + suffixMin[k - 1];
                             if (candidate < minValue) {
                                 minValue = candidate;
-                                minCapa = jp;
+                                minCapa = suffixArgMin[k - 1];
                             }
                         }
+                        // Same capacity as the previous arc
+                        double candidate = cableCost + previous[t * nbSec + k];
+                        if (candidate < minValue) {
+                            minValue = candidate;
+                            minCapa = t;
+                        }
                     }
-
-                    Double candidate = cableCost + next[i-1][j][k];
-                    if (candidate < minValue) {
-                        minValue = candidate;
-                        minCapa = j;
-                    }
-                    next[i][j][k] = minValue;
-                    nextCapa[i][j][k] = minCapa;
-                }
-                for(int k = i+1; k < maxNbSec; k++){
-                    next[i][j][k] = Double.POSITIVE_INFINITY;
-                    nextCapa[i][j][k] = null;
+                    layer[t * nbSec + k] = minValue;
+                    back[t * nbSec + k] = minCapa;
                 }
-            }
-            for(int j = flow-2; j>=0; j--){
-                for(int k = 0; k< maxNbSec; k++) {
-                    next[i][j][k] = Double.POSITIVE_INFINITY;
-                    nextCapa[i][j][k] = null;
+                for(int k = 0; k < nbSec; k++) {
+                    if(previous[t * nbSec + k] <= suffixMin[k]){
+                        suffixMin[k] = previous[t * nbSec + k];
+                        suffixArgMin[k] = t;
+                    }
                 }
             }
         }
 
-        HashMap<Arc,Integer> arborescenceCapacity = new HashMap<Arc,Integer>();
-
-        Double minCost = Double.POSITIVE_INFINITY;
-        Integer minCapa = null, nextMinCapa = null;
-        Integer minNbSec = null;
-        for(int j = 0; j< maxFlow; j++){
-            for(int k = 0; k<maxNbSec; k++){
-                if(next[nbArcs-1][j][k] < minCost){
-                    minCapa = j;
+        double minCost = Double.POSITIVE_INFINITY;
+        int minCapa = -1, minNbSec = -1;
+        for(int t = 0; t < nbCapa; t++){
+            for(int k = 0; k<nbSec; k++){
+                if(layer[t * nbSec + k] < minCost){
+                    minCapa = t;
                     minNbSec = k;
-                    minCost = next[nbArcs-1][j][k];
+                    minCost = layer[t * nbSec + k];
                 }
             }
         }
+        if(minCapa == -1)
+            return null;
 
-
+        HashMap<Arc,Integer> arborescenceCapacity = new HashMap<Arc,Integer>();
         for(int i = nbArcs-1; i>=0; i--){
             Arc a = keys.get(i);
-            arborescenceCapacity.put(a, minCapa+1);
+            arborescenceCapacity.put(a, capacities[minCapa]);
             if(i == 0)
                 break;
-            nextMinCapa = nextCapa[i][minCapa][minNbSec];
-            if(!nextMinCapa.equals(minCapa))
+            int nextMinCapa = previousCapa[i][minCapa * nbSec + minNbSec];
+            if(nextMinCapa != minCapa)
                 minNbSec--;
             minCapa = nextMinCapa;
         }
@@ -524,10 +772,20 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
 
     }
 
+    /**
+     * @return {@link #getRealCableCost(Arc, Integer)}, or +infinity if that cable can not be built.
+     */
+    private double cableCost(CableCostTable table, int arcId, Arc a, int capacity){
+        if(arcId != -1)
+            return table.hasCable(arcId, capacity) ? table.realCableCost(arcId, capacity) : Double.POSITIVE_INFINITY;
+        Double cost = getRealCableCost(a, capacity);
+        return (cost == null) ? Double.POSITIVE_INFINITY : cost;
+    }
+
     public String toString() {
         StringBuilder s = new StringBuilder();
         s.append("Noeuds\n\n");
-        for (Integer n : graph.getVertices()) {
+        for (Integer n : graph.getVerticesView()) {
             s.append(n);
             if (isRequired(n))
                 s.append(" ").append("x");
@@ -535,7 +793,7 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
         }
 
         s.append("\nArcs\n\n");
-        for (Arc a : graph.getEdges())
+        for (Arc a : graph.getEdgesView())
             s.append(a).append(" ").append(getCost(a)).append("\n");
 
         s.append("\nCapacities\n\n");
@@ -546,110 +804,36 @@ public class WindFarmInstance extends SteinerDirectedInstance implements
     }
 
 
+    /**
+     * Check that the solution is a feasible arborescence rooted at the root of this instance.
+     * @param arborescence : the arcs of the solution, each one with its capacity.
+     * @return every error of the solution.
+     * @see #testSolution(HashMap, boolean)
+     */
     public HashSet<ResultError> testSolution(HashMap<Arc,Integer> arborescence){
+        return testSolution(arborescence, false);
+    }
 
-        HashSet<ResultError> err = new HashSet<ResultError>();
-
-        Iterator<Integer> it = this.getGraph().getVerticesIterator();
-        WeightedQuickUnionPathCompressionUF unionFind = new WeightedQuickUnionPathCompressionUF(Collections2.max(it));
-        // not an arborescence
-        err.addAll(arborescence.keySet().stream().filter(a -> !unionFind.union(a.getInput() - 1, a.getOutput() - 1)).map(a -> ResultError.NOT_AN_ARBORESCENCE).collect(Collectors.toList()));
-
-        HashMap<Integer, HashSet<Integer>> adj = new HashMap<Integer, HashSet<Integer>>();
-        HashMap<Integer, Integer> prev = new HashMap<Integer, Integer>();
-        for(Arc a : arborescence.keySet()){
-            Integer u = a.getInput();
-            Integer v = a.getOutput();
-            if(v.equals(this.getRoot()))
-                err.add(ResultError.ROOT_NOT_THE_ROOT); // The root is not the root
-            HashSet<Integer> neigh = adj.get(u);
-            if(neigh == null)
-            {
-                neigh = new HashSet<Integer>();
-                adj.put(u,neigh);
-            }
-            neigh.add(v);
-
-            prev.put(v, u);
-        }
-
-
-        LinkedList<Integer> toCheck = new LinkedList<Integer>();
-        HashSet<Integer> visited = new HashSet<Integer>();
-        toCheck.add(this.getRoot());
-
-        LinkedList<Integer> toCheckReverse = new LinkedList<Integer>();
-
-
-        while(!toCheck.isEmpty()){
-            Integer u = toCheck.pollFirst();
-            if(visited.contains(u))
-                continue;
-            visited.add(u);
-            toCheckReverse.addFirst(u);
-
-            HashSet<Integer> neigh = adj.get(u);
-            if(neigh == null)
-            {
-                neigh = new HashSet<Integer>();
-            }
-
-            int deg = neigh.size();
-            Integer max = getMaximumOutputDegree(u);
-            if(max != null &&  deg > max)
-                err.add(ResultError.DEGREE_VIOLATED); // Degree constraint violated
-
-            toCheck.addAll(neigh);
-        }
-
-        if(!visited.containsAll(this.getRequiredVertices()))
-            err.add(ResultError.TERMINAL_NOT_REACHED); // Some terminals are not reached.
-        if(visited.size() != arborescence.size()+1)
-            err.add(ResultError.DISCONNECTED_FOREST); // Disconnected forest instead of arborescence
-
-
-        Integer nbCapacities = new HashSet<Integer>(arborescence.values()).size();
-
-        if(nbCapacities > maxNbSec)
-            err.add(ResultError.NBSEC_VIOLATED); // Too much capacities
-
-
-
-        visited.clear();
-        HashMap<Integer, Integer> flows = new HashMap<Integer, Integer>();
-
-        while(!toCheckReverse.isEmpty()){
-            Integer v = toCheckReverse.pollFirst();
-            Integer u = prev.get(v);
-            if(u == null)
-                continue;
-
-            Integer flowV = flows.get(v);
-            if(flowV == null) {
-                flowV = 0;
-            }
-            if(this.isRequired(v)) {
-                flowV++;
-            }
-            flows.put(v, flowV);
-
-            Integer flowU = flows.get(u);
-            if(flowU == null) {
-                flowU = 0;
-            }
-            flows.put(u, flowU + flowV);
-        }
-
-
-        for(Arc a : arborescence.keySet()) {
-            Integer capa = arborescence.get(a);
-            if(capa != null && flows.get(a.getOutput()) > capa)
-                err.add(ResultError.CAPACITY_VIOLATED); // Capacity constraint violated
-        }
-
-
-        return err;
-
+    /**
+     * Check that the solution is a feasible arborescence rooted at the root of this instance:
+     * - NOT_AN_ARBORESCENCE : the arcs, undirected, contain a cycle;
+     * - ROOT_NOT_THE_ROOT : an arc enters the root;
+     * - DEGREE_VIOLATED : a node reached from the root has more output arcs than its maximum output degree;
+     * - TERMINAL_NOT_REACHED : a terminal is not reached from the root;
+     * - DISCONNECTED_FOREST : some arcs are not reached from the root;
+     * - NBSEC_VIOLATED : more than maxNbSec distinct capacities are used;
+     * - CAPACITY_VIOLATED : the number of terminals below an arc is greater than its capacity.
+     *
+     * The check is done in two array-based passes over a snapshot of the solution. If stopAtFirstError is true,
+     * the check stops as soon as one error is found, and the returned set contains at most one error: the solution
+     * is feasible if and only if it is empty.
+     *
+     * @param arborescence : the arcs of the solution, each one with its capacity.
+     * @param stopAtFirstError
+     * @return the errors of the solution.
+     */
+    public HashSet<ResultError> testSolution(HashMap<Arc,Integer> arborescence, boolean stopAtFirstError){
+        return new SolutionValidator(this, stopAtFirstError).validate(arborescence);
     }
 
     public enum ResultError{
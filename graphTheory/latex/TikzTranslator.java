@@ -2,6 +2,7 @@ package graphTheory.latex;
 
 import graphTheory.graph.Arc;
 import graphTheory.graph.Graph;
+import graphTheory.graphDrawer.GraphStyle;
 
 /**
  * This class contains one method: it returns a string drawing a graphTheory.graph g in
@@ -20,18 +21,19 @@ public class TikzTranslator {
 	public static String translateGraph(Graph g) {
 		String s = "\n" + "\\begin{tikzpicture}\n"
 				+ "\\tikzset{tinoeud/.style={draw, minimum height=0.01cm}}\n";
+		GraphStyle style = g.getStyle();
 
 		s += "\n";
-		for (Integer n : g.getVertices()) {
+		for (Integer n : g.getVerticesView()) {
 			s += "\\node[tinoeud,"
-					+ (g.isSquareSymbol(n) ? "rectangle" : "circle") + ",fill="
-					+ (g.isFill(n) ? "black" : "white") + "] (V" + n + ") at ("
+					+ (style.isSquareSymbol(n) ? "rectangle" : "circle") + ",fill="
+					+ (style.isFill(n) ? "black" : "white") + "] (V" + n + ") at ("
 					+ (double) g.getNodeAbscissa(n) / 100 + ","
 					+ -(double) g.getNodeOrdinate(n) / 100 + ") {};\n";
 		}
 
 		s += "\n";
-		for (Arc a : g.getEdges()) {
+		for (Arc a : g.getEdgesView()) {
 			s += "\\draw[-" + (a.isDirected() ? ">" : "") + ",>=graphTheory.latex] (V"
 					+ a.getInput() + ") -- (V" + a.getOutput() + ");\n";
 		}
@@ -0,0 +1,253 @@
+package graphTheory.steinLib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read a .stp file line by line, directly from a memory mapping of the file.
+ * <p>
+ * The lines are cut as {@link java.io.BufferedReader#readLine()} does. The
+ * current line can either be decoded as a String with the default charset, or
+ * be parsed in place with {@link #parse(String, int, boolean)}, without
+ * allocating any object: this is used for the lines of the large sections of
+ * the file, describing the arcs and the coordinates.
+ *
+ * @author Watel Dimitri
+ *
+ */
+class STPLineReader {
+
+	/**
+	 * Largest number of digits of a parsed number. Any number with 15 digits
+	 * or less is exactly a double.
+	 */
+	private static final int MAX_DIGITS = 15;
+
+	/**
+	 * Exact powers of ten as doubles.
+	 */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
+	private ByteBuffer buffer;
+
+	/**
+	 * Bounds of the current line, without its end of line characters.
+	 */
+	private int begin, end;
+
+	/**
+	 * Position of the next line.
+	 */
+	private int next;
+
+	/**
+	 * Integers read by the last successful call to
+	 * {@link #parse(String, int, boolean)}.
+	 */
+	private int[] ints;
+
+	/**
+	 * Decimal number read by the last successful call to
+	 * {@link #parse(String, int, boolean)}.
+	 */
+	private double decimal;
+
+	/**
+	 * Map the file fileName in memory. If the file can not be read, the error
+	 * is printed and the reader is empty, as for a
+	 * {@link graphTheory.utils.FileManager}.
+	 *
+	 * @param fileName
+	 */
+	STPLineReader(String fileName) {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName),
+				StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+		} catch (IOException e) {
+			e.printStackTrace();
+			buffer = ByteBuffer.allocate(0);
+		}
+		next = 0;
+		ints = new int[4];
+	}
+
+	/**
+	 * Move to the next line of the file.
+	 *
+	 * @return false if every line of the file was read.
+	 */
+	boolean nextLine() {
+		int limit = buffer.limit();
+		if (next >= limit)
+			return false;
+		begin = next;
+		int i = begin;
+		byte b = 0;
+		while (i < limit && (b = buffer.get(i)) != '\n' && b != '\r')
+			i++;
+		end = i;
+		if (i < limit && b == '\r' && i + 1 < limit && buffer.get(i + 1) == '\n')
+			i++;
+		next = i + 1;
+		return true;
+	}
+
+	/**
+	 * @return the next line of the file, or null if every line was read.
+	 */
+	String readLine() {
+		return nextLine() ? getLine() : null;
+	}
+
+	/**
+	 * @return the current line, decoded with the default charset.
+	 */
+	String getLine() {
+		byte[] bytes = new byte[end - begin];
+		buffer.get(begin, bytes);
+		return new String(bytes, Charset.defaultCharset());
+	}
+
+	/**
+	 * @param word
+	 *            : lower case ASCII word.
+	 * @return true if the current line, trimmed and lower cased, is word.
+	 */
+	boolean lineEquals(String word) {
+		int i = trimmedBegin();
+		int j = trimmedEnd();
+		if (j - i != word.length())
+			return false;
+		for (int c = 0; i < j; i++, c++)
+			if (!isLetter(buffer.get(i), word.charAt(c)))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Parse the current line if, trimmed and lower cased, it matches
+	 * keyword\s+(\d+)\s+(\d+)... with count numbers, the last one followed by
+	 * an optional fractional part (\.(\d+))? if decimal is true.
+	 * <p>
+	 * The integers are then returned by {@link #getInt(int)}, and the last
+	 * number by {@link #getDecimal()} if decimal is true.
+	 * <p>
+	 * This method may return false for some matching lines, for instance if a
+	 * number is too large to be read here, in which case the line should be
+	 * parsed with a regular expression.
+	 *
+	 * @param keyword
+	 *            : lower case ASCII word.
+	 * @param count
+	 * @param decimal
+	 * @return true if the line was parsed.
+	 */
+	boolean parse(String keyword, int count, boolean decimal) {
+		int i = trimmedBegin();
+		int j = trimmedEnd();
+		for (int c = 0; c < keyword.length(); c++, i++)
+			if (i >= j || !isLetter(buffer.get(i), keyword.charAt(c)))
+				return false;
+
+		if (ints.length < count)
+			ints = new int[count];
+		for (int c = 0; c < count; c++) {
+			int start = i;
+			while (i < j && isWhitespace(buffer.get(i)))
+				i++;
+			if (i == start)
+				return false;
+
+			start = i;
+			long value = 0;
+			while (i < j && isDigit(buffer.get(i)))
+				value = 10 * value + (buffer.get(i++) - '0');
+			int digits = i - start;
+			if (digits == 0 || digits > MAX_DIGITS)
+				return false;
+
+			if (decimal && c == count - 1) {
+				int fractionDigits = 0;
+				if (i < j && buffer.get(i) == '.') {
+					i++;
+					start = i;
+					while (i < j && isDigit(buffer.get(i)))
+						value = 10 * value + (buffer.get(i++) - '0');
+					fractionDigits = i - start;
+					if (fractionDigits == 0
+							|| digits + fractionDigits > MAX_DIGITS)
+						return false;
+				}
+				// Both operands are exact doubles, the quotient is then
+				// correctly rounded, as with Double.valueOf.
+				this.decimal = value / POWERS_OF_TEN[fractionDigits];
+			} else {
+				if (value > Integer.MAX_VALUE)
+					return false;
+				ints[c] = (int) value;
+			}
+		}
+		return i == j;
+	}
+
+	/**
+	 * @param i
+	 * @return the i-th integer read by the last successful call to
+	 *         {@link #parse(String, int, boolean)}.
+	 */
+	int getInt(int i) {
+		return ints[i];
+	}
+
+	/**
+	 * @return the decimal number read by the last successful call to
+	 *         {@link #parse(String, int, boolean)}.
+	 */
+	double getDecimal() {
+		return decimal;
+	}
+
+	/**
+	 * @return the position of the first character of the current line which
+	 *         is not removed by {@link String#trim()}.
+	 */
+	private int trimmedBegin() {
+		int i = begin;
+		while (i < end && (buffer.get(i) & 0xff) <= ' ')
+			i++;
+		return i;
+	}
+
+	/**
+	 * @return the position after the last character of the current line which
+	 *         is not removed by {@link String#trim()}.
+	 */
+	private int trimmedEnd() {
+		int j = end;
+		while (j > begin && (buffer.get(j - 1) & 0xff) <= ' ')
+			j--;
+		return j;
+	}
+
+	private static boolean isLetter(byte b, char lowerCaseLetter) {
+		return b == lowerCaseLetter || b == lowerCaseLetter - 'a' + 'A';
+	}
+
+	private static boolean isDigit(byte b) {
+		return b >= '0' && b <= '9';
+	}
+
+	/**
+	 * @return true if b is matched by \s in a regular expression.
+	 */
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f'
+				|| b == '\r';
+	}
+}
@@ -2,10 +2,11 @@ package graphTheory.steinLib;
 
 import graphTheory.graph.Arc;
 import graphTheory.graph.DirectedGraph;
+import graphTheory.graph.Graph;
 import graphTheory.instances.steiner.classic.SteinerDirectedInstance;
 import graphTheory.instances.steiner.windfarm.WindFarmInstance;
-import graphTheory.utils.FileManager;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -30,8 +31,7 @@ public class STPWindFarmTranslator {
 	 */
 	public static WindFarmInstance translateFile(String fileName)
 			throws STPTranslationException, STPTranslationWindFarmException {
-		FileManager f = new FileManager();
-		f.openRead(fileName);
+		STPLineReader f = new STPLineReader(fileName);
 		String s;
 		int lineNumber = 0;
 		s = f.readLine();
@@ -107,15 +107,18 @@ public class STPWindFarmTranslator {
 		if (m.matches()) {
 			isDirected = m.group(1).equals("arcs");
 			if (isDirected) {
-				DirectedGraph dg = new DirectedGraph();
+				noe = Integer.valueOf(m.group(2));
+				// Each vertex is added with an arc: there are at most 2 * noe
+				// vertices, whatever the header says.
+				DirectedGraph dg = new DirectedGraph((int) Math.min(nov, 2L * noe), noe);
 				windFarmInstance = new WindFarmInstance(dg);
+				windFarmInstance.setCosts(new HashMap<Arc, Number>(Graph.initialCapacity(noe)));
 				letter = 'a';
 			} else {
 				throw new STPTranslationException(
 						STPTranslationExceptionEnum.EDGE_NUMBER_BAD_FORMAT, fileName,
 						lineNumber, s);
 			}
-			noe = Integer.valueOf(m.group(2));
 		} else {
 			throw new STPTranslationException(
 					STPTranslationExceptionEnum.EDGE_NUMBER_BAD_FORMAT, fileName,
@@ -148,13 +151,27 @@ public class STPWindFarmTranslator {
 
 
 		p = Pattern.compile(letter + "\\s+(\\d+)\\s+(\\d+)\\s+(\\d+)(\\.(\\d+))?");
+		String arcKeyword = String.valueOf(letter);
 		Double cost;
 		Integer n1, n2;
-
-		while (!s.equals("end")) {
-            // For each line in the graph section, define a new arc
-			m = p.matcher(s);
-			if (m.matches()) {
+		Graph g = windFarmInstance.getGraph();
+
+		boolean end = s.equals("end");
+		while (!end) {
+            // For each line in the graph section, define a new arc. Most
+            // lines are parsed in place, the other ones with the regular
+            // expression.
+			if (f.parse(arcKeyword, 2, true)) {
+				n1 = f.getInt(0);
+				n2 = f.getInt(1);
+				cost = f.getDecimal();
+			} else {
+				s = f.getLine().toLowerCase().trim();
+				m = p.matcher(s);
+				if (!m.matches())
+					throw new STPTranslationWindFarmException(
+							STPTranslationWindFarmExceptionEnum.EDGE_DESCRIPTION_BAD_FORMAT,
+							fileName, lineNumber, s);
 				n1 = Integer.valueOf(m.group(1));
 				n2 = Integer.valueOf(m.group(2));
 
@@ -164,39 +181,30 @@ public class STPWindFarmTranslator {
 				else{
 					cost = Double.valueOf(m.group(3)+m.group(4));
 				}
+			}
 
-				if (!windFarmInstance.getGraph().contains(n1)) {
-					windFarmInstance.getGraph().addVertice(n1);
-					nov--;
-				}
-				if (!windFarmInstance.getGraph().contains(n2)) {
-					windFarmInstance.getGraph().addVertice(n2);
-					nov--;
-				}
+			if (g.addVertice(n1))
+				nov--;
+			if (g.addVertice(n2))
+				nov--;
 
-				Arc a;
-				if (isDirected)
-					a = windFarmInstance.getGraph().addDirectedEdge(n1, n2);
-				else
-					a = windFarmInstance.getGraph().addUndirectedEdge(n1, n2);
-				windFarmInstance.setCost(a, cost);
-			} else {
-				throw new STPTranslationWindFarmException(
-						STPTranslationWindFarmExceptionEnum.EDGE_DESCRIPTION_BAD_FORMAT,
-						fileName, lineNumber, s);
-			}
+			Arc a;
+			if (isDirected)
+				a = g.addDirectedEdge(n1, n2);
+			else
+				a = g.addUndirectedEdge(n1, n2);
+			windFarmInstance.setCost(a, cost);
 
-			s = f.readLine();
 			lineNumber++;
-			if (s == null) {
+			if (!f.nextLine()) {
 				throw new STPTranslationException(
 						STPTranslationExceptionEnum.FILE_ENDED_BEFORE_EOF_SG,
-						fileName, lineNumber, s);
+						fileName, lineNumber, null);
 			}
-			s = s.toLowerCase();
-			s = s.trim();
+			end = f.lineEquals("end");
 			noe--;
 		}
+		s = "end";
         // Check if the number of arcs in the graph and the number of arcs written at the beginning of the section
         // is the same
 		if (noe != 0) {
@@ -332,37 +340,43 @@ public class STPWindFarmTranslator {
             s = s.trim();
             p = Pattern.compile("dd\\s+(\\d+)\\s+(\\d+)\\s+(\\d+)");
             HashSet<Integer> visited = new HashSet<Integer>();
-            while (!s.equals("end")) {
-                m = p.matcher(s);
-                if (m.matches()) {
-                    // For each line, define the coordinates of a node
-                    Integer node = Integer.valueOf(m.group(1));
-                    Integer x = Integer.valueOf(m.group(2));
-                    Integer y = Integer.valueOf(m.group(3));
-
-                    if(visited.contains(node))
+            end = s.equals("end");
+            while (!end) {
+                // For each line, define the coordinates of a node
+                Integer node, x, y;
+                if (f.parse("dd", 3, false)) {
+                    node = f.getInt(0);
+                    x = f.getInt(1);
+                    y = f.getInt(2);
+                }
+                else {
+                    s = f.getLine().toLowerCase().trim();
+                    m = p.matcher(s);
+                    if (!m.matches())
                         throw new STPTranslationWindFarmException(
-                                STPTranslationWindFarmExceptionEnum.COORDINATES_DEFINED_TWICE,
+                                STPTranslationWindFarmExceptionEnum.COORDINATES_DESC_BAD_FORMAT,
                                 fileName, lineNumber, s);
-                    visited.add(node);
-                    windFarmInstance.getGraph().setNodeAbscissa(node, x);
-                    windFarmInstance.getGraph().setNodeOrdinate(node, y);
+                    node = Integer.valueOf(m.group(1));
+                    x = Integer.valueOf(m.group(2));
+                    y = Integer.valueOf(m.group(3));
                 }
-                else{
+
+                if(!visited.add(node))
                     throw new STPTranslationWindFarmException(
-                            STPTranslationWindFarmExceptionEnum.COORDINATES_DESC_BAD_FORMAT,
-                            fileName, lineNumber, s);
-                }
-                s = f.readLine();
+                            STPTranslationWindFarmExceptionEnum.COORDINATES_DEFINED_TWICE,
+                            fileName, lineNumber, f.getLine().toLowerCase().trim());
+                windFarmInstance.getGraph().setNodeAbscissa(node, x);
+                windFarmInstance.getGraph().setNodeOrdinate(node, y);
+
                 lineNumber++;
-                if (s == null) {
+                if (!f.nextLine()) {
                     throw new STPTranslationWindFarmException(
                             STPTranslationWindFarmExceptionEnum.FILE_ENDED_BEFORE_EOF_SCAP,
-                            fileName, lineNumber, s);
+                            fileName, lineNumber, null);
                 }
-                s = s.toLowerCase();
-                s = s.trim();
+                end = f.lineEquals("end");
             }
+            s = "end";
         }
 
 
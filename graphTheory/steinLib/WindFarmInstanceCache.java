@@ -0,0 +1,361 @@
+package graphTheory.steinLib;
+
+import graphTheory.graph.Arc;
+import graphTheory.graph.DirectedGraph;
+import graphTheory.graph.Graph;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ *
+ * This class contains static methods to save a {@link WindFarmInstance} in a
+ * compact binary file, and to load it back, much faster than translating its
+ * .stp file with {@link STPWindFarmTranslator}.
+ * <p>
+ * The file starts with a header containing a magic number, the version of the
+ * format, and the length and the last modification date of the .stp file the
+ * instance was translated from, if any. It then contains the vertices, the
+ * arcs and their costs, the coordinates of the nodes, the root, the
+ * terminals, the maximum output degrees, the parameters and the capacity
+ * costs of the instance.
+ * <p>
+ * The vertices and the arcs are saved in their iteration order, and the
+ * output and input arcs of each node in their own iteration order. A loaded
+ * instance is then iterated in the same orders as the saved one if the
+ * latter was built by {@link STPWindFarmTranslator} (or, more generally, if
+ * its sets never contained more elements than they contain now), and the
+ * algorithms return the same solutions on both instances.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class WindFarmInstanceCache {
+
+	/**
+	 * Extension of a cache file, replacing the extension .stp of the file it
+	 * caches.
+	 */
+	public static final String CACHE_EXTENSION = ".stpc";
+
+	/**
+	 * "WFIC"
+	 */
+	private static final int MAGIC_NUMBER = 0x57464943;
+
+	/**
+	 * Version of the format. It must be incremented each time the format is
+	 * modified, so that older files are not read anymore.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Size of the header: magic number, version, length and last modification
+	 * date of the source.
+	 */
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+	/**
+	 * @param stpFile
+	 * @return the cache file of stpFile: the file of the same directory with
+	 *         the same name, the extension .stp being replaced by
+	 *         {@link #CACHE_EXTENSION}.
+	 */
+	public static File getCacheFile(File stpFile) {
+		String name = stpFile.getName();
+		if (name.endsWith(".stp"))
+			name = name.substring(0, name.length() - 4);
+		return new File(stpFile.getParentFile(), name + CACHE_EXTENSION);
+	}
+
+	/**
+	 * @param cacheFile
+	 * @param source
+	 * @return true if cacheFile exists, was written with the current version
+	 *         of the format, and caches the current content of source: source
+	 *         has the length and the last modification date saved in the
+	 *         header of cacheFile.
+	 */
+	public static boolean isUpToDate(File cacheFile, File source) {
+		if (!cacheFile.isFile() || !source.isFile())
+			return false;
+		try (FileChannel channel = FileChannel.open(cacheFile.toPath(),
+				StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining())
+				if (channel.read(header) < 0)
+					return false;
+			header.flip();
+			return header.getInt() == MAGIC_NUMBER
+					&& header.getInt() == VERSION
+					&& header.getLong() == source.length()
+					&& header.getLong() == source.lastModified();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Save the instance in cacheFile. The file is firstly written in a
+	 * temporary file of the same directory, and then renamed: a file being
+	 * written is never read.
+	 *
+	 * @param instance
+	 * @param cacheFile
+	 * @param source
+	 *            the .stp file the instance was translated from, or null.
+	 * @throws IOException
+	 */
+	public static void write(WindFarmInstance instance, File cacheFile,
+			File source) throws IOException {
+		File dir = cacheFile.getAbsoluteFile().getParentFile();
+		File tmp = File.createTempFile(cacheFile.getName(), ".tmp", dir);
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(VERSION);
+				out.writeLong(source == null ? -1L : source.length());
+				out.writeLong(source == null ? -1L : source.lastModified());
+				write(instance, out);
+			}
+			Files.move(tmp.toPath(), cacheFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			tmp.delete();
+		}
+	}
+
+	private static void write(WindFarmInstance instance, DataOutputStream out)
+			throws IOException {
+		Graph g = instance.getGraph();
+
+		// Vertices and their coordinates
+		out.writeInt(g.getNumberOfVertices());
+		Iterator<Integer> itv = g.getVerticesIterator();
+		while (itv.hasNext()) {
+			Integer v = itv.next();
+			out.writeInt(v);
+			out.writeInt(g.getNodeAbscissa(v));
+			out.writeInt(g.getNodeOrdinate(v));
+		}
+
+		// Arcs and their costs
+		HashMap<Arc, Integer> indexes = new HashMap<Arc, Integer>(
+				Graph.initialCapacity(g.getNumberOfEdges()));
+		out.writeInt(g.getNumberOfEdges());
+		Iterator<Arc> ita = g.getEdgesIterator();
+		while (ita.hasNext()) {
+			Arc a = ita.next();
+			indexes.put(a, indexes.size());
+			out.writeInt(a.getInput());
+			out.writeInt(a.getOutput());
+			Double cost = instance.getDoubleCost(a, true);
+			out.writeDouble(cost == null ? Double.NaN : cost);
+		}
+
+		// Order of the output and input arcs of each node
+		itv = g.getVerticesIterator();
+		while (itv.hasNext()) {
+			Iterator<Arc> it = g.getOutputArcsIterator(itv.next());
+			while (it.hasNext())
+				out.writeInt(indexes.get(it.next()));
+		}
+		itv = g.getVerticesIterator();
+		while (itv.hasNext()) {
+			Iterator<Arc> it = g.getInputArcsIterator(itv.next());
+			while (it.hasNext())
+				out.writeInt(indexes.get(it.next()));
+		}
+
+		// Root and terminals
+		writeInteger(out, instance.getRoot());
+		out.writeInt(instance.getNumberOfRequiredVertices());
+		Iterator<Integer> itt = instance.getRequiredVerticesIterator();
+		while (itt.hasNext())
+			out.writeInt(itt.next());
+
+		// Maximum output degrees
+		HashMap<Integer, Integer> degrees = instance.getMaximumOutputDegree();
+		out.writeInt(degrees.size());
+		for (Map.Entry<Integer, Integer> e : degrees.entrySet()) {
+			out.writeInt(e.getKey());
+			writeInteger(out, e.getValue());
+		}
+
+		// Parameters
+		writeInteger(out, instance.getMaxNbSec());
+		writeDouble(out, instance.getDistanceMin());
+		writeDouble(out, instance.getStaticStaticBranchingNodeCost());
+		writeDouble(out, instance.getDynamicStaticBranchingNodeCost());
+
+		// Capacities
+		out.writeInt(instance.getStaticCapacities().size());
+		for (Integer capacity : instance.getStaticCapacities()) {
+			out.writeInt(capacity);
+			writeDouble(out, instance.getStaticCapacityCost(capacity));
+		}
+		out.writeInt(instance.getDynamicCapacities().size());
+		for (Integer capacity : instance.getDynamicCapacities()) {
+			out.writeInt(capacity);
+			writeDouble(out, instance.getDynamicCapacityCost(capacity));
+		}
+	}
+
+	/**
+	 * Load an instance saved with
+	 * {@link #write(WindFarmInstance, File, File)}. The file is read through a
+	 * memory mapping.
+	 *
+	 * @param cacheFile
+	 * @return the saved instance.
+	 * @throws IOException
+	 *             if the file can not be read, is not a cache file, or was
+	 *             written with another version of the format.
+	 */
+	public static WindFarmInstance read(File cacheFile) throws IOException {
+		ByteBuffer in;
+		try (FileChannel channel = FileChannel.open(cacheFile.toPath(),
+				StandardOpenOption.READ)) {
+			in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			if (in.getInt() != MAGIC_NUMBER)
+				throw new IOException(cacheFile + " is not a wind farm cache file");
+			int version = in.getInt();
+			if (version != VERSION)
+				throw new IOException(cacheFile + " has version " + version
+						+ " instead of " + VERSION);
+			in.getLong();
+			in.getLong();
+			return read(in);
+		} catch (RuntimeException e) {
+			// Truncated file or incoherent content
+			throw new IOException(cacheFile + " is corrupted", e);
+		}
+	}
+
+	private static WindFarmInstance read(ByteBuffer in) {
+		// Vertices and their coordinates
+		int n = in.getInt();
+		int[] vertices = new int[n];
+		int[] abscissas = new int[n];
+		int[] ordinates = new int[n];
+		for (int i = 0; i < n; i++) {
+			vertices[i] = in.getInt();
+			abscissas[i] = in.getInt();
+			ordinates[i] = in.getInt();
+		}
+
+		// Arcs and their costs
+		int m = in.getInt();
+		int[] inputs = new int[m];
+		int[] outputs = new int[m];
+		double[] costs = new double[m];
+		for (int i = 0; i < m; i++) {
+			inputs[i] = in.getInt();
+			outputs[i] = in.getInt();
+			costs[i] = in.getDouble();
+		}
+		int[] outputOrder = new int[m];
+		for (int i = 0; i < m; i++)
+			outputOrder[i] = in.getInt();
+		int[] inputOrder = new int[m];
+		for (int i = 0; i < m; i++)
+			inputOrder[i] = in.getInt();
+
+		DirectedGraph g = new DirectedGraph(n, m);
+		for (int i = 0; i < n; i++)
+			g.addVertice(vertices[i]);
+		Arc[] arcs = g.addOrderedDirectedEdges(inputs, outputs, outputOrder,
+				inputOrder);
+
+		WindFarmInstance instance = new WindFarmInstance(g);
+		instance.setCosts(new HashMap<Arc, Number>(Graph.initialCapacity(m)));
+		for (int i = 0; i < m; i++)
+			if (arcs[i] != null && !Double.isNaN(costs[i]))
+				instance.setCost(arcs[i], costs[i]);
+
+		for (int i = 0; i < n; i++) {
+			if (abscissas[i] != 0)
+				g.setNodeAbscissa(vertices[i], abscissas[i]);
+			if (ordinates[i] != 0)
+				g.setNodeOrdinate(vertices[i], ordinates[i]);
+		}
+
+		// Root and terminals
+		instance.setRoot(readInteger(in));
+		int k = in.getInt();
+		ArrayList<Integer> terminals = new ArrayList<Integer>(k);
+		for (int i = 0; i < k; i++)
+			terminals.add(in.getInt());
+		for (Integer t : terminals)
+			instance.setRequired(t, true);
+
+		// Maximum output degrees
+		int size = in.getInt();
+		for (int i = 0; i < size; i++)
+			instance.setMaximumOutputDegree(in.getInt(), readInteger(in));
+
+		// Parameters
+		instance.setMaxNbSec(readInteger(in));
+		instance.setDistanceMin(readDouble(in));
+		instance.setStaticStaticBranchingNodeCost(readDouble(in));
+		instance.setDynamicStaticBranchingNodeCost(readDouble(in));
+
+		// Capacities
+		size = in.getInt();
+		for (int i = 0; i < size; i++)
+			instance.setStaticCapacityCost(in.getInt(), readDouble(in));
+		size = in.getInt();
+		for (int i = 0; i < size; i++)
+			instance.setDynamicCapacityCost(in.getInt(), readDouble(in));
+
+		return instance;
+	}
+
+	/**
+	 * Write an Integer which may be null.
+	 */
+	private static void writeInteger(DataOutputStream out, Integer i)
+			throws IOException {
+		out.writeBoolean(i != null);
+		out.writeInt(i == null ? 0 : i);
+	}
+
+	/**
+	 * Write a Double which may be null.
+	 */
+	private static void writeDouble(DataOutputStream out, Double d)
+			throws IOException {
+		out.writeBoolean(d != null);
+		out.writeDouble(d == null ? 0D : d);
+	}
+
+	private static Integer readInteger(ByteBuffer in) {
+		boolean defined = in.get() != 0;
+		int i = in.getInt();
+		return defined ? i : null;
+	}
+
+	private static Double readDouble(ByteBuffer in) {
+		boolean defined = in.get() != 0;
+		double d = in.getDouble();
+		return defined ? d : null;
+	}
+}
@@ -0,0 +1,383 @@
+package graphTheory.utils;
+
+import java.util.Arrays;
+
+/**
+ * Indexed Fibonacci heap of int ids, each id being associated with a key
+ * (double, boolean) compared as a {@link DoubleBoolean}: the doubles are
+ * firstly compared and, if equals, false is smaller than true.
+ * <p>
+ * This heap performs exactly the same operations as a
+ * {@link CustomFibonacciHeap} of {@link DoubleBoolean}: the ids with equal
+ * keys are removed in the same order. But the ids are integers between 0 and
+ * the capacity of the heap minus 1, and the nodes (their siblings, parent,
+ * child, degree and mark) and the keys are stored in flat arrays indexed by
+ * the ids: no object is allocated when an id is inserted, when its key is
+ * decreased or when the minimum is removed.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class IndexedDoubleBooleanFibonacciHeap {
+
+	private static final double oneOverLogPhi = 1.0 / Math.log((1.0 + Math
+			.sqrt(5.0)) / 2.0);
+
+	/**
+	 * Siblings of each id in its circular list, its parent, one of its
+	 * children (-1 if none), and its number of children.
+	 */
+	private int[] left, right, parent, child, degree;
+	private boolean[] mark;
+
+	/**
+	 * inHeap[id] is true if id is in the heap.
+	 */
+	private boolean[] inHeap;
+
+	/**
+	 * Key of each id. The key of an id removed from the heap is kept until it
+	 * is inserted again.
+	 */
+	private double[] doubles;
+	private boolean[] booleans;
+
+	/**
+	 * Id with minimum key, -1 if the heap is empty.
+	 */
+	private int minId;
+
+	private int size;
+
+	/**
+	 * Roots of each degree during the consolidation.
+	 */
+	private int[] roots;
+
+	/**
+	 * Create an empty heap of ids between 0 and capacity - 1.
+	 *
+	 * @param capacity
+	 */
+	public IndexedDoubleBooleanFibonacciHeap(int capacity) {
+		left = new int[capacity];
+		right = new int[capacity];
+		parent = new int[capacity];
+		child = new int[capacity];
+		degree = new int[capacity];
+		mark = new boolean[capacity];
+		inHeap = new boolean[capacity];
+		doubles = new double[capacity];
+		booleans = new boolean[capacity];
+		roots = new int[((int) Math.floor(Math.log(Math.max(1, capacity)) * oneOverLogPhi)) + 2];
+		minId = -1;
+		size = 0;
+	}
+
+	/**
+	 * @return the number of ids this heap can contain.
+	 */
+	public int getCapacity() {
+		return inHeap.length;
+	}
+
+	/**
+	 * @return the number of ids in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if the heap is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return minId == -1;
+	}
+
+	/**
+	 * @param id
+	 * @return true if id is in the heap.
+	 */
+	public boolean contains(int id) {
+		return inHeap[id];
+	}
+
+	/**
+	 * @param id
+	 * @return the double of the key of id. If id is not in the heap anymore,
+	 *         return the double of its key when it was removed.
+	 */
+	public double getDoubleValue(int id) {
+		return doubles[id];
+	}
+
+	/**
+	 * @param id
+	 * @return the boolean of the key of id. If id is not in the heap anymore,
+	 *         return the boolean of its key when it was removed.
+	 */
+	public boolean getBooleanValue(int id) {
+		return booleans[id];
+	}
+
+	/**
+	 * @return the id with minimum key, without removing it, or -1 if the heap
+	 *         is empty.
+	 */
+	public int min() {
+		return minId;
+	}
+
+	/**
+	 * Remove all the ids of the heap.
+	 * <p>
+	 * Running time: O(capacity)
+	 * </p>
+	 */
+	public void clear() {
+		Arrays.fill(inHeap, false);
+		minId = -1;
+		size = 0;
+	}
+
+	/**
+	 * Insert id in the root list of the heap with the key (d, b).
+	 * <p>
+	 * Running time: O(1)
+	 * </p>
+	 *
+	 * @param id
+	 * @param d
+	 * @param b
+	 * @throws IllegalArgumentException
+	 *             if id is already in the heap.
+	 */
+	public void insert(int id, double d, boolean b) {
+		if (inHeap[id])
+			throw new IllegalArgumentException("insert() got an id already in the heap");
+		inHeap[id] = true;
+		doubles[id] = d;
+		booleans[id] = b;
+		parent[id] = -1;
+		child[id] = -1;
+		degree[id] = 0;
+		mark[id] = false;
+
+		// concatenate id into min list
+		if (minId != -1) {
+			left[id] = minId;
+			right[id] = right[minId];
+			right[minId] = id;
+			left[right[id]] = id;
+
+			if (isLess(id, minId))
+				minId = id;
+		} else {
+			left[id] = id;
+			right[id] = id;
+			minId = id;
+		}
+
+		size++;
+	}
+
+	/**
+	 * Decrease the key of id, which must be in the heap, to (d, b). The heap
+	 * is not consolidated.
+	 * <p>
+	 * Running time: O(1) amortized
+	 * </p>
+	 *
+	 * @param id
+	 * @param d
+	 * @param b
+	 * @throws IllegalArgumentException
+	 *             if (d, b) is greater than the current key of id.
+	 */
+	public void decreaseKey(int id, double d, boolean b) {
+		if (isLess(doubles[id], booleans[id], d, b))
+			throw new IllegalArgumentException("decreaseKey() got larger key value");
+		doubles[id] = d;
+		booleans[id] = b;
+
+		int y = parent[id];
+		if (y != -1 && isLess(id, y)) {
+			cut(id, y);
+			cascadingCut(y);
+		}
+
+		if (isLess(id, minId))
+			minId = id;
+	}
+
+	/**
+	 * Remove the id with minimum key from the heap, and consolidate the
+	 * trees of the heap.
+	 * <p>
+	 * Running time: O(log n) amortized
+	 * </p>
+	 *
+	 * @return the removed id, or -1 if the heap is empty.
+	 */
+	public int removeMin() {
+		int z = minId;
+		if (z == -1)
+			return -1;
+
+		// add each child of z to the root list
+		int numKids = degree[z];
+		int x = child[z];
+		while (numKids > 0) {
+			int tempRight = right[x];
+			left[right[x]] = left[x];
+			right[left[x]] = right[x];
+			addToRootList(x);
+			parent[x] = -1;
+			x = tempRight;
+			numKids--;
+		}
+
+		// remove z from the root list
+		right[left[z]] = right[z];
+		left[right[z]] = left[z];
+
+		if (z == right[z])
+			minId = -1;
+		else {
+			minId = right[z];
+			consolidate();
+		}
+
+		size--;
+		inHeap[z] = false;
+		return z;
+	}
+
+	private static boolean isLess(double d1, boolean b1, double d2, boolean b2) {
+		int comp = Double.compare(d1, d2);
+		return comp < 0 || (comp == 0 && !b1 && b2);
+	}
+
+	private boolean isLess(int id1, int id2) {
+		return isLess(doubles[id1], booleans[id1], doubles[id2], booleans[id2]);
+	}
+
+	/**
+	 * Add x to the root list, at the right of the minimum.
+	 */
+	private void addToRootList(int x) {
+		left[x] = minId;
+		right[x] = right[minId];
+		right[minId] = x;
+		left[right[x]] = x;
+	}
+
+	private void cascadingCut(int y) {
+		int z = parent[y];
+		while (z != -1) {
+			if (!mark[y]) {
+				mark[y] = true;
+				return;
+			}
+			cut(y, z);
+			y = z;
+			z = parent[y];
+		}
+	}
+
+	private void consolidate() {
+		// size still counts the removed minimum, as in CustomFibonacciHeap
+		int arraySize = ((int) Math.floor(Math.log(size) * oneOverLogPhi)) + 1;
+		if (arraySize > roots.length)
+			roots = new int[arraySize];
+		Arrays.fill(roots, 0, arraySize, -1);
+
+		int numRoots = 0;
+		int x = minId;
+		do {
+			numRoots++;
+			x = right[x];
+		} while (x != minId);
+
+		while (numRoots > 0) {
+			int d = degree[x];
+			int next = right[x];
+
+			while (true) {
+				int y = roots[d];
+				if (y == -1)
+					break;
+				if (isLess(y, x)) {
+					int temp = y;
+					y = x;
+					x = temp;
+				}
+				link(y, x);
+				roots[d] = -1;
+				d++;
+			}
+
+			roots[d] = x;
+			x = next;
+			numRoots--;
+		}
+
+		// Rebuild the root list from the roots of each degree
+		minId = -1;
+		for (int i = 0; i < arraySize; i++) {
+			int y = roots[i];
+			if (y == -1)
+				continue;
+			if (minId != -1) {
+				right[left[y]] = right[y];
+				left[right[y]] = left[y];
+				addToRootList(y);
+				if (isLess(y, minId))
+					minId = y;
+			} else
+				minId = y;
+		}
+	}
+
+	/**
+	 * Remove x from the child list of y, and add it to the root list.
+	 */
+	private void cut(int x, int y) {
+		right[left[x]] = right[x];
+		left[right[x]] = left[x];
+		degree[y]--;
+
+		if (child[y] == x)
+			child[y] = right[x];
+		if (degree[y] == 0)
+			child[y] = -1;
+
+		addToRootList(x);
+		parent[x] = -1;
+		mark[x] = false;
+	}
+
+	/**
+	 * Make y a child of x.
+	 */
+	private void link(int y, int x) {
+		right[left[y]] = right[y];
+		left[right[y]] = left[y];
+
+		parent[y] = x;
+		if (child[x] == -1) {
+			child[x] = y;
+			right[y] = y;
+			left[y] = y;
+		} else {
+			left[y] = child[x];
+			right[y] = right[child[x]];
+			right[child[x]] = y;
+			left[right[y]] = y;
+		}
+
+		degree[x]++;
+		mark[y] = false;
+	}
+}
@@ -0,0 +1,265 @@
+package graphTheory.utils;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap of int ids, each id being associated with a key
+ * (double, boolean) compared as a {@link DoubleBoolean}: the doubles are
+ * firstly compared and, if equals, false is smaller than true.
+ * <p>
+ * The ids are integers between 0 and the capacity of the heap minus 1. The
+ * heap, the positions of the ids and the keys are stored in flat arrays: no
+ * object is allocated when an id is inserted, when its key is decreased or
+ * when the minimum is removed.
+ * <p>
+ * Contrary to {@link CustomFibonacciHeap}, the order in which ids with equal
+ * keys are removed is not the order of a Fibonacci heap.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class IndexedDoubleBooleanHeap {
+
+	/**
+	 * Default number of children of each node of the heap.
+	 */
+	public static final int DEFAULT_ARITY = 4;
+
+	private final int arity;
+
+	/**
+	 * heap[i] is the id at position i of the heap.
+	 */
+	private int[] heap;
+
+	/**
+	 * positions[id] is the position of id in the heap, or -1 if it is not in
+	 * the heap.
+	 */
+	private int[] positions;
+
+	/**
+	 * Key of each id. The key of an id removed from the heap is kept until it
+	 * is inserted again.
+	 */
+	private double[] doubles;
+	private boolean[] booleans;
+
+	private int size;
+
+	/**
+	 * Create an empty heap of ids between 0 and capacity - 1, with
+	 * {@link #DEFAULT_ARITY} children per node.
+	 *
+	 * @param capacity
+	 */
+	public IndexedDoubleBooleanHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	/**
+	 * Create an empty heap of ids between 0 and capacity - 1, with arity
+	 * children per node.
+	 *
+	 * @param capacity
+	 * @param arity
+	 */
+	public IndexedDoubleBooleanHeap(int capacity, int arity) {
+		if (arity < 2)
+			throw new IllegalArgumentException("arity must be at least 2");
+		this.arity = arity;
+		heap = new int[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, -1);
+		doubles = new double[capacity];
+		booleans = new boolean[capacity];
+		size = 0;
+	}
+
+	/**
+	 * @return the number of ids this heap can contain.
+	 */
+	public int getCapacity() {
+		return positions.length;
+	}
+
+	/**
+	 * @return the number of ids in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if the heap is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param id
+	 * @return true if id is in the heap.
+	 */
+	public boolean contains(int id) {
+		return positions[id] != -1;
+	}
+
+	/**
+	 * @param id
+	 * @return the double of the key of id. If id is not in the heap anymore,
+	 *         return the double of its key when it was removed.
+	 */
+	public double getDoubleValue(int id) {
+		return doubles[id];
+	}
+
+	/**
+	 * @param id
+	 * @return the boolean of the key of id. If id is not in the heap anymore,
+	 *         return the boolean of its key when it was removed.
+	 */
+	public boolean getBooleanValue(int id) {
+		return booleans[id];
+	}
+
+	/**
+	 * @return the id with minimum key, without removing it, or -1 if the heap
+	 *         is empty.
+	 */
+	public int min() {
+		return (size == 0) ? -1 : heap[0];
+	}
+
+	/**
+	 * Remove all the ids of the heap.
+	 * <p>
+	 * Running time: O(size)
+	 * </p>
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			positions[heap[i]] = -1;
+		size = 0;
+	}
+
+	/**
+	 * Insert id in the heap with the key (d, b).
+	 * <p>
+	 * Running time: O(log n)
+	 * </p>
+	 *
+	 * @param id
+	 * @param d
+	 * @param b
+	 * @throws IllegalArgumentException
+	 *             if id is already in the heap.
+	 */
+	public void insert(int id, double d, boolean b) {
+		if (positions[id] != -1)
+			throw new IllegalArgumentException("insert() got an id already in the heap");
+		doubles[id] = d;
+		booleans[id] = b;
+		heap[size] = id;
+		positions[id] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * Decrease the key of id, which must be in the heap, to (d, b).
+	 * <p>
+	 * Running time: O(log n)
+	 * </p>
+	 *
+	 * @param id
+	 * @param d
+	 * @param b
+	 * @throws IllegalArgumentException
+	 *             if (d, b) is greater than the current key of id.
+	 */
+	public void decreaseKey(int id, double d, boolean b) {
+		if (isLess(doubles[id], booleans[id], d, b))
+			throw new IllegalArgumentException("decreaseKey() got larger key value");
+		doubles[id] = d;
+		booleans[id] = b;
+		siftUp(positions[id]);
+	}
+
+	/**
+	 * Remove the id with minimum key from the heap.
+	 * <p>
+	 * Running time: O(d log n)
+	 * </p>
+	 *
+	 * @return the removed id, or -1 if the heap is empty.
+	 */
+	public int removeMin() {
+		if (size == 0)
+			return -1;
+		int id = heap[0];
+		positions[id] = -1;
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return id;
+	}
+
+	private static boolean isLess(double d1, boolean b1, double d2, boolean b2) {
+		int comp = Double.compare(d1, d2);
+		return comp < 0 || (comp == 0 && !b1 && b2);
+	}
+
+	private boolean isLess(int id1, int id2) {
+		return isLess(doubles[id1], booleans[id1], doubles[id2], booleans[id2]);
+	}
+
+	private void siftUp(int i) {
+		int id = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) / arity;
+			int parentId = heap[parent];
+			if (!isLess(id, parentId))
+				break;
+			heap[i] = parentId;
+			positions[parentId] = i;
+			i = parent;
+		}
+		heap[i] = id;
+		positions[id] = i;
+	}
+
+	private void siftDown(int i) {
+		int id = heap[i];
+		while (true) {
+			int first = arity * i + 1;
+			if (first >= size)
+				break;
+			int last = Math.min(first + arity, size);
+			int min = first;
+			for (int c = first + 1; c < last; c++)
+				if (isLess(heap[c], heap[min]))
+					min = c;
+			if (!isLess(heap[min], id))
+				break;
+			heap[i] = heap[min];
+			positions[heap[i]] = i;
+			i = min;
+		}
+		heap[i] = id;
+		positions[id] = i;
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				sb.append(", ");
+			int id = heap[i];
+			sb.append(id).append("=[").append(doubles[id]).append(", ").append(booleans[id]).append("]");
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,238 @@
+package graphTheory.utils;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over a set of points of the plane with integer coordinates,
+ * answering nearest neighbour queries without scanning every point.
+ * <p>
+ * The grid covers the bounding box of the points with about two points per
+ * cell. A query scans the rings of cells around the cell of the queried point,
+ * from the nearest to the farthest, and stops as soon as the next rings cannot
+ * contain a nearer point: on evenly spread points, a query for the k nearest
+ * neighbours scans O(k) points.
+ * <p>
+ * The points are numbered from 0 to nbPoints - 1. Equal distances are ordered
+ * by the numbers of the points, so that the answers do not depend on the
+ * order of the scan.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public final class PointGrid {
+
+	private final int[] xs;
+	private final int[] ys;
+	private final int nbPoints;
+
+	private final int minX;
+	private final int minY;
+	private final int cellsPerSide;
+	private final double cellSize;
+
+	/**
+	 * The points of the cell c are cellPoints[cellBegin[c]] to
+	 * cellPoints[cellBegin[c + 1] - 1]. The cell (i, j) has number
+	 * i * cellsPerSide + j.
+	 */
+	private final int[] cellBegin;
+	private final int[] cellPoints;
+
+	/**
+	 * The grid keeps a reference to the arrays xs and ys, which must not be
+	 * modified.
+	 *
+	 * @param xs
+	 *            : abscissa of each point.
+	 * @param ys
+	 *            : ordinate of each point.
+	 * @param nbPoints
+	 *            : number of points, the first nbPoints cells of xs and ys are
+	 *            used.
+	 */
+	public PointGrid(int[] xs, int[] ys, int nbPoints) {
+		this.xs = xs;
+		this.ys = ys;
+		this.nbPoints = nbPoints;
+
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+		long maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+		for (int p = 0; p < nbPoints; p++) {
+			minX = Math.min(minX, xs[p]);
+			minY = Math.min(minY, ys[p]);
+			maxX = Math.max(maxX, xs[p]);
+			maxY = Math.max(maxY, ys[p]);
+		}
+		this.minX = minX;
+		this.minY = minY;
+		long side = (nbPoints == 0) ? 1 : Math.max(maxX - minX, maxY - minY) + 1;
+		cellsPerSide = Math.max(1, (int) Math.sqrt(nbPoints / 2D));
+		cellSize = side / (double) cellsPerSide;
+
+		int nbCells = cellsPerSide * cellsPerSide;
+		cellBegin = new int[nbCells + 1];
+		int[] cells = new int[nbPoints];
+		for (int p = 0; p < nbPoints; p++) {
+			cells[p] = column(p) * cellsPerSide + row(p);
+			cellBegin[cells[p] + 1]++;
+		}
+		for (int c = 0; c < nbCells; c++)
+			cellBegin[c + 1] += cellBegin[c];
+		cellPoints = new int[nbPoints];
+		int[] fill = Arrays.copyOf(cellBegin, nbCells);
+		for (int p = 0; p < nbPoints; p++)
+			cellPoints[fill[cells[p]]++] = p;
+	}
+
+	public int getNumberOfPoints() {
+		return nbPoints;
+	}
+
+	private int column(int p) {
+		return Math.min(cellsPerSide - 1, (int) ((xs[p] - (long) minX) / cellSize));
+	}
+
+	private int row(int p) {
+		return Math.min(cellsPerSide - 1, (int) ((ys[p] - (long) minY) / cellSize));
+	}
+
+	/**
+	 * @param p
+	 * @param q
+	 * @return the square of the euclidean distance between the points p and q.
+	 */
+	public long squaredDistance(int p, int q) {
+		long dx = (long) xs[p] - xs[q];
+		long dy = (long) ys[p] - ys[q];
+		return dx * dx + dy * dy;
+	}
+
+	/**
+	 * Find the k nearest points of the point p, p excluded.
+	 *
+	 * @param p
+	 * @param k
+	 * @param neighbours
+	 *            : array of length at least k, filled with the nearest points,
+	 *            from the nearest to the farthest.
+	 * @param distances
+	 *            : array of length at least k, filled with the squared
+	 *            distances of the nearest points.
+	 * @return the number of found points, min(k, nbPoints - 1).
+	 */
+	public int nearest(int p, int k, int[] neighbours, long[] distances) {
+		int nb = 0;
+		if (k <= 0)
+			return 0;
+		int cx = column(p), cy = row(p);
+		for (int r = 0; r < cellsPerSide; r++) {
+			for (int i = Math.max(0, cx - r); i <= Math.min(cellsPerSide - 1, cx + r); i++) {
+				int step = (r == 0 || i == cx - r || i == cx + r) ? 1 : 2 * r;
+				for (int j = cy - r; j <= cy + r; j += step) {
+					if (j < 0 || j >= cellsPerSide)
+						continue;
+					int c = i * cellsPerSide + j;
+					for (int t = cellBegin[c]; t < cellBegin[c + 1]; t++) {
+						int q = cellPoints[t];
+						if (q != p)
+							nb = insert(neighbours, distances, nb, k, q, squaredDistance(p, q));
+					}
+				}
+			}
+			// The points of the next rings are at distance at least r * cellSize
+			double bound = r * cellSize;
+			if (nb == k && distances[k - 1] <= bound * bound)
+				break;
+		}
+		return nb;
+	}
+
+	/**
+	 * Insert the point q at squared distance d in the nb sorted nearest
+	 * points, if it is one of the k nearest points.
+	 *
+	 * @return the new number of sorted points.
+	 */
+	private static int insert(int[] neighbours, long[] distances, int nb, int k, int q, long d) {
+		int i = nb;
+		if (nb == k) {
+			if (d > distances[k - 1] || (d == distances[k - 1] && q > neighbours[k - 1]))
+				return nb;
+			i--;
+		}
+		else
+			nb++;
+		while (i > 0 && (distances[i - 1] > d || (distances[i - 1] == d && neighbours[i - 1] > q))) {
+			neighbours[i] = neighbours[i - 1];
+			distances[i] = distances[i - 1];
+			i--;
+		}
+		neighbours[i] = q;
+		distances[i] = d;
+		return nb;
+	}
+
+	/**
+	 * Find, in each of the nbSectors angular sectors around the point p, the
+	 * nearest point at squared distance at most maxSquaredDistance. The sector
+	 * s contains the points q such that the angle of the vector pq is in [2 pi
+	 * s / nbSectors, 2 pi (s + 1) / nbSectors[.
+	 *
+	 * @param p
+	 * @param nbSectors
+	 * @param maxSquaredDistance
+	 * @param neighbours
+	 *            : array of length at least nbSectors, neighbours[s] is filled
+	 *            with the nearest point of the sector s, -1 if there is none.
+	 * @param distances
+	 *            : array of length at least nbSectors, filled with the squared
+	 *            distances of the nearest points.
+	 * @return the number of non empty sectors.
+	 */
+	public int nearestBySector(int p, int nbSectors, long maxSquaredDistance, int[] neighbours, long[] distances) {
+		Arrays.fill(neighbours, 0, nbSectors, -1);
+		int nb = 0;
+		int cx = column(p), cy = row(p);
+		for (int r = 0; r < cellsPerSide; r++) {
+			for (int i = Math.max(0, cx - r); i <= Math.min(cellsPerSide - 1, cx + r); i++) {
+				int step = (r == 0 || i == cx - r || i == cx + r) ? 1 : 2 * r;
+				for (int j = cy - r; j <= cy + r; j += step) {
+					if (j < 0 || j >= cellsPerSide)
+						continue;
+					int c = i * cellsPerSide + j;
+					for (int t = cellBegin[c]; t < cellBegin[c + 1]; t++) {
+						int q = cellPoints[t];
+						long d = squaredDistance(p, q);
+						if (q == p || d > maxSquaredDistance)
+							continue;
+						int s = sector(p, q, nbSectors);
+						if (neighbours[s] == -1)
+							nb++;
+						else if (d > distances[s] || (d == distances[s] && q > neighbours[s]))
+							continue;
+						neighbours[s] = q;
+						distances[s] = d;
+					}
+				}
+			}
+			double bound = r * cellSize;
+			if (bound * bound > maxSquaredDistance)
+				break;
+			if (nb == nbSectors) {
+				long farthest = 0;
+				for (int s = 0; s < nbSectors; s++)
+					farthest = Math.max(farthest, distances[s]);
+				if (farthest <= bound * bound)
+					break;
+			}
+		}
+		return nb;
+	}
+
+	private int sector(int p, int q, int nbSectors) {
+		double angle = Math.atan2((double) ys[q] - ys[p], (double) xs[q] - xs[p]);
+		if (angle < 0)
+			angle += 2 * Math.PI;
+		return Math.min(nbSectors - 1, (int) (angle * nbSectors / (2 * Math.PI)));
+	}
+}
@@ -35,6 +35,9 @@ package graphTheory.utils;
 	    private int count;     // number of components
 
 	    private int numberOfNodes;
+
+	    private int[] merged;  // sites whose parent or size changed since the last reinit
+	    private int numberOfMerged;
 	    
 	    /**
 	     * Initializes an empty union-find data structure with N isolated components 0 through N-1.
@@ -45,15 +48,28 @@ package graphTheory.utils;
 	    	numberOfNodes = N;
 	        parent = new int[numberOfNodes];
 	        size = new int[numberOfNodes];
-	    	reinit();
+	        merged = new int[numberOfNodes];
+	        for (int i = 0; i < numberOfNodes; i++) {
+	            parent[i] = i;
+	            size[i] = 1;
+	        }
+	        numberOfMerged = 0;
+	        count = numberOfNodes;
 	    }
 
+	    /**
+	     * Split every component into isolated sites. Only the sites merged since the
+	     * last call are reinitialized: the running time is linear in the number of
+	     * unions, not in N.
+	     */
 	    public void reinit(){
 	    	count = numberOfNodes;
-	        for (int i = 0; i < numberOfNodes; i++) {
+	        for (int j = 0; j < numberOfMerged; j++) {
+	            int i = merged[j];
 	            parent[i] = i;
 	            size[i] = 1;
 	        }
+	        numberOfMerged = 0;
 	    }
 
 	    /**
@@ -118,6 +134,10 @@ package graphTheory.utils;
 	        int rootQ = find(q);
 	        if (rootP == rootQ) return false;
 
+	        // a root of size 1 was never merged: record it the first time it is
+	        if (size[rootP] == 1) merged[numberOfMerged++] = rootP;
+	        if (size[rootQ] == 1) merged[numberOfMerged++] = rootQ;
+
 	        // make smaller root point to larger one
 	        if (size[rootP] < size[rootQ]) {
 	            parent[rootP] = rootQ;
@@ -0,0 +1,146 @@
+package graphTheory.benchmarks;
+
+import graphTheory.generators.steinLib.STPGenerator;
+import graphTheory.generators.windfarm.RandomWindFarmGenerator;
+import graphTheory.graph.Arc;
+import graphTheory.graph.DirectedGraph;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Random wind farm instance generated by {@link RandomWindFarmGenerator} with
+ * any number of turbines, the default parameters of that generator and a
+ * fixed seed.
+ * <p>
+ * The same instance can be written in a STP file, to benchmark the parser, or
+ * copied into an instance of a subclass of {@link WindFarmInstance}.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class GeneratedInstance {
+
+	private final WindFarmInstance instance;
+
+	/**
+	 * @param nbTurbines
+	 * @param seed
+	 */
+	public GeneratedInstance(int nbTurbines, long seed) {
+		instance = new RandomWindFarmGenerator(nbTurbines, seed).generate();
+	}
+
+	/**
+	 * @return the generated instance.
+	 */
+	public WindFarmInstance getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Write this instance in a STP file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		DirectedGraph g = instance.getGraph();
+		try (PrintWriter pw = new PrintWriter(file)) {
+			pw.println("33D32946 STP File, STP Format Version 1.0");
+			pw.println("SECTION Comment");
+			pw.println("Name \"" + g.getParam(STPGenerator.OUTPUT_NAME_PARAM_NAME) + "\"");
+			pw.println("END");
+			pw.println();
+			pw.println("SECTION Graph");
+			pw.println("Nodes " + g.getNumberOfVertices());
+			pw.println("Arcs " + g.getNumberOfEdges());
+			Iterator<Arc> it = g.getEdgesIterator();
+			while (it.hasNext()) {
+				Arc a = it.next();
+				pw.println("A " + a.getInput() + " " + a.getOutput() + " "
+						+ format(instance.getDoubleCost(a)));
+			}
+			pw.println("END");
+			pw.println();
+			pw.println("SECTION Terminals");
+			pw.println("Terminals " + instance.getNumberOfRequiredVertices());
+			pw.println("Root " + instance.getRoot());
+			for (Integer v : instance.getRequiredVertices())
+				pw.println("T " + v);
+			pw.println("END");
+			pw.println();
+			pw.println("SECTION Coordinates");
+			for (Integer v : g.getVerticesView())
+				pw.println("DD " + v + " " + g.getNodeAbscissa(v) + " " + g.getNodeOrdinate(v));
+			pw.println("END");
+			pw.println();
+			pw.println("SECTION Parameters");
+			pw.println("DEGSS " + instance.getMaximumOutputDegree(instance.getRoot()));
+			pw.println("NBSEC " + instance.getMaxNbSec());
+			pw.println("DMIN " + format(instance.getDistanceMin()));
+			pw.println("JONCTION STST " + format(instance.getStaticStaticBranchingNodeCost()));
+			pw.println("JONCTION STDYN " + format(instance.getDynamicStaticBranchingNodeCost()));
+			pw.println("END");
+			pw.println();
+			pw.println("SECTION Capacities");
+			for (Integer capacity : instance.getStaticCapacities())
+				pw.println("ST " + capacity + " " + format(instance.getStaticCapacityCost(capacity)));
+			for (Integer capacity : instance.getDynamicCapacities())
+				pw.println("DY " + capacity + " " + format(instance.getDynamicCapacityCost(capacity)));
+			pw.println("END");
+			pw.println();
+			pw.println("EOF");
+		}
+	}
+
+	private static String format(double d) {
+		return String.format(Locale.ROOT, "%.2f", d);
+	}
+
+	/**
+	 * Copy this instance.
+	 *
+	 * @param constructor
+	 *            : builds an empty instance over a graph, for instance
+	 *            WindFarmInstance::new
+	 * @return the copy.
+	 */
+	public <T extends WindFarmInstance> T build(Function<DirectedGraph, T> constructor) {
+		DirectedGraph source = instance.getGraph();
+		DirectedGraph g = new DirectedGraph(source.getNumberOfVertices(), source.getNumberOfEdges());
+		for (Integer v : source.getVerticesView()) {
+			g.addVertice(v);
+			g.setNodeAbscissa(v, source.getNodeAbscissa(v));
+			g.setNodeOrdinate(v, source.getNodeOrdinate(v));
+		}
+		T copy = constructor.apply(g);
+		Iterator<Arc> it = source.getEdgesIterator();
+		while (it.hasNext()) {
+			Arc a = it.next();
+			Arc arc = g.addDirectedEdge(a.getInput(), a.getOutput());
+			copy.setCost(arc, instance.getDoubleCost(a));
+		}
+		copy.setRoot(instance.getRoot());
+		copy.setRequired(instance.getRequiredVertices());
+		for (Integer v : source.getVerticesView()) {
+			Integer degree = instance.getMaximumOutputDegree(v);
+			if (degree != null)
+				copy.setMaximumOutputDegree(v, degree);
+		}
+		copy.setMaxNbSec(instance.getMaxNbSec());
+		copy.setDistanceMin(instance.getDistanceMin());
+		copy.setStaticStaticBranchingNodeCost(instance.getStaticStaticBranchingNodeCost());
+		copy.setDynamicStaticBranchingNodeCost(instance.getDynamicStaticBranchingNodeCost());
+		for (Integer capacity : instance.getStaticCapacities())
+			copy.setStaticCapacityCost(capacity, instance.getStaticCapacityCost(capacity));
+		for (Integer capacity : instance.getDynamicCapacities())
+			copy.setDynamicCapacityCost(capacity, instance.getDynamicCapacityCost(capacity));
+		return copy;
+	}
+}
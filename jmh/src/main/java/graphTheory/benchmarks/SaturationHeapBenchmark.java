@@ -0,0 +1,155 @@
+package graphTheory.benchmarks;
+
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.steinLib.STPTranslationException;
+import graphTheory.steinLib.STPTranslationWindFarmException;
+import graphTheory.steinLib.STPWindFarmTranslator;
+import graphTheory.utils.CustomFibonacciHeap;
+import graphTheory.utils.CustomFibonacciHeapNode;
+import graphTheory.utils.DoubleBoolean;
+import graphTheory.utils.FibonacciHeap;
+import graphTheory.utils.IndexedDoubleBooleanHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay the operations FLAC applies on its heap of saturating nodes, recorded
+ * on a wind farm instance, on the three available heaps.
+ * <p>
+ * As the heaps do not break ties in the same way, a replayed removal of the
+ * minimum may remove another id than the recorded one. A decrease of key of an
+ * id which is not in the heap anymore is then replayed as an insertion, and an
+ * insertion of an id already in the heap as a decrease of key. The
+ * {@link FibonacciHeap} only uses the doubles of the keys.
+ *
+ * @author Watel Dimitri
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaturationHeapBenchmark {
+
+	@Param({"SteinLibWindFarm/small/deg10/T10S10.stp"})
+	public String instanceFile;
+
+	private SaturationHeapTrace trace;
+
+	private Integer[] boxedIds;
+
+	@Setup(Level.Trial)
+	public void setup() throws STPTranslationException, STPTranslationWindFarmException {
+		WindFarmInstance instance = STPWindFarmTranslator.translateFile(instanceFile);
+		trace = SaturationHeapTrace.record(instance);
+		boxedIds = new Integer[trace.getCapacity()];
+		for (int id = 0; id < boxedIds.length; id++)
+			boxedIds[id] = id;
+	}
+
+	@Benchmark
+	public void indexedDoubleBooleanHeap(Blackhole bh) {
+		IndexedDoubleBooleanHeap heap = new IndexedDoubleBooleanHeap(trace.getCapacity());
+		for (int i = 0; i < trace.size(); i++) {
+			int id = trace.getId(i);
+			switch (trace.getOperation(i)) {
+				case SaturationHeapTrace.INSERT:
+				case SaturationHeapTrace.DECREASE_KEY:
+					if (heap.contains(id))
+						heap.decreaseKey(id, trace.getDoubleValue(i), trace.getBooleanValue(i));
+					else
+						heap.insert(id, trace.getDoubleValue(i), trace.getBooleanValue(i));
+					break;
+				case SaturationHeapTrace.REMOVE_MIN:
+					bh.consume(heap.removeMin());
+					break;
+				default:
+					heap.clear();
+			}
+		}
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public void customFibonacciHeap(Blackhole bh) {
+		CustomFibonacciHeap<Integer, DoubleBoolean> heap = new CustomFibonacciHeap<Integer, DoubleBoolean>();
+		CustomFibonacciHeapNode<Integer, DoubleBoolean>[] nodes = new CustomFibonacciHeapNode[trace.getCapacity()];
+		boolean[] inHeap = new boolean[trace.getCapacity()];
+		for (int i = 0; i < trace.size(); i++) {
+			int id = trace.getId(i);
+			switch (trace.getOperation(i)) {
+				case SaturationHeapTrace.INSERT:
+				case SaturationHeapTrace.DECREASE_KEY:
+					DoubleBoolean key = new DoubleBoolean(trace.getDoubleValue(i), trace.getBooleanValue(i));
+					if (inHeap[id]) {
+						if (!nodes[id].getKey().isStrLess(key))
+							heap.decreaseKey(nodes[id], key);
+					}
+					else {
+						nodes[id] = heap.insert(boxedIds[id], key);
+						inHeap[id] = true;
+					}
+					break;
+				case SaturationHeapTrace.REMOVE_MIN:
+					CustomFibonacciHeapNode<Integer, DoubleBoolean> node = heap.removeMin();
+					if (node != null)
+						inHeap[node.getData()] = false;
+					bh.consume(node);
+					break;
+				default:
+					heap.clear();
+					Arrays.fill(inHeap, false);
+			}
+		}
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public void fibonacciHeap(Blackhole bh) {
+		FibonacciHeap<Integer> heap = new FibonacciHeap<Integer>();
+		FibonacciHeap<Integer>.FibonacciHeapNode<Integer>[] nodes = new FibonacciHeap.FibonacciHeapNode[trace.getCapacity()];
+		boolean[] inHeap = new boolean[trace.getCapacity()];
+		for (int i = 0; i < trace.size(); i++) {
+			int id = trace.getId(i);
+			switch (trace.getOperation(i)) {
+				case SaturationHeapTrace.INSERT:
+				case SaturationHeapTrace.DECREASE_KEY:
+					double key = trace.getDoubleValue(i);
+					if (inHeap[id]) {
+						if (key <= nodes[id].getKey())
+							heap.decreaseKey(nodes[id], key);
+					}
+					else {
+						nodes[id] = heap.insert(boxedIds[id], key);
+						inHeap[id] = true;
+					}
+					break;
+				case SaturationHeapTrace.REMOVE_MIN:
+					FibonacciHeap<Integer>.FibonacciHeapNode<Integer> node = heap.removeMin();
+					if (node != null)
+						inHeap[node.getData()] = false;
+					bh.consume(node);
+					break;
+				default:
+					heap.clear();
+					Arrays.fill(inHeap, false);
+			}
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package graphTheory.benchmarks;
+
+import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.GFLAC2WindFarmAlgorithm3;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.utils.IndexedDoubleBooleanHeap;
+
+import java.util.Arrays;
+
+/**
+ * Sequence of operations FLAC applies on its heap of saturating nodes while
+ * {@link GFLAC2WindFarmAlgorithm3} runs over an instance.
+ * <p>
+ * Each operation is an insertion, a decrease of key, a removal of the minimum
+ * or a clear, applied on an id between 0 and {@link #getCapacity()} - 1.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class SaturationHeapTrace {
+
+	public static final byte INSERT = 0;
+	public static final byte DECREASE_KEY = 1;
+	public static final byte REMOVE_MIN = 2;
+	public static final byte CLEAR = 3;
+
+	private int capacity;
+
+	private byte[] operations;
+	private int[] ids;
+	private double[] doubles;
+	private boolean[] booleans;
+	private int size;
+
+	private SaturationHeapTrace(int capacity) {
+		this.capacity = capacity;
+		operations = new byte[1024];
+		ids = new int[1024];
+		doubles = new double[1024];
+		booleans = new boolean[1024];
+		size = 0;
+	}
+
+	/**
+	 * Run {@link GFLAC2WindFarmAlgorithm3} over the instance and record the
+	 * operations applied on its heap.
+	 *
+	 * @param instance
+	 * @return the recorded trace.
+	 */
+	public static SaturationHeapTrace record(WindFarmInstance instance) {
+		SaturationHeapTrace[] trace = new SaturationHeapTrace[1];
+		GFLAC2WindFarmAlgorithm3 gf = new GFLAC2WindFarmAlgorithm3() {
+			@Override
+			protected IndexedDoubleBooleanHeap createIndexedHeap(int capacity) {
+				trace[0] = new SaturationHeapTrace(capacity);
+				return trace[0].new RecordingHeap(capacity);
+			}
+		};
+		gf.setUseIndexedHeap(true);
+		gf.setCheckFeasibility(false);
+		gf.setInstance(instance);
+		gf.compute();
+		return trace[0];
+	}
+
+	/**
+	 * @return the ids of the trace are between 0 and capacity - 1.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of operations of the trace.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public byte getOperation(int i) {
+		return operations[i];
+	}
+
+	public int getId(int i) {
+		return ids[i];
+	}
+
+	public double getDoubleValue(int i) {
+		return doubles[i];
+	}
+
+	public boolean getBooleanValue(int i) {
+		return booleans[i];
+	}
+
+	private void add(byte operation, int id, double d, boolean b) {
+		if (size == operations.length) {
+			operations = Arrays.copyOf(operations, 2 * size);
+			ids = Arrays.copyOf(ids, 2 * size);
+			doubles = Arrays.copyOf(doubles, 2 * size);
+			booleans = Arrays.copyOf(booleans, 2 * size);
+		}
+		operations[size] = operation;
+		ids[size] = id;
+		doubles[size] = d;
+		booleans[size] = b;
+		size++;
+	}
+
+	/**
+	 * Heap adding each operation it receives to the trace.
+	 */
+	private class RecordingHeap extends IndexedDoubleBooleanHeap {
+
+		RecordingHeap(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public void clear() {
+			add(CLEAR, -1, 0D, false);
+			super.clear();
+		}
+
+		@Override
+		public void insert(int id, double d, boolean b) {
+			add(INSERT, id, d, b);
+			super.insert(id, d, b);
+		}
+
+		@Override
+		public void decreaseKey(int id, double d, boolean b) {
+			add(DECREASE_KEY, id, d, b);
+			super.decreaseKey(id, d, b);
+		}
+
+		@Override
+		public int removeMin() {
+			int id = super.removeMin();
+			add(REMOVE_MIN, id, 0D, false);
+			return id;
+		}
+	}
+}
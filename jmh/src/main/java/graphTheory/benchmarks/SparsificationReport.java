@@ -0,0 +1,74 @@
+package graphTheory.benchmarks;
+
+import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.GFLAC2WindFarmAlgorithm3;
+import graphTheory.generators.windfarm.RandomWindFarmGenerator;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+
+import java.util.Locale;
+
+/**
+ * Quality and speed of the simplifications of a wind farm instance: for
+ * generated instances whose candidate graph is complete, print the number of
+ * arcs kept by {@link WindFarmInstance#simplifyWithNeighbours(int, int)} for
+ * several numbers of neighbours and sectors, and by
+ * {@link WindFarmInstance#simplifyWithAngles(double)}, the time of the
+ * simplification, and the time and cost of GFLAC2 on the simplified instance
+ * compared with the complete one.
+ * <p>
+ * Arguments: the numbers of turbines of the instances (default 50 100 200).
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class SparsificationReport {
+
+	private static final int[][] NEIGHBOURS_AND_SECTORS = { { 4, 0 }, { 4, 8 }, { 8, 0 }, { 8, 8 }, { 16, 8 } };
+
+	public static void main(String[] args) {
+		int[] sizes = { 50, 100, 200 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+
+		System.out.println(String.format(Locale.ROOT, "%-10s %-14s %9s %10s %10s %14s %8s %s", "turbines",
+				"simplification", "arcs", "simp(ms)", "gflac(ms)", "cost", "ratio", "errors"));
+		for (int nbTurbines : sizes) {
+			RandomWindFarmGenerator generator = new RandomWindFarmGenerator(nbTurbines, 1L);
+			generator.setNbNeighbours(Integer.MAX_VALUE);
+			WindFarmInstance instance = generator.generate();
+
+			double reference = report(nbTurbines, "none", instance, 0L, Double.NaN);
+			for (int[] config : NEIGHBOURS_AND_SECTORS) {
+				long start = System.nanoTime();
+				WindFarmInstance simplified = instance.simplifyWithNeighbours(config[0], config[1]);
+				long time = System.nanoTime() - start;
+				report(nbTurbines, "k=" + config[0] + ",s=" + config[1], simplified, time, reference);
+			}
+			long start = System.nanoTime();
+			WindFarmInstance simplified = instance.simplifyWithAngles(Math.PI / 12);
+			long time = System.nanoTime() - start;
+			report(nbTurbines, "angles", simplified, time, reference);
+		}
+	}
+
+	/**
+	 * Run GFLAC2 over the instance and print one line of the report.
+	 *
+	 * @return the cost of the solution of GFLAC2.
+	 */
+	private static double report(int nbTurbines, String name, WindFarmInstance instance,
+			long simplificationTime, double reference) {
+		GFLAC2WindFarmAlgorithm3 algorithm = new GFLAC2WindFarmAlgorithm3();
+		algorithm.setInstance(instance);
+		algorithm.compute();
+		double cost = algorithm.getCost();
+		String errors = (algorithm.getArborescence() == null) ? "no solution"
+				: instance.testSolution(algorithm.getArborescence()).toString();
+		System.out.println(String.format(Locale.ROOT, "%-10d %-14s %9d %10.1f %10d %14.2f %8.4f %s", nbTurbines, name,
+				instance.getGraph().getNumberOfEdges(), simplificationTime / 1e6, algorithm.getTime(), cost,
+				cost / reference, errors));
+		return cost;
+	}
+}
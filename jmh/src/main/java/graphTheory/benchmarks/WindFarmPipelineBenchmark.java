@@ -0,0 +1,163 @@
+package graphTheory.benchmarks;
+
+import graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms.GFLAC2WindFarmAlgorithm3;
+import graphTheory.graph.Arc;
+import graphTheory.graph.DirectedGraph;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import graphTheory.steinLib.STPTranslationException;
+import graphTheory.steinLib.STPTranslationWindFarmException;
+import graphTheory.steinLib.STPWindFarmTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark each stage of the resolution of a wind farm instance, on generated
+ * instances of increasing size (see {@link GeneratedInstance}): the parsing of
+ * the STP file, GFLAC2, the two repairs of its output, the check of the
+ * solution and the simplification of the instance.
+ * <p>
+ * The inputs of the repairs are recorded during a first run of GFLAC2. Run
+ * with the gc profiler (-prof gc, as the jmh task of the build does) to get
+ * the allocation rate of each stage.
+ *
+ * @author Watel Dimitri
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindFarmPipelineBenchmark {
+
+	@Param({ "50", "200", "800" })
+	public int nbTurbines;
+
+	@Param({ "1" })
+	public long seed;
+
+	private File file;
+
+	private WindFarmInstance instance;
+
+	private GFLAC2WindFarmAlgorithm3 algorithm;
+
+	/**
+	 * Input of {@link WindFarmInstance#unviolateTreeConstraint(HashMap)}.
+	 */
+	private HashMap<Arc, Integer> treeFlow;
+
+	/**
+	 * Input of {@link WindFarmInstance#unviolateMaxNbSecConstraint(HashMap)}.
+	 */
+	private HashMap<Arc, Integer> nbSecFlow;
+
+	/**
+	 * Solution returned by GFLAC2.
+	 */
+	private HashMap<Arc, Integer> solution;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, STPTranslationException, STPTranslationWindFarmException {
+		GeneratedInstance generated = new GeneratedInstance(nbTurbines, seed);
+		file = File.createTempFile("windfarm", ".stp");
+		generated.write(file);
+		instance = STPWindFarmTranslator.translateFile(file.getPath());
+
+		RecordingInstance recorder = generated.build(RecordingInstance::new);
+		algorithm = new GFLAC2WindFarmAlgorithm3();
+		algorithm.setInstance(recorder);
+		algorithm.compute();
+		treeFlow = recorder.treeFlow;
+		nbSecFlow = recorder.nbSecFlow;
+		solution = algorithm.getArborescence();
+		if (treeFlow == null || nbSecFlow == null || solution == null)
+			throw new IllegalStateException("GFLAC2 found no solution");
+
+		algorithm.setInstance(instance);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public WindFarmInstance translateFile() throws STPTranslationException, STPTranslationWindFarmException {
+		return STPWindFarmTranslator.translateFile(file.getPath());
+	}
+
+	@Benchmark
+	public Double compute() {
+		algorithm.compute();
+		return algorithm.getCost();
+	}
+
+	@Benchmark
+	public HashMap<Arc, Integer> unviolateTreeConstraint() {
+		return instance.unviolateTreeConstraint(treeFlow);
+	}
+
+	@Benchmark
+	public HashMap<Arc, Integer> unviolateMaxNbSecConstraint() {
+		return instance.unviolateMaxNbSecConstraint(nbSecFlow);
+	}
+
+	@Benchmark
+	public HashSet<WindFarmInstance.ResultError> testSolution() {
+		return instance.testSolution(solution);
+	}
+
+	@Benchmark
+	public WindFarmInstance simplifyWithAngles() {
+		return instance.simplifyWithAngles(Math.PI / 12);
+	}
+
+	@Benchmark
+	public WindFarmInstance simplifyWithNeighbours() {
+		return instance.simplifyWithNeighbours(8, 8);
+	}
+
+	/**
+	 * Instance recording the inputs of the repairs of GFLAC2.
+	 */
+	public static class RecordingInstance extends WindFarmInstance {
+
+		private HashMap<Arc, Integer> treeFlow;
+		private HashMap<Arc, Integer> nbSecFlow;
+
+		public RecordingInstance(DirectedGraph g) {
+			super(g);
+		}
+
+		@Override
+		public HashMap<Arc, Integer> unviolateTreeConstraint(HashMap<Arc, Integer> arborescenceFlow) {
+			treeFlow = new HashMap<Arc, Integer>(arborescenceFlow);
+			return super.unviolateTreeConstraint(arborescenceFlow);
+		}
+
+		@Override
+		public HashMap<Arc, Integer> unviolateMaxNbSecConstraint(HashMap<Arc, Integer> arborescenceFlows) {
+			nbSecFlow = new HashMap<Arc, Integer>(arborescenceFlows);
+			return super.unviolateMaxNbSecConstraint(arborescenceFlows);
+		}
+	}
+}
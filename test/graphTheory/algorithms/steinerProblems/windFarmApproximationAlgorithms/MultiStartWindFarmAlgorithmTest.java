@@ -0,0 +1,50 @@
+package graphTheory.algorithms.steinerProblems.windFarmApproximationAlgorithms;
+
+import graphTheory.generators.windfarm.RandomWindFarmGenerator;
+import graphTheory.instances.steiner.windfarm.WindFarmInstance;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The restarts of {@link MultiStartWindFarmAlgorithm} run in parallel over the
+ * same instance: the result must not depend on the number of threads.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class MultiStartWindFarmAlgorithmTest {
+
+	private static MultiStartWindFarmAlgorithm run(WindFarmInstance eol, int parallelism) {
+		MultiStartWindFarmAlgorithm alg = new MultiStartWindFarmAlgorithm();
+		alg.setNbRestarts(16);
+		alg.setParallelism(parallelism);
+		alg.setSeed(7L);
+		alg.setInstance(eol);
+		alg.compute();
+		return alg;
+	}
+
+	@Test
+	public void parallelRestartsReturnTheSequentialResult() {
+		for (long seed = 1; seed <= 4; seed++) {
+			WindFarmInstance eol = new RandomWindFarmGenerator(150, seed).generate();
+			assertNotNull(eol.getRoot());
+			assertTrue(eol.getNumberOfRequiredVertices() > 0);
+			// Drawing attributes in the graph of the instance must not be
+			// modified by the restarts either
+			eol.applyStyle();
+
+			MultiStartWindFarmAlgorithm sequential = run(eol, 1);
+			assertNotNull(sequential.getArborescence());
+			for (int i = 0; i < 5; i++) {
+				MultiStartWindFarmAlgorithm parallel = run(eol, 4);
+				assertEquals(sequential.getBestRestart(), parallel.getBestRestart());
+				assertEquals(sequential.getCost(), parallel.getCost());
+				assertEquals(sequential.getArborescence(), parallel.getArborescence());
+			}
+		}
+	}
+}
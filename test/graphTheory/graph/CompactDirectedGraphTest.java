@@ -0,0 +1,50 @@
+package graphTheory.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The snapshot of a graph must find the dense id of every node and arc,
+ * including when the nodes are sparse or extreme integers.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class CompactDirectedGraphTest {
+
+	private static void checkIndexes(DirectedGraph g, int absentNode) {
+		CompactDirectedGraph cg = g.freeze();
+		assertEquals(g.getNumberOfVertices(), cg.getNumberOfVertices());
+		for (Integer node : g.getVerticesView())
+			assertEquals(node.intValue(), cg.getVertex(cg.getIndex(node)));
+		assertEquals(-1, cg.getIndex(absentNode));
+		for (Arc a : g.getEdges()) {
+			int id = cg.getArcIndex(a);
+			assertEquals(a, cg.getArc(id));
+			assertEquals(id, cg.getArcIndex(cg.getIndex(a.getInput()), cg.getIndex(a.getOutput())));
+		}
+		assertEquals(-1, cg.getArcIndex(cg.getIndex(g.getVerticesView().iterator().next()), -1));
+	}
+
+	private static DirectedGraph completeGraph(int... nodes) {
+		DirectedGraph g = new DirectedGraph();
+		for (int node : nodes)
+			g.addVertice(node);
+		for (int u : nodes)
+			for (int v : nodes)
+				if (u != v)
+					g.addDirectedEdge(u, v);
+		return g;
+	}
+
+	@Test
+	public void denseNodes() {
+		checkIndexes(completeGraph(1, 2, 3, 5, 8, 13), 4);
+	}
+
+	@Test
+	public void sparseNodes() {
+		checkIndexes(completeGraph(Integer.MIN_VALUE, -1000000, 0, 7, 1 << 30, Integer.MAX_VALUE), 1);
+	}
+}
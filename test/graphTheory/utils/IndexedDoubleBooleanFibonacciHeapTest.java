@@ -0,0 +1,60 @@
+package graphTheory.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link IndexedDoubleBooleanFibonacciHeap} must remove the ids in the same
+ * order as a {@link CustomFibonacciHeap} of {@link DoubleBoolean}, including
+ * the ids with equal keys.
+ *
+ * @author Watel Dimitri
+ *
+ */
+public class IndexedDoubleBooleanFibonacciHeapTest {
+
+	@Test
+	public void sameOrderAsCustomFibonacciHeap() {
+		int capacity = 200;
+		for (long seed = 1; seed <= 20; seed++) {
+			Random random = new Random(seed);
+			IndexedDoubleBooleanFibonacciHeap heap = new IndexedDoubleBooleanFibonacciHeap(capacity);
+			CustomFibonacciHeap<Integer, DoubleBoolean> reference = new CustomFibonacciHeap<Integer, DoubleBoolean>();
+			List<CustomFibonacciHeapNode<Integer, DoubleBoolean>> nodes = new ArrayList<CustomFibonacciHeapNode<Integer, DoubleBoolean>>(
+					Collections.nCopies(capacity, (CustomFibonacciHeapNode<Integer, DoubleBoolean>) null));
+
+			for (int step = 0; step < 5000; step++) {
+				int id = random.nextInt(capacity);
+				int operation = random.nextInt(3);
+				// Few distinct keys, so that many ids are tied
+				double d = random.nextInt(20);
+				boolean b = random.nextBoolean();
+				if (operation == 0 && !heap.contains(id)) {
+					heap.insert(id, d, b);
+					nodes.set(id, reference.insert(id, new DoubleBoolean(d, b)));
+				}
+				else if (operation == 1 && heap.contains(id)) {
+					if (d >= heap.getDoubleValue(id)) {
+						d = heap.getDoubleValue(id);
+						b = b && heap.getBooleanValue(id);
+					}
+					heap.decreaseKey(id, d, b);
+					reference.decreaseKey(nodes.get(id), new DoubleBoolean(d, b));
+				}
+				else if (operation == 2 && !heap.isEmpty())
+					assertEquals(reference.removeMin().getData().intValue(), heap.removeMin());
+				assertEquals(reference.size(), heap.size());
+			}
+			while (!heap.isEmpty())
+				assertEquals(reference.removeMin().getData().intValue(), heap.removeMin());
+			assertTrue(reference.isEmpty());
+		}
+	}
+}